@@ -0,0 +1,248 @@
+package ru.y_lab.datagen;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import ru.y_lab.enums.ResourceType;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-loads a reproducible synthetic dataset of users, resources and bookings through the PostgreSQL
+ * {@code COPY} protocol.
+ *
+ * <p>The generator appends to the existing data: ids continue after the current maximum and the sequences are
+ * moved past the generated rows. Missing monthly booking partitions are created before loading, and the
+ * occupancy aggregates are rebuilt afterwards because bulk-loaded bookings bypass the application events.
+ * Everything is written in a single transaction.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DatasetGenerator {
+
+    private static final int BUSINESS_START_HOUR = 9;
+    private static final int BUSINESS_END_HOUR = 18;
+    private static final int MAX_BOOKING_HOURS = 3;
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+    private static final String PASSWORD = "password";
+    private static final String PASSWORD_HASH = new BCryptPasswordEncoder().encode(PASSWORD);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String REBUILD_OCCUPANCY_SQL = """
+            DELETE FROM coworking_service.resource_daily_occupancy;
+            DELETE FROM coworking_service.resource_hourly_occupancy;
+
+            INSERT INTO coworking_service.resource_daily_occupancy (resource_id, day, booked_minutes, booking_count)
+            SELECT b.resource_id,
+                   CAST(d.day AS DATE),
+                   SUM(FLOOR(EXTRACT(EPOCH FROM (LEAST(b.end_time, d.day + INTERVAL '1 day') - GREATEST(b.start_time, d.day))) / 60)),
+                   COUNT(*)
+            FROM coworking_service.bookings b
+            CROSS JOIN LATERAL generate_series(date_trunc('day', b.start_time), b.end_time - INTERVAL '1 microsecond', INTERVAL '1 day') AS d(day)
+            GROUP BY b.resource_id, CAST(d.day AS DATE);
+
+            INSERT INTO coworking_service.resource_hourly_occupancy (resource_id, day, hour, booked_minutes)
+            SELECT b.resource_id,
+                   CAST(h.hour AS DATE),
+                   CAST(EXTRACT(HOUR FROM h.hour) AS SMALLINT),
+                   SUM(FLOOR(EXTRACT(EPOCH FROM (LEAST(b.end_time, h.hour + INTERVAL '1 hour') - GREATEST(b.start_time, h.hour))) / 60))
+            FROM coworking_service.bookings b
+            CROSS JOIN LATERAL generate_series(date_trunc('hour', b.start_time), b.end_time - INTERVAL '1 microsecond', INTERVAL '1 hour') AS h(hour)
+            GROUP BY b.resource_id, CAST(h.hour AS DATE), CAST(EXTRACT(HOUR FROM h.hour) AS SMALLINT)""";
+
+    private final DataSource dataSource;
+
+    /**
+     * Generates and loads a dataset.
+     *
+     * @param spec the shape of the dataset
+     * @return the summary of the generated rows
+     * @throws SQLException if loading fails; nothing is written in that case
+     */
+    public GeneratedDataset generate(DatasetSpec spec) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                GeneratedDataset dataset = load(connection, spec);
+                connection.commit();
+                try (Statement statement = connection.createStatement()) {
+                    connection.setAutoCommit(true);
+                    statement.execute("ANALYZE");
+                }
+                return dataset;
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Returns the username of a generated user. Usernames are letters only, like the registration form requires.
+     *
+     * @param userId the ID of the user
+     * @return the username
+     */
+    public static String username(long userId) {
+        StringBuilder suffix = new StringBuilder();
+        long value = userId;
+        do {
+            suffix.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return "user" + suffix.reverse();
+    }
+
+    /**
+     * Returns the password shared by all generated users. It is stored as a BCrypt hash with the default strength.
+     *
+     * @return the password
+     */
+    public static String password() {
+        return PASSWORD;
+    }
+
+    private GeneratedDataset load(Connection connection, DatasetSpec spec) throws SQLException {
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+        long firstUserId = maxId(connection, "users") + 1;
+        long firstResourceId = maxId(connection, "resources") + 1;
+        long firstBookingId = maxId(connection, "bookings") + 1;
+        LocalDate firstDay = LocalDate.now().minusDays(spec.historyDays());
+        LocalDate lastDay = LocalDate.now().plusDays(spec.futureDays());
+        int hotResources = (int) Math.round(spec.resources() * spec.hotResourceShare());
+
+        createPartitions(connection, firstDay, lastDay);
+
+        try (CopyWriter users = new CopyWriter(copyManager.copyIn(
+                "COPY coworking_service.users (id, username, password, role) FROM STDIN"))) {
+            for (long id = firstUserId; id < firstUserId + spec.users(); id++)
+                users.row(id, username(id), PASSWORD_HASH, "USER");
+        }
+
+        ResourceType[] types = ResourceType.values();
+        try (CopyWriter resources = new CopyWriter(copyManager.copyIn(
+                "COPY coworking_service.resources (id, user_id, name, type) FROM STDIN"))) {
+            for (int i = 0; i < spec.resources(); i++) {
+                long ownerId = firstUserId + random.nextInt(spec.users());
+                resources.row(firstResourceId + i, ownerId, "Resource " + (firstResourceId + i), types[i % types.length].name());
+            }
+        }
+
+        long bookingId = firstBookingId;
+        try (CopyWriter bookings = new CopyWriter(copyManager.copyIn(
+                "COPY coworking_service.bookings (id, user_id, resource_id, start_time, end_time) FROM STDIN"))) {
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                double dayFactor = isWeekend(day) ? spec.weekendFactor() : 1.0;
+                for (int i = 0; i < spec.resources(); i++) {
+                    double occupancy = (i < hotResources ? spec.hotOccupancy() : spec.coldOccupancy()) * dayFactor;
+                    int hour = BUSINESS_START_HOUR;
+                    while (hour < BUSINESS_END_HOUR) {
+                        if (random.nextDouble() >= occupancy) {
+                            hour++;
+                            continue;
+                        }
+                        int duration = 1 + random.nextInt(Math.min(MAX_BOOKING_HOURS, BUSINESS_END_HOUR - hour));
+                        LocalDateTime start = day.atTime(hour, 0);
+                        bookings.row(bookingId++,
+                                firstUserId + random.nextInt(spec.users()),
+                                firstResourceId + i,
+                                TIMESTAMP_FORMAT.format(start),
+                                TIMESTAMP_FORMAT.format(start.plusHours(duration)));
+                        hour += duration;
+                    }
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT setval('coworking_service.users_id_seq', (SELECT MAX(id) FROM coworking_service.users))");
+            statement.execute("SELECT setval('coworking_service.resources_id_seq', (SELECT MAX(id) FROM coworking_service.resources))");
+            statement.execute("SELECT setval('coworking_service.bookings_id_seq', GREATEST((SELECT MAX(id) FROM coworking_service.bookings), 1))");
+            statement.execute(REBUILD_OCCUPANCY_SQL);
+        }
+
+        GeneratedDataset dataset = new GeneratedDataset(firstUserId, spec.users(), firstResourceId, spec.resources(),
+                hotResources, bookingId - firstBookingId);
+        log.info("Generated {}", dataset);
+        return dataset;
+    }
+
+    private long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM coworking_service." + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private void createPartitions(Connection connection, LocalDate firstDay, LocalDate lastDay) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (LocalDate month = firstDay.withDayOfMonth(1); !month.isAfter(lastDay); month = month.plusMonths(1))
+                statement.execute("SELECT coworking_service.create_bookings_partition(DATE '" + month + "')");
+        }
+    }
+
+    private boolean isWeekend(LocalDate day) {
+        return day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    /**
+     * Buffers rows in the COPY text format and streams them to the server in large chunks.
+     */
+    private static final class CopyWriter implements AutoCloseable {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 256);
+        private boolean completed;
+
+        private CopyWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        private void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0)
+                    buffer.append('\t');
+                buffer.append(values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_THRESHOLD)
+                flush();
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (completed)
+                return;
+            completed = true;
+            try {
+                flush();
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive())
+                    copyIn.cancelCopy();
+            }
+        }
+    }
+}
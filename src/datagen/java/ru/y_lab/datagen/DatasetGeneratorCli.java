@@ -0,0 +1,62 @@
+package ru.y_lab.datagen;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line entry point of {@link DatasetGenerator}.
+ *
+ * <p>Usage: {@code ./gradlew generateDataset -PdatasetArgs="--url=jdbc:postgresql://localhost:5437/coworkingdb
+ * --username=daler --password=daler123 --preset=large --seed=7"}. The schema must already be migrated.
+ * Every {@link DatasetSpec} component can be overridden by name, e.g. {@code --users=5000 --historyDays=730}.
+ */
+public final class DatasetGeneratorCli {
+
+    private DatasetGeneratorCli() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                options.getOrDefault("url", "jdbc:postgresql://localhost:5437/coworkingdb"),
+                options.getOrDefault("username", "daler"),
+                options.getOrDefault("password", "daler123"));
+
+        DatasetSpec preset = "large".equals(options.getOrDefault("preset", "small")) ? DatasetSpec.large() : DatasetSpec.small();
+        DatasetSpec spec = new DatasetSpec(
+                intOption(options, "users", preset.users()),
+                intOption(options, "resources", preset.resources()),
+                doubleOption(options, "hotResourceShare", preset.hotResourceShare()),
+                doubleOption(options, "hotOccupancy", preset.hotOccupancy()),
+                doubleOption(options, "coldOccupancy", preset.coldOccupancy()),
+                doubleOption(options, "weekendFactor", preset.weekendFactor()),
+                intOption(options, "historyDays", preset.historyDays()),
+                intOption(options, "futureDays", preset.futureDays()),
+                Long.parseLong(options.getOrDefault("seed", String.valueOf(preset.seed()))));
+
+        GeneratedDataset dataset = new DatasetGenerator(dataSource).generate(spec);
+        System.out.println(dataset);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("="))
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    private static double doubleOption(Map<String, String> options, String name, double defaultValue) {
+        return options.containsKey(name) ? Double.parseDouble(options.get(name)) : defaultValue;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.y_lab.datagen;
+
+/**
+ * DatasetSpec describes the shape of a synthetic dataset produced by {@link DatasetGenerator}.
+ *
+ * <p>Bookings are laid out day by day inside business hours (09:00-18:00) without overlaps. For every hour that
+ * is still free a resource gets a new booking of one to three hours with the probability of its occupancy.
+ * The first {@code hotResourceShare} of the resources use {@code hotOccupancy}, the rest {@code coldOccupancy},
+ * and weekends are scaled down by {@code weekendFactor}. The same spec and seed always produce the same data.
+ *
+ * @param users the number of users to create
+ * @param resources the number of resources to create
+ * @param hotResourceShare the share of resources that are booked most of the time, between 0 and 1
+ * @param hotOccupancy the probability that a free business hour of a hot resource starts a booking
+ * @param coldOccupancy the probability that a free business hour of any other resource starts a booking
+ * @param weekendFactor the multiplier applied to the occupancy on Saturdays and Sundays
+ * @param historyDays the number of past days covered by bookings
+ * @param futureDays the number of future days covered by bookings
+ * @param seed the seed of the random generator
+ */
+public record DatasetSpec(int users,
+                          int resources,
+                          double hotResourceShare,
+                          double hotOccupancy,
+                          double coldOccupancy,
+                          double weekendFactor,
+                          int historyDays,
+                          int futureDays,
+                          long seed) {
+
+    /**
+     * A dataset of roughly 100 thousand bookings, quick enough for integration tests.
+     *
+     * @return the small dataset spec
+     */
+    public static DatasetSpec small() {
+        return new DatasetSpec(1_000, 100, 0.1, 0.8, 0.2, 0.1, 365, 30, 42L);
+    }
+
+    /**
+     * A dataset of several million bookings over three years, used for benchmarks and load tests.
+     *
+     * @return the large dataset spec
+     */
+    public static DatasetSpec large() {
+        return new DatasetSpec(100_000, 2_000, 0.05, 0.85, 0.25, 0.1, 3 * 365, 90, 42L);
+    }
+
+    /**
+     * Returns a copy of this spec with another seed.
+     *
+     * @param seed the seed of the random generator
+     * @return the spec with the given seed
+     */
+    public DatasetSpec withSeed(long seed) {
+        return new DatasetSpec(users, resources, hotResourceShare, hotOccupancy, coldOccupancy, weekendFactor,
+                historyDays, futureDays, seed);
+    }
+}
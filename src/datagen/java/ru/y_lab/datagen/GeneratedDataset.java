@@ -0,0 +1,30 @@
+package ru.y_lab.datagen;
+
+/**
+ * GeneratedDataset summarizes the rows written by {@link DatasetGenerator}.
+ * Generated ids are contiguous, so callers can pick users and resources by offset.
+ *
+ * @param firstUserId the ID of the first generated user
+ * @param users the number of generated users
+ * @param firstResourceId the ID of the first generated resource
+ * @param resources the number of generated resources
+ * @param hotResources the number of hot resources, which are the first ones by ID
+ * @param bookings the number of generated bookings
+ */
+public record GeneratedDataset(long firstUserId,
+                               int users,
+                               long firstResourceId,
+                               int resources,
+                               int hotResources,
+                               long bookings) {
+
+    /**
+     * Returns the username of the generated user with the given offset.
+     *
+     * @param offset the offset of the user, from 0 to {@code users - 1}
+     * @return the username of the user
+     */
+    public String username(int offset) {
+        return DatasetGenerator.username(firstUserId + offset);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.y_lab.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link WhitelistMatcher} against the previous {@link AntPathMatcher} loop, for whitelisted
+ * and protected routes. Run with {@code -prof gc} to check that matching does not allocate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WhitelistMatcherBenchmark {
+
+    /**
+     * Copy of {@code security.auth-whitelist} from application.yml.
+     */
+    private static final String[] WHITELIST = {
+            "/api-docs/**",
+            "/swagger-ui/**",
+            "/swagger-ui.html",
+            "/swagger-resources/**",
+            "/webjars/**",
+            "/api/v1/users/register",
+            "/api/v1/users/login",
+            "/api/v1/users/refresh"
+    };
+
+    @Param({"/api/v1/users/login", "/swagger-ui/index.html", "/api/v1/bookings/available-slots", "/api/v1/bookings/resource/42"})
+    public String path;
+
+    private final WhitelistMatcher whitelistMatcher = new WhitelistMatcher(WHITELIST);
+    private final PathMatcher antPathMatcher = new AntPathMatcher();
+
+    @Benchmark
+    public boolean whitelistMatcher() {
+        return whitelistMatcher.matches(path);
+    }
+
+    @Benchmark
+    public boolean antPathMatcherLoop() {
+        for (String pattern : WHITELIST) {
+            if (antPathMatcher.match(pattern, path))
+                return true;
+        }
+        return false;
+    }
+}
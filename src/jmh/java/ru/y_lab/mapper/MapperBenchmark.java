@@ -0,0 +1,77 @@
+package ru.y_lab.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import ru.y_lab.dto.BookingDTO;
+import ru.y_lab.dto.BookingWithOwnerResourceDTO;
+import ru.y_lab.dto.UserDTO;
+import ru.y_lab.model.Booking;
+import ru.y_lab.model.Resource;
+import ru.y_lab.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the MapStruct generated {@link BookingMapper} and {@link UserMapper} and for
+ * the {@link CustomDateTimeMapper} conversions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final CustomDateTimeMapper dateTimeMapper = new CustomDateTimeMapper();
+
+    private Booking booking;
+    private Resource resource;
+    private User user;
+    private final Long epochMillis = 1_792_400_400_000L;
+    private final LocalTime time = LocalTime.of(14, 30);
+
+    @Setup
+    public void setUp() {
+        user = User.builder().id(1L).username("Admin").password("admin123").role("ADMIN").build();
+        resource = Resource.builder().id(2L).userId(1L).name("Conference Room").type("CONFERENCE_ROOM").build();
+        booking = Booking.builder()
+                .id(3L)
+                .userId(1L)
+                .resourceId(2L)
+                .startTime(LocalDateTime.of(2026, 10, 19, 10, 0))
+                .endTime(LocalDateTime.of(2026, 10, 19, 12, 0))
+                .build();
+    }
+
+    @Benchmark
+    public BookingDTO bookingToDTO() {
+        return bookingMapper.toDTO(booking);
+    }
+
+    @Benchmark
+    public BookingWithOwnerResourceDTO bookingToBookingWithOwnerResourceDTO() {
+        return bookingMapper.toBookingWithOwnerResourceDTO(booking, resource, user);
+    }
+
+    @Benchmark
+    public UserDTO userToDTO() {
+        return userMapper.toDTO(user);
+    }
+
+    @Benchmark
+    public LocalDateTime toLocalDateTime() {
+        return dateTimeMapper.toLocalDateTime(epochMillis);
+    }
+
+    @Benchmark
+    public LocalDate toLocalDate() {
+        return dateTimeMapper.toLocalDate(epochMillis);
+    }
+
+    @Benchmark
+    public String formatLocalTime() {
+        return CustomDateTimeMapper.formatLocalTime(time);
+    }
+}
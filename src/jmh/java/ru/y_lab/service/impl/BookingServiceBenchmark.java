@@ -0,0 +1,77 @@
+package ru.y_lab.service.impl;
+
+import org.openjdk.jmh.annotations.*;
+import ru.y_lab.dto.AvailableSlotDTO;
+import ru.y_lab.model.Booking;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the CPU-bound parts of {@link BookingServiceImpl}: filtering a resource's bookings by date,
+ * building the available slots of a day and the conflict check over overlapping bookings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookingServiceBenchmark {
+
+    /**
+     * The number of days of bookings of one resource the date filter has to go through.
+     */
+    @Param({"1", "30"})
+    public int days;
+
+    private final LocalDate date = LocalDate.of(2026, 10, 19);
+    private List<Booking> resourceBookings;
+    private List<Booking> dayBookings;
+    private Booking freeCandidate;
+    private Booking conflictingCandidate;
+
+    @Setup
+    public void setUp() {
+        resourceBookings = new ArrayList<>();
+        long id = 1;
+        for (int day = 0; day < days; day++) {
+            LocalDate bookingDate = date.plusDays(day);
+            for (int hour = 9; hour < 18; hour += 2)
+                resourceBookings.add(booking(id++, bookingDate.atTime(hour, 0), bookingDate.atTime(hour + 1, 0)));
+        }
+        dayBookings = BookingServiceImpl.filterBookingsByDate(resourceBookings, date);
+        freeCandidate = booking(null, date.atTime(16, 0), date.atTime(17, 0));
+        conflictingCandidate = booking(null, date.atTime(17, 30), date.atTime(18, 0));
+    }
+
+    @Benchmark
+    public List<Booking> filterBookingsByDate() {
+        return BookingServiceImpl.filterBookingsByDate(resourceBookings, date);
+    }
+
+    @Benchmark
+    public List<AvailableSlotDTO> calculateAvailableSlots() {
+        return BookingServiceImpl.calculateAvailableSlots(dayBookings);
+    }
+
+    @Benchmark
+    public boolean conflictCheckFree() {
+        return BookingServiceImpl.hasConflict(freeCandidate, dayBookings);
+    }
+
+    @Benchmark
+    public boolean conflictCheckConflicting() {
+        return BookingServiceImpl.hasConflict(conflictingCandidate, dayBookings);
+    }
+
+    private static Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .userId(1L)
+                .resourceId(1L)
+                .startTime(start)
+                .endTime(end)
+                .build();
+    }
+}
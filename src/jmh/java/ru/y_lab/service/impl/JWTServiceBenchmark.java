@@ -0,0 +1,70 @@
+package ru.y_lab.service.impl;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for token generation and parsing in {@link JWTServiceImpl}.
+ * Every extraction parses and verifies the whole token, so they measure {@code extractAllClaims}.
+ * {@code isRevoked} measures the in-memory revocation check done for every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JWTServiceBenchmark {
+
+    private static final String SECRET = "k3QJ7+lHzH5Ghz1YhK60jxhF5Y6t5YT+FoF3DpvOPB9FEkA1Pn8v24e9R6hgkV1z+SfGtMWvsC9WgB32JcBrZQ==";
+
+    private JWTServiceImpl jwtService;
+    private TokenRevocationServiceImpl revocationService;
+    private String token;
+    private String bearerToken;
+    private Date issuedAt;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        revocationService = new TokenRevocationServiceImpl(null, 86_400_000L);
+        jwtService = new JWTServiceImpl(revocationService);
+        setField("secretKey", SECRET);
+        setField("expirationMs", 86_400_000L);
+        jwtService.init();
+
+        token = jwtService.generateToken("Admin", 1L, "ADMIN");
+        bearerToken = "Bearer " + token;
+        issuedAt = new Date();
+    }
+
+    @Benchmark
+    public boolean isRevoked() {
+        return revocationService.isRevoked(1L, issuedAt);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("Admin", 1L, "ADMIN");
+    }
+
+    @Benchmark
+    public Long extractUserId() {
+        return jwtService.extractUserId(bearerToken);
+    }
+
+    @Benchmark
+    public String extractUserRole() {
+        return jwtService.extractUserRole(token);
+    }
+
+    @Benchmark
+    public Boolean isTokenValid() {
+        return jwtService.isTokenValid(token, "Admin");
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = JWTServiceImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtService, value);
+    }
+}
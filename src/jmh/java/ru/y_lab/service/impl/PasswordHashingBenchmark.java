@@ -0,0 +1,43 @@
+package ru.y_lab.service.impl;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizes {@code security.password.bcrypt-strength} against the login latency budget.
+ *
+ * <p>Each strength step doubles the cost of a login. Pick the highest strength whose {@code matches} time
+ * stays within the share of the login budget reserved for hashing, and size
+ * {@code security.password.hashing-threads} as the peak login rate multiplied by that time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class PasswordHashingBenchmark {
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("admin123");
+    }
+
+    @Benchmark
+    public String hash() {
+        return encoder.encode("admin123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("admin123", hash);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.y_lab.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Enum representing the calls of the load-test mix together with their share of the traffic.
+ * Statuses listed as expected are business outcomes (a taken slot, a user without bookings), not errors.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Endpoint {
+
+    /**
+     * POST /api/v1/users/login with the credentials of a generated user.
+     */
+    LOGIN(5, Set.of(200)),
+
+    /**
+     * GET /api/v1/bookings/available-slots for a random resource and upcoming day.
+     */
+    AVAILABLE_SLOTS(40, Set.of(200)),
+
+    /**
+     * POST /api/v1/bookings for a random one-hour slot; a taken slot answers 409.
+     */
+    ADD_BOOKING(10, Set.of(200, 201, 409)),
+
+    /**
+     * GET /api/v1/bookings/user, the bookings of the logged-in user.
+     */
+    USER_BOOKINGS(25, Set.of(200, 404)),
+
+    /**
+     * GET /api/v1/bookings/resource/{resourceId}, the bookings of a random resource.
+     */
+    RESOURCE_BOOKINGS(20, Set.of(200, 404));
+
+    private final int weight;
+    private final Set<Integer> expectedStatuses;
+}
@@ -0,0 +1,212 @@
+package ru.y_lab.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import ru.y_lab.datagen.DatasetGenerator;
+import ru.y_lab.datagen.GeneratedDataset;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load generator. Every worker logs in as its own generated user and then issues calls
+ * picked from the weighted {@link Endpoint} mix back to back until the run ends.
+ *
+ * <p>Latencies are recorded in microseconds into one HDR histogram per endpoint. Calls made during the warm-up
+ * are executed but not recorded.
+ */
+@Slf4j
+public class LoadGenerator {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String baseUrl;
+    private final GeneratedDataset dataset;
+    private final int workers;
+    private final Duration warmup;
+    private final Duration duration;
+    private final long seed;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private final int totalWeight;
+
+    private volatile boolean recording;
+    private volatile boolean running;
+
+    public LoadGenerator(String baseUrl, GeneratedDataset dataset, int workers, Duration warmup, Duration duration, long seed) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.workers = workers;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.seed = seed;
+        int weights = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            histograms.put(endpoint, new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3));
+            errors.put(endpoint, new LongAdder());
+            weights += endpoint.getWeight();
+        }
+        this.totalWeight = weights;
+    }
+
+    /**
+     * Runs the warm-up and the measured phase and returns the measured results.
+     *
+     * @return the report of the measured phase
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public LoadReport run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            int worker = i;
+            executor.execute(() -> work(worker));
+        }
+
+        Thread.sleep(warmup.toMillis());
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+        recording = true;
+        long measuredStart = System.nanoTime();
+
+        Thread.sleep(duration.toMillis());
+        recording = false;
+        long measuredNanos = System.nanoTime() - measuredStart;
+        running = false;
+
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES))
+            executor.shutdownNow();
+
+        Map<Endpoint, Long> errorCounts = new EnumMap<>(Endpoint.class);
+        errors.forEach((endpoint, count) -> errorCounts.put(endpoint, count.sum()));
+        return new LoadReport(Duration.ofNanos(measuredNanos), histograms, errorCounts);
+    }
+
+    private void work(int worker) {
+        SplittableRandom random = new SplittableRandom(seed + worker);
+        int userOffset = worker % dataset.users();
+        String token = login(userOffset);
+
+        while (running) {
+            Endpoint endpoint = pick(random);
+            try {
+                if (endpoint == Endpoint.LOGIN) {
+                    String refreshed = login(userOffset);
+                    if (refreshed != null)
+                        token = refreshed;
+                } else {
+                    execute(endpoint, request(endpoint, token, random));
+                }
+            } catch (Exception ex) {
+                if (recording)
+                    errors.get(endpoint).increment();
+                log.debug("{} call failed: {}", endpoint, ex.getMessage());
+            }
+        }
+    }
+
+    private String login(int userOffset) {
+        String body = json(Map.of("username", dataset.username(userOffset), "password", DatasetGenerator.password()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            HttpResponse<String> response = execute(Endpoint.LOGIN, request);
+            if (response.statusCode() != 200)
+                return null;
+            return "Bearer " + objectMapper.readTree(response.body()).get("token").asText();
+        } catch (Exception ex) {
+            if (recording)
+                errors.get(Endpoint.LOGIN).increment();
+            return null;
+        }
+    }
+
+    private HttpRequest request(Endpoint endpoint, String token, SplittableRandom random) {
+        long resourceId = dataset.firstResourceId() + pickResource(random);
+        LocalDate day = LocalDate.now().plusDays(1 + random.nextInt(30));
+
+        HttpRequest.Builder builder = switch (endpoint) {
+            case AVAILABLE_SLOTS -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/bookings/available-slots"))
+                    .header("Content-Type", "application/json")
+                    .method("GET", HttpRequest.BodyPublishers.ofString(json(Map.of(
+                            "resourceId", resourceId,
+                            "date", day.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli()))));
+            case ADD_BOOKING -> {
+                long start = day.atTime(9 + random.nextInt(9), 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/bookings"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json(Map.of(
+                                "resourceId", resourceId,
+                                "startTime", start,
+                                "endTime", start + TimeUnit.HOURS.toMillis(1)))));
+            }
+            case USER_BOOKINGS -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/bookings/user")).GET();
+            case RESOURCE_BOOKINGS -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/bookings/resource/" + resourceId)).GET();
+            case LOGIN -> throw new IllegalArgumentException("Login requests are built by login()");
+        };
+        if (token != null)
+            builder.header("Authorization", token);
+        return builder.timeout(Duration.ofSeconds(30)).build();
+    }
+
+    private HttpResponse<String> execute(Endpoint endpoint, HttpRequest request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        if (recording) {
+            histograms.get(endpoint).recordValue(Math.min(micros, MAX_TRACKABLE_MICROS));
+            if (!endpoint.getExpectedStatuses().contains(response.statusCode()))
+                errors.get(endpoint).increment();
+        }
+        return response;
+    }
+
+    private Endpoint pick(SplittableRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (Endpoint endpoint : Endpoint.values()) {
+            value -= endpoint.getWeight();
+            if (value < 0)
+                return endpoint;
+        }
+        return Endpoint.AVAILABLE_SLOTS;
+    }
+
+    /**
+     * Half of the calls go to the hot resources, like the generated bookings.
+     */
+    private int pickResource(SplittableRandom random) {
+        if (dataset.hotResources() > 0 && random.nextBoolean())
+            return random.nextInt(dataset.hotResources());
+        return random.nextInt(dataset.resources());
+    }
+
+    private String json(Map<String, ?> body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
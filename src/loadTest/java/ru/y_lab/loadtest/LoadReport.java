@@ -0,0 +1,90 @@
+package ru.y_lab.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * LoadReport holds the measured phase of a load-test run: the latency histogram in microseconds
+ * and the number of errors of every endpoint.
+ *
+ * @param duration the length of the measured phase
+ * @param histograms the latency histograms by endpoint
+ * @param errors the number of failed or unexpected responses by endpoint
+ */
+public record LoadReport(Duration duration,
+                         Map<Endpoint, Histogram> histograms,
+                         Map<Endpoint, Long> errors) {
+
+    /**
+     * Returns the number of completed calls per second of an endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return the throughput in calls per second
+     */
+    public double throughput(Endpoint endpoint) {
+        return histograms.get(endpoint).getTotalCount() / seconds();
+    }
+
+    /**
+     * Returns the number of completed calls per second of all endpoints together.
+     *
+     * @return the total throughput in calls per second
+     */
+    public double totalThroughput() {
+        long total = 0;
+        for (Histogram histogram : histograms.values())
+            total += histogram.getTotalCount();
+        return total / seconds();
+    }
+
+    /**
+     * Returns a latency percentile of an endpoint in milliseconds.
+     *
+     * @param endpoint the endpoint
+     * @param percentile the percentile, e.g. 99.9
+     * @return the latency in milliseconds
+     */
+    public double percentileMillis(Endpoint endpoint, double percentile) {
+        return histograms.get(endpoint).getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Returns the share of calls of an endpoint that failed or got an unexpected status.
+     *
+     * @param endpoint the endpoint
+     * @return the error rate between 0 and 1
+     */
+    public double errorRate(Endpoint endpoint) {
+        long calls = histograms.get(endpoint).getTotalCount();
+        return calls == 0 ? 0 : (double) errors.get(endpoint) / calls;
+    }
+
+    /**
+     * Formats the report as a fixed-width table.
+     *
+     * @return the formatted report
+     */
+    public String format() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("Measured %d s, total %.1f req/s%n", duration.toSeconds(), totalThroughput()));
+        table.append(String.format("%-18s %10s %10s %10s %10s %10s %8s%n",
+                "endpoint", "calls", "req/s", "p50 ms", "p99 ms", "p999 ms", "errors"));
+        for (Endpoint endpoint : Endpoint.values()) {
+            table.append(String.format("%-18s %10d %10.1f %10.2f %10.2f %10.2f %8d%n",
+                    endpoint,
+                    histograms.get(endpoint).getTotalCount(),
+                    throughput(endpoint),
+                    percentileMillis(endpoint, 50),
+                    percentileMillis(endpoint, 99),
+                    percentileMillis(endpoint, 99.9),
+                    errors.get(endpoint)));
+        }
+        return table.toString();
+    }
+
+    private double seconds() {
+        return Math.max(duration.toMillis(), 1) / 1000.0;
+    }
+}
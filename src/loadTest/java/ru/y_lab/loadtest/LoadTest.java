@@ -0,0 +1,88 @@
+package ru.y_lab.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.y_lab.datagen.DatasetGenerator;
+import ru.y_lab.datagen.DatasetSpec;
+import ru.y_lab.datagen.GeneratedDataset;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test of the whole stack: the JWT filter, the aspects, the controllers, JPA and PostgreSQL.
+ *
+ * <p>The application runs on a random port against a Testcontainers PostgreSQL seeded by {@link DatasetGenerator}.
+ * The report is printed and written to {@code build/reports/load-test/report.txt}; the test fails when a
+ * {@link ServiceLevelObjectives service level objective} is violated. Run it with {@code ./gradlew loadTest}.
+ */
+@Testcontainers
+@ActiveProfiles("dev")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("End-to-end load test")
+public class LoadTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:13.3")
+            .withDatabaseName("coworkingdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        // the workers re-login far more often than a person would, all from the loopback address
+        registry.add("security.login-throttle.username.capacity", () -> "100000");
+        registry.add("security.login-throttle.username.refill-per-minute", () -> "100000");
+        registry.add("security.login-throttle.address.capacity", () -> "100000");
+        registry.add("security.login-throttle.address.refill-per-minute", () -> "100000");
+        registry.add("rate-limit.enabled", () -> "false");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Realistic call mix meets the service level objectives")
+    public void callMixMeetsServiceLevelObjectives() throws Exception {
+        DatasetSpec spec = "large".equals(System.getProperty("loadtest.dataset", "small"))
+                ? DatasetSpec.large()
+                : DatasetSpec.small();
+        GeneratedDataset dataset = new DatasetGenerator(dataSource).generate(spec);
+
+        LoadGenerator generator = new LoadGenerator("http://localhost:" + port, dataset,
+                Integer.getInteger("loadtest.workers", 32),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 15L)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60L)),
+                Long.getLong("loadtest.seed", 42L));
+        LoadReport report = generator.run();
+
+        String formatted = report.format();
+        System.out.println(formatted);
+        Path reportFile = Path.of(System.getProperty("loadtest.report", "build/reports/load-test/report.txt"));
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, formatted);
+
+        List<String> violations = new ServiceLevelObjectives().check(report);
+        assertTrue(violations.isEmpty(), "Service level objectives violated:\n" + String.join("\n", violations));
+    }
+}
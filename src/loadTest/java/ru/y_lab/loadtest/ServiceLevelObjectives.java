@@ -0,0 +1,57 @@
+package ru.y_lab.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Latency, error and throughput objectives the load test has to meet.
+ *
+ * <p>Objectives are read from system properties, which the {@code loadTest} Gradle task forwards from
+ * {@code -Ploadtest.*} project properties. Latency limits apply to every endpoint and can be overridden per
+ * endpoint, e.g. {@code loadtest.slo.available_slots.p99-ms=50}.
+ */
+public class ServiceLevelObjectives {
+
+    private static final String PREFIX = "loadtest.slo.";
+
+    /**
+     * Checks a report against the objectives.
+     *
+     * @param report the load-test report
+     * @return the violated objectives, empty if all are met
+     */
+    public List<String> check(LoadReport report) {
+        List<String> violations = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            checkLatency(violations, report, endpoint, "p50-ms", 50);
+            checkLatency(violations, report, endpoint, "p99-ms", 99);
+            checkLatency(violations, report, endpoint, "p999-ms", 99.9);
+
+            double maxErrorRate = limit(endpoint, "max-error-rate", 0.01);
+            if (report.errorRate(endpoint) > maxErrorRate)
+                violations.add(String.format("%s error rate %.4f > %.4f", endpoint, report.errorRate(endpoint), maxErrorRate));
+        }
+
+        double minThroughput = limit(null, "min-throughput", 0);
+        if (report.totalThroughput() < minThroughput)
+            violations.add(String.format("total throughput %.1f req/s < %.1f req/s", report.totalThroughput(), minThroughput));
+        return violations;
+    }
+
+    private void checkLatency(List<String> violations, LoadReport report, Endpoint endpoint, String name, double percentile) {
+        double limit = limit(endpoint, name, Double.MAX_VALUE);
+        double actual = report.percentileMillis(endpoint, percentile);
+        if (actual > limit)
+            violations.add(String.format("%s %s %.2f > %.2f", endpoint, name, actual, limit));
+    }
+
+    private double limit(Endpoint endpoint, String name, double defaultValue) {
+        String value = null;
+        if (endpoint != null)
+            value = System.getProperty(PREFIX + endpoint.name().toLowerCase(Locale.ROOT) + "." + name);
+        if (value == null)
+            value = System.getProperty(PREFIX + name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
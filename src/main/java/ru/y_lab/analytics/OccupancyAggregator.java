@@ -0,0 +1,95 @@
+package ru.y_lab.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.y_lab.event.BookingChangedEvent;
+import ru.y_lab.repo.OccupancyRepo;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps the occupancy aggregate tables in step with the bookings table.
+ * The listener is synchronous, so every delta is written in the transaction of the booking change
+ * and disappears with it on rollback.
+ *
+ * <p>A booking contributes its minutes to every day and hour it overlaps and counts once per day.
+ * Minutes are truncated per day and per hour piece, the same way the backfill migration computes them,
+ * so removing a booking subtracts exactly what adding it contributed.
+ */
+@Component
+@RequiredArgsConstructor
+public class OccupancyAggregator {
+
+    private final OccupancyRepo occupancyRepo;
+
+    /**
+     * Applies the occupancy delta of a booking change. The delta is netted per day and per hour first, so a moved
+     * booking touches every row once, and the rows are then updated in key order, so concurrent changes of the
+     * same resource always lock its rows in the same order and cannot deadlock.
+     *
+     * @param event the booking change
+     */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        Delta delta = new Delta();
+        switch (event.type()) {
+            case ADDED -> delta.add(event.startTime(), event.endTime(), 1);
+            case DELETED -> delta.add(event.startTime(), event.endTime(), -1);
+            case UPDATED -> {
+                delta.add(event.previousStartTime(), event.previousEndTime(), -1);
+                delta.add(event.startTime(), event.endTime(), 1);
+            }
+        }
+        delta.applyTo(occupancyRepo, event.resourceId());
+    }
+
+    /**
+     * Net minutes and booking counts per day, and net minutes per hour, sorted by day and hour.
+     */
+    private static final class Delta {
+
+        private final SortedMap<LocalDate, long[]> daily = new TreeMap<>();
+        private final SortedMap<LocalDateTime, Long> hourly = new TreeMap<>();
+
+        private void add(LocalDateTime start, LocalDateTime end, int sign) {
+            LocalDateTime day = start.truncatedTo(ChronoUnit.DAYS);
+            while (day.isBefore(end)) {
+                LocalDateTime nextDay = day.plusDays(1);
+                long[] minutesAndCount = daily.computeIfAbsent(day.toLocalDate(), key -> new long[2]);
+                minutesAndCount[0] += sign * overlapMinutes(start, end, day, nextDay);
+                minutesAndCount[1] += sign;
+                day = nextDay;
+            }
+
+            LocalDateTime hour = start.truncatedTo(ChronoUnit.HOURS);
+            while (hour.isBefore(end)) {
+                LocalDateTime nextHour = hour.plusHours(1);
+                hourly.merge(hour, sign * overlapMinutes(start, end, hour, nextHour), Long::sum);
+                hour = nextHour;
+            }
+        }
+
+        private void applyTo(OccupancyRepo occupancyRepo, Long resourceId) {
+            daily.forEach((day, minutesAndCount) -> {
+                if (minutesAndCount[0] != 0 || minutesAndCount[1] != 0)
+                    occupancyRepo.addDaily(resourceId, day, minutesAndCount[0], minutesAndCount[1]);
+            });
+            hourly.forEach((hour, minutes) -> {
+                if (minutes != 0)
+                    occupancyRepo.addHourly(resourceId, hour.toLocalDate(), hour.getHour(), minutes);
+            });
+        }
+    }
+
+    private static long overlapMinutes(LocalDateTime start, LocalDateTime end, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime pieceStart = start.isAfter(from) ? start : from;
+        LocalDateTime pieceEnd = end.isBefore(to) ? end : to;
+        return Duration.between(pieceStart, pieceEnd).toMinutes();
+    }
+}
@@ -0,0 +1,25 @@
+package ru.y_lab.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The {@code RetryOnConflict} annotation marks a transactional method that is run again from the start when its
+ * transaction loses an optimistic locking race, i.e. another transaction updated the same entity version first.
+ *
+ * <p>The method is retried only when it starts its own transaction; within a surrounding transaction the failure
+ * is passed on, because the surrounding persistence context is no longer usable. The method must be safe to run
+ * again, and must check any version the caller expects itself, so that a retry fails instead of overwriting a
+ * change the caller has not seen.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /**
+     * The maximum number of times the method is run, including the first one.
+     */
+    int maxAttempts() default 3;
+}
@@ -0,0 +1,85 @@
+package ru.y_lab.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.y_lab.repo.BookingRepo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background job that moves past bookings from the live {@code bookings} table into {@code bookings_archive}.
+ *
+ * <p>A booking is archived once it ended more than {@code bookings.archive.horizon-days} ago. Every batch is
+ * moved in its own short transaction, so the job never holds many row locks and can be interrupted at any
+ * point. Archiving is not a booking change: no events are published and the occupancy aggregates are kept.
+ * Exposes the {@code bookings.archive.moved} metric.
+ */
+@Slf4j
+@Component
+public class BookingArchiver {
+
+    private final BookingRepo bookingRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int horizonDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final Counter movedCounter;
+
+    public BookingArchiver(BookingRepo bookingRepo,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${bookings.archive.enabled:true}") boolean enabled,
+                           @Value("${bookings.archive.horizon-days:90}") int horizonDays,
+                           @Value("${bookings.archive.batch-size:1000}") int batchSize,
+                           @Value("${bookings.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.bookingRepo = bookingRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.movedCounter = Counter.builder("bookings.archive.moved")
+                .description("Bookings moved to the archive table")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archives batches of past bookings until none are left or the per-run limit is reached.
+     */
+    @Scheduled(cron = "${bookings.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        if (!enabled)
+            return;
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(horizonDays);
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int moved = archiveBatch(cutoff);
+            total += moved;
+            if (moved < batchSize)
+                break;
+        }
+        if (total > 0)
+            log.info("Archived {} bookings that ended before {}", total, cutoff);
+    }
+
+    /**
+     * Moves one batch of bookings that ended before the cutoff.
+     *
+     * @param cutoff the bookings ending before this moment are archived
+     * @return the number of archived bookings
+     */
+    int archiveBatch(LocalDateTime cutoff) {
+        Integer moved = transactionTemplate.execute(status -> bookingRepo.archiveEndedBefore(cutoff, batchSize));
+        int count = moved == null ? 0 : moved;
+        movedCounter.increment(count);
+        return count;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.y_lab.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.y_lab.annotation.RetryOnConflict;
+import ru.y_lab.exception.VersionConflictException;
+
+/**
+ * Retries methods annotated with {@link RetryOnConflict} after an optimistic locking failure.
+ * The aspect runs before the transaction interceptor, so every attempt gets a new transaction and a fresh
+ * persistence context, and failures raised by the commit are retried too.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RetryOnConflictAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            return proceed(joinPoint);
+
+        String method = joinPoint.getSignature().getName();
+        int attempt = 1;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= retryOnConflict.maxAttempts()) {
+                    conflicts(method, "exhausted").increment();
+                    throw new VersionConflictException("The entity was modified concurrently. Please reload it and try again.");
+                }
+                conflicts(method, "retried").increment();
+                attempt++;
+            }
+        }
+    }
+
+    private Object proceed(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } catch (OptimisticLockingFailureException ex) {
+            throw new VersionConflictException("The entity was modified concurrently. Please reload it and try again.");
+        }
+    }
+
+    private Counter conflicts(String method, String outcome) {
+        return Counter.builder("concurrency.conflicts")
+                .description("Optimistic locking failures by method and whether the call was retried")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,163 @@
+package ru.y_lab.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.y_lab.dto.AvailableSlotDTO;
+import ru.y_lab.enums.ResourceEventType;
+import ru.y_lab.event.BookingChangedEvent;
+import ru.y_lab.event.ResourceChangedEvent;
+import ru.y_lab.event.SlotHoldChangedEvent;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the available slots of a resource on a day.
+ *
+ * <p>The slots of a day are computed from the bookings that start on that day, so a booking change invalidates
+ * the start date of the booking, and for an update also the start date before the update. Invalidation runs after
+ * the transaction commits; a rolled back change leaves the cache untouched because it never changed the data.
+ *
+ * <p>A load that read the database before a commit may finish after the invalidation of that commit. To keep
+ * such a load from caching the old slots, every invalidation increments a generation counter of the key's stripe
+ * before removing the entry, and a load re-checks the counter after storing its result and removes the result if
+ * the counter moved. The stripes keep the counters bounded at the price of occasionally dropping a fresh result.
+ * Loads go through the {@link ru.y_lab.coalesce.QueryCoalescer}, whose invalidation runs first.
+ */
+@Component
+public class AvailabilityCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    /**
+     * Key of the cached slots.
+     *
+     * @param resourceId the ID of the resource
+     * @param date the day of the slots
+     */
+    public record Key(Long resourceId, LocalDate date) { }
+
+    private final Cache<Key, List<AvailableSlotDTO>> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Counter invalidationCounter;
+
+    public AvailabilityCache(MeterRegistry meterRegistry,
+                             @Value("${cache.availability.max-entries:50000}") long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "availability");
+        this.invalidationCounter = Counter.builder("cache.availability.invalidations")
+                .description("Availability entries invalidated by booking and resource changes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached slots of a resource on a day, loading and caching them on a miss.
+     *
+     * @param resourceId the ID of the resource
+     * @param date the day of the slots
+     * @param loader the query computing the slots
+     * @return the available slots; the list is shared and must not be modified
+     */
+    public List<AvailableSlotDTO> get(Long resourceId, LocalDate date, Supplier<List<AvailableSlotDTO>> loader) {
+        Key key = new Key(resourceId, date);
+        List<AvailableSlotDTO> slots = cache.getIfPresent(key);
+        if (slots != null)
+            return slots;
+
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        slots = List.copyOf(loader.get());
+        cache.put(key, slots);
+        if (generations.get(stripe) != generation)
+            cache.asMap().remove(key, slots);
+        return slots;
+    }
+
+    /**
+     * Invalidates the slots of a resource on a day.
+     *
+     * @param resourceId the ID of the resource
+     * @param date the day of the slots
+     */
+    public void invalidate(Long resourceId, LocalDate date) {
+        Key key = new Key(resourceId, date);
+        generations.incrementAndGet(stripe(key));
+        cache.invalidate(key);
+        invalidationCounter.increment();
+    }
+
+    /**
+     * Invalidates the slots of a resource on every day.
+     *
+     * @param resourceId the ID of the resource
+     */
+    public void invalidateResource(Long resourceId) {
+        bumpAllGenerations();
+        cache.asMap().keySet().removeIf(key -> key.resourceId().equals(resourceId));
+        invalidationCounter.increment();
+    }
+
+    /**
+     * Invalidates every entry.
+     */
+    public void invalidateAll() {
+        bumpAllGenerations();
+        cache.invalidateAll();
+        invalidationCounter.increment();
+    }
+
+    /**
+     * Invalidates the days touched by a committed booking change.
+     *
+     * @param event the booking change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        LocalDate date = event.startTime().toLocalDate();
+        invalidate(event.resourceId(), date);
+        if (event.previousStartTime() != null && !event.previousStartTime().toLocalDate().equals(date))
+            invalidate(event.resourceId(), event.previousStartTime().toLocalDate());
+    }
+
+    /**
+     * Invalidates the slots of a resource that was deleted by a committed change.
+     *
+     * @param event the resource change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onResourceChanged(ResourceChangedEvent event) {
+        if (event.type() == ResourceEventType.DELETED)
+            invalidateResource(event.resourceId());
+    }
+
+    /**
+     * Invalidates the day of a hold that was placed or removed by a committed change.
+     *
+     * @param event the hold change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSlotHoldChanged(SlotHoldChangedEvent event) {
+        invalidate(event.resourceId(), event.startTime().toLocalDate());
+    }
+
+    private void bumpAllGenerations() {
+        for (int i = 0; i < GENERATION_STRIPES; i++)
+            generations.incrementAndGet(i);
+    }
+
+    private static int stripe(Key key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+}
@@ -0,0 +1,155 @@
+package ru.y_lab.coalesce;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.y_lab.dto.AvailableSlotDTO;
+import ru.y_lab.dto.BookingWithOwnerResourceDTO;
+import ru.y_lab.dto.ResourceWithOwnerDTO;
+import ru.y_lab.event.BookingChangedEvent;
+import ru.y_lab.event.ResourceChangedEvent;
+import ru.y_lab.event.SlotHoldChangedEvent;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent read queries: available slots per resource and day, bookings per resource,
+ * and the list of all resources.
+ *
+ * <p>Results are retained for {@code coalescing.ttl-ms} after they are computed; {@code 0} only shares in-flight
+ * computations. Committed booking and resource changes drop the affected keys, so a client never reads a result
+ * computed before its own committed write. Changes of user names reach the owner details of the results once
+ * the TTL has passed.
+ *
+ * <p>The invalidation listeners run before the other after-commit listeners, so caches that load through this
+ * class never pick up a result retained from before the change.
+ */
+@Component
+public class QueryCoalescer {
+
+    private static final String ALL_RESOURCES = "all";
+
+    private final SingleFlight<AvailableSlotsKey, List<AvailableSlotDTO>> availableSlots;
+    private final SingleFlight<Long, List<BookingWithOwnerResourceDTO>> resourceBookings;
+    private final SingleFlight<String, List<ResourceWithOwnerDTO>> allResources;
+
+    public QueryCoalescer(MeterRegistry meterRegistry,
+                          @Value("${coalescing.ttl-ms:50}") long ttlMs) {
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.availableSlots = new SingleFlight<>("available-slots", ttlNanos, meterRegistry);
+        this.resourceBookings = new SingleFlight<>("resource-bookings", ttlNanos, meterRegistry);
+        this.allResources = new SingleFlight<>("all-resources", ttlNanos, meterRegistry);
+    }
+
+    /**
+     * Key of an available slots query.
+     *
+     * @param resourceId the ID of the resource
+     * @param date the day of the slots
+     */
+    public record AvailableSlotsKey(Long resourceId, LocalDate date) { }
+
+    /**
+     * Returns the available slots of a resource on a day, sharing the computation with identical concurrent calls.
+     *
+     * @param resourceId the ID of the resource
+     * @param date the day of the slots
+     * @param loader the query computing the slots
+     * @return the available slots
+     */
+    public List<AvailableSlotDTO> availableSlots(Long resourceId, LocalDate date, Supplier<List<AvailableSlotDTO>> loader) {
+        return availableSlots.execute(new AvailableSlotsKey(resourceId, date), loader);
+    }
+
+    /**
+     * Returns the bookings of a resource, sharing the computation with identical concurrent calls.
+     *
+     * @param resourceId the ID of the resource
+     * @param loader the query loading the bookings
+     * @return the bookings of the resource
+     */
+    public List<BookingWithOwnerResourceDTO> resourceBookings(Long resourceId, Supplier<List<BookingWithOwnerResourceDTO>> loader) {
+        return resourceBookings.execute(resourceId, loader);
+    }
+
+    /**
+     * Returns all resources, sharing the computation with identical concurrent calls.
+     *
+     * @param loader the query loading the resources
+     * @return all resources
+     */
+    public List<ResourceWithOwnerDTO> allResources(Supplier<List<ResourceWithOwnerDTO>> loader) {
+        return allResources.execute(ALL_RESOURCES, loader);
+    }
+
+    /**
+     * Drops the results of the resource of a committed booking change.
+     *
+     * @param event the booking change
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidateResource(event.resourceId());
+    }
+
+    /**
+     * Drops the results that include a resource after a committed resource change.
+     *
+     * @param event the resource change
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onResourceChanged(ResourceChangedEvent event) {
+        allResources.invalidateAll();
+        invalidateResource(event.resourceId());
+    }
+
+    /**
+     * Drops the results of the resource of a committed hold change.
+     *
+     * @param event the hold change
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSlotHoldChanged(SlotHoldChangedEvent event) {
+        invalidateResource(event.resourceId());
+    }
+
+    /**
+     * Drops the available slots and the bookings of a resource.
+     *
+     * @param resourceId the ID of the resource
+     */
+    public void invalidateResource(Long resourceId) {
+        availableSlots.invalidate(key -> key.resourceId().equals(resourceId));
+        resourceBookings.invalidate(key -> key.equals(resourceId));
+    }
+
+    /**
+     * Drops all in-flight computations and retained results.
+     */
+    public void invalidateAll() {
+        availableSlots.invalidateAll();
+        resourceBookings.invalidateAll();
+        allResources.invalidateAll();
+    }
+
+    /**
+     * Drops the retained results older than the TTL, so that keys that are not requested again do not stay in memory.
+     */
+    @Scheduled(fixedDelayString = "${coalescing.sweep-interval-ms:1000}")
+    public void evictExpired() {
+        availableSlots.evictExpired();
+        resourceBookings.evictExpired();
+        allResources.evictExpired();
+    }
+}
@@ -0,0 +1,147 @@
+package ru.y_lab.coalesce;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key into a single computation.
+ *
+ * <p>The first caller of a key runs the computation in its own thread; callers that arrive while it runs wait for
+ * it and receive the same result or exception. A successful result is also handed out for {@code ttlNanos} after it
+ * completes, which absorbs bursts of identical requests that arrive slightly apart. Failures are never retained.
+ * Results are shared between callers and must not be modified.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the results
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final Counter leaderCounter;
+    private final Counter joinedCounter;
+    private final Counter reusedCounter;
+
+    public SingleFlight(String name, long ttlNanos, MeterRegistry meterRegistry) {
+        this.ttlNanos = ttlNanos;
+        this.leaderCounter = counter(meterRegistry, name, "computed");
+        this.joinedCounter = counter(meterRegistry, name, "joined");
+        this.reusedCounter = counter(meterRegistry, name, "reused");
+    }
+
+    /**
+     * Returns the result of the computation of a key, running it only if no call with the key is in flight
+     * and no fresh result is retained.
+     *
+     * @param key the key identifying identical calls
+     * @param loader the computation
+     * @return the result of the computation
+     */
+    public V execute(K key, Supplier<V> loader) {
+        Flight<V> flight = flights.get(key);
+        if (flight != null) {
+            if (!flight.isExpired(System.nanoTime(), ttlNanos))
+                return join(flight);
+            flights.remove(key, flight);
+        }
+
+        Flight<V> created = new Flight<>();
+        Flight<V> existing = flights.putIfAbsent(key, created);
+        if (existing != null)
+            return join(existing);
+
+        leaderCounter.increment();
+        try {
+            V value = loader.get();
+            created.complete(value);
+            if (ttlNanos <= 0)
+                flights.remove(key, created);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flights.remove(key, created);
+            created.fail(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Forgets the in-flight computations and retained results of the matching keys, so that the next call
+     * with such a key computes a fresh result. Callers already waiting for a computation still receive it.
+     *
+     * @param keys the keys to forget
+     */
+    public void invalidate(Predicate<K> keys) {
+        flights.keySet().removeIf(keys);
+    }
+
+    /**
+     * Forgets all in-flight computations and retained results.
+     */
+    public void invalidateAll() {
+        flights.clear();
+    }
+
+    /**
+     * Drops the retained results that are older than the TTL.
+     */
+    public void evictExpired() {
+        long now = System.nanoTime();
+        flights.values().removeIf(flight -> flight.isExpired(now, ttlNanos));
+    }
+
+    private V join(Flight<V> flight) {
+        if (flight.isDone())
+            reusedCounter.increment();
+        else
+            joinedCounter.increment();
+        try {
+            return flight.future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (ex.getCause() instanceof Error error)
+                throw error;
+            throw ex;
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("coalescing.calls")
+                .description("Calls computed, joined to an in-flight computation, or served from a retained result")
+                .tag("query", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Flight<V> {
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile long completedAt;
+        private volatile boolean done;
+
+        private void complete(V value) {
+            completedAt = System.nanoTime();
+            done = true;
+            future.complete(value);
+        }
+
+        private void fail(Throwable ex) {
+            future.completeExceptionally(ex);
+        }
+
+        private boolean isDone() {
+            return done;
+        }
+
+        private boolean isExpired(long now, long ttlNanos) {
+            return done && now - completedAt >= ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.y_lab.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration class for asynchronous event processing.
+ * This class enables {@code @Async} and defines the executors used by background listeners.
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class AsyncConfiguration {
+
+    @Value("${waitlist.executor.queue-capacity:1000}")
+    private int waitlistQueueCapacity;
+
+    @Value("${booking-events.dispatch-threads:4}")
+    private int bookingEventDispatchThreads;
+
+    @Value("${booking-events.max-dispatch-threads:64}")
+    private int bookingEventMaxDispatchThreads;
+
+    @Value("${security.password.hashing-threads:2}")
+    private int passwordHashingThreads;
+
+    @Value("${security.password.queue-capacity:64}")
+    private int passwordHashingQueueCapacity;
+
+    /**
+     * Creates the executor that processes waitlist promotions.
+     * A single worker keeps promotions for the same resource strictly ordered. When the queue is full the
+     * promotion is dropped, logged and counted in {@code waitlist.promotions.dropped}; running it in the committing
+     * thread instead would run it inside the completion of a transaction that has already committed.
+     *
+     * @param meterRegistry the registry of the dropped promotions counter
+     * @return a {@link ThreadPoolTaskExecutor} with one worker thread and a bounded queue
+     */
+    @Bean(name = "waitlistExecutor")
+    public ThreadPoolTaskExecutor waitlistExecutor(MeterRegistry meterRegistry) {
+        Counter droppedCounter = Counter.builder("waitlist.promotions.dropped")
+                .description("Waitlist promotions rejected because the waitlist queue was full")
+                .register(meterRegistry);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(waitlistQueueCapacity);
+        executor.setThreadNamePrefix("waitlist-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            droppedCounter.increment();
+            log.warn("Waitlist queue is full, dropping a waitlist promotion");
+        });
+        return executor;
+    }
+
+    /**
+     * Creates the executor that delivers booking events to stream subscribers.
+     * Deliveries are handed directly to a thread, which is added on demand up to the maximum, so a subscriber
+     * blocked in a write never delays the deliveries queued behind it; when all threads are busy the task is
+     * rejected and the bus retries it later.
+     *
+     * @return a {@link ThreadPoolTaskExecutor} that grows from the dispatch threads up to the maximum without a queue
+     */
+    @Bean(name = "bookingEventExecutor")
+    public ThreadPoolTaskExecutor bookingEventExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(bookingEventDispatchThreads);
+        executor.setMaxPoolSize(Math.max(bookingEventDispatchThreads, bookingEventMaxDispatchThreads));
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("booking-events-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * Creates the executor that hashes and verifies passwords.
+     * Its threads bound the CPU spent on password hashing; tasks that do not fit into the queue are rejected
+     * so that callers can fail fast instead of waiting.
+     *
+     * @return a {@link ThreadPoolTaskExecutor} with a fixed number of hashing threads and a bounded queue
+     */
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(passwordHashingThreads);
+        executor.setMaxPoolSize(passwordHashingThreads);
+        executor.setQueueCapacity(passwordHashingQueueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -1,43 +1,68 @@
 package ru.y_lab.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.micrometer.common.lang.NonNullApi;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
-import org.springframework.util.PathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
-import ru.y_lab.dto.ErrorResponse;
+import ru.y_lab.dto.TokenClaimsDTO;
 import ru.y_lab.dto.UserAuthDTO;
+import ru.y_lab.exception.ErrorResponseWriter;
 import ru.y_lab.exception.JwtAuthenticationException;
 import ru.y_lab.exception.UserNotFoundException;
 import ru.y_lab.service.CustomUserDetailsService;
 import ru.y_lab.service.JWTService;
+import ru.y_lab.util.ErrorResponseTemplate;
 
 import java.io.IOException;
+import java.util.Map;
 
 @Component
-@RequiredArgsConstructor
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
 @NonNullApi
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JWTService jwtService;
-    private final CustomUserDetailsService customUserDetailsService;
-    private final ObjectMapper objectMapper;
+    /**
+     * Request attribute holding the {@link TokenClaimsDTO claims} of the validated token, so that later filters
+     * do not have to parse the token again.
+     */
+    public static final String TOKEN_CLAIMS_ATTRIBUTE = "tokenClaims";
 
-    private static final String[] AUTH_WHITELIST = {
-            "/api-docs/**",
-            "/swagger-ui/**",
-            "/swagger-ui.html",
-            "/swagger-resources/**",
-            "/webjars/**",
-            "/api/v1/users/register",
-            "/api/v1/users/login" };
+    private static final String NOT_LOGGED_IN_MESSAGE = "You are not logged in. Please log in to access this resource.";
+    private static final String INVALID_TOKEN_MESSAGE = "Token is not valid";
+    private static final String EXPIRED_TOKEN_MESSAGE = "Token has expired. Please refresh it or log in again.";
 
-    private final PathMatcher pathMatcher;
+    private final JWTService jwtService;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final ErrorResponseWriter errorResponseWriter;
+
+    private final WhitelistMatcher whitelistMatcher;
+
+    /**
+     * Pre-serialized responses for the constant messages of this filter.
+     */
+    private final Map<String, ErrorResponseTemplate> unauthorizedTemplates;
+
+    public JwtAuthenticationFilter(JWTService jwtService,
+                                   CustomUserDetailsService customUserDetailsService,
+                                   ErrorResponseWriter errorResponseWriter,
+                                   WhitelistMatcher whitelistMatcher) {
+        this.jwtService = jwtService;
+        this.customUserDetailsService = customUserDetailsService;
+        this.errorResponseWriter = errorResponseWriter;
+        this.whitelistMatcher = whitelistMatcher;
+        this.unauthorizedTemplates = Map.of(
+                NOT_LOGGED_IN_MESSAGE, errorResponseWriter.template(HttpStatus.UNAUTHORIZED, NOT_LOGGED_IN_MESSAGE),
+                INVALID_TOKEN_MESSAGE, errorResponseWriter.template(HttpStatus.UNAUTHORIZED, INVALID_TOKEN_MESSAGE),
+                EXPIRED_TOKEN_MESSAGE, errorResponseWriter.template(HttpStatus.UNAUTHORIZED, EXPIRED_TOKEN_MESSAGE));
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -50,19 +75,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             final String authHeader = request.getHeader("Authorization");
 
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                throw new JwtAuthenticationException("You are not logged in. Please log in to access this resource.");
+                throw new JwtAuthenticationException(NOT_LOGGED_IN_MESSAGE);
             }
 
             final String jwt = authHeader.substring(7).trim();
-            final String username = jwtService.extractUserName(jwt);
+            final TokenClaimsDTO claims = parseToken(jwt);
+            final String username = claims.username();
 
             if (username != null && request.getAttribute("authenticatedUser") == null) {
                 UserAuthDTO userDetails = customUserDetailsService.loadUserByUsername(username);
 
-                if (jwtService.isTokenValid(jwt, userDetails.username())) {
+                if (jwtService.isTokenValid(claims, userDetails.username())) {
                     request.setAttribute("authenticatedUser", userDetails);
+                    request.setAttribute(TOKEN_CLAIMS_ATTRIBUTE, claims);
                 } else {
-                    throw new JwtAuthenticationException("Token is not valid");
+                    throw new JwtAuthenticationException(INVALID_TOKEN_MESSAGE);
                 }
             }
 
@@ -72,24 +99,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
-    private boolean isWhitelisted(HttpServletRequest request) {
-        for (String pattern : AUTH_WHITELIST) {
-            if (pathMatcher.match(pattern, request.getServletPath())) {
-                return true;
-            }
+    /**
+     * Parses the token and turns the jjwt exceptions for expired, malformed or wrongly signed tokens into a
+     * {@link JwtAuthenticationException}, so that the client gets a 401 and knows to refresh the token.
+     */
+    private TokenClaimsDTO parseToken(String jwt) {
+        try {
+            return jwtService.parseToken(jwt);
+        } catch (ExpiredJwtException ex) {
+            throw new JwtAuthenticationException(EXPIRED_TOKEN_MESSAGE);
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new JwtAuthenticationException(INVALID_TOKEN_MESSAGE);
         }
-        return false;
+    }
+
+    private boolean isWhitelisted(HttpServletRequest request) {
+        return whitelistMatcher.matches(request.getServletPath());
     }
 
     private void setUnauthorizedResponse(HttpServletResponse response, String message) throws IOException {
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpServletResponse.SC_UNAUTHORIZED,
-                message,
-                System.currentTimeMillis()
-        );
-
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.setContentType("application/json");
-        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+        ErrorResponseTemplate template = unauthorizedTemplates.get(message);
+        if (template != null)
+            template.writeTo(response, System.currentTimeMillis());
+        else
+            errorResponseWriter.write(response, HttpStatus.UNAUTHORIZED, message);
     }
 }
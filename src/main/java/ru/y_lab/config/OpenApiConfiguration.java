@@ -74,4 +74,32 @@ public class OpenApiConfiguration {
                 .pathsToMatch("/api/v1/bookings/**")
                 .build();
     }
+
+    /**
+     * Creates and returns the OpenAPI bean for analytics endpoints.
+     * This bean configures the API documentation for occupancy reports.
+     *
+     * @return a {@link GroupedOpenApi} instance with the configured API documentation details
+     */
+    @Bean
+    public GroupedOpenApi analyticsApi() {
+        return GroupedOpenApi.builder()
+                .group("analytics")
+                .pathsToMatch("/api/v1/analytics/**")
+                .build();
+    }
+
+    /**
+     * Creates and returns the OpenAPI bean for rate limit endpoints.
+     * This bean configures the API documentation for inspecting the per-user rate limits.
+     *
+     * @return a {@link GroupedOpenApi} instance with the configured API documentation details
+     */
+    @Bean
+    public GroupedOpenApi rateLimitApi() {
+        return GroupedOpenApi.builder()
+                .group("rate-limits")
+                .pathsToMatch("/api/v1/rate-limits/**")
+                .build();
+    }
 }
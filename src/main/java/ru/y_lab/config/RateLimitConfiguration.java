@@ -0,0 +1,13 @@
+package ru.y_lab.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import ru.y_lab.throttle.RateLimitProperties;
+
+/**
+ * Configuration class that binds the per-user rate limits from {@code rate-limit.*}.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration {
+}
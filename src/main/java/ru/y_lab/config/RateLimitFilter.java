@@ -0,0 +1,63 @@
+package ru.y_lab.config;
+
+import io.micrometer.common.lang.NonNullApi;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.y_lab.dto.TokenClaimsDTO;
+import ru.y_lab.enums.RoleType;
+import ru.y_lab.exception.ErrorResponseWriter;
+import ru.y_lab.throttle.RateLimiter;
+import ru.y_lab.util.ErrorResponseTemplate;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter that applies the per-user {@link RateLimiter rate limits} to authenticated requests.
+ * It runs after {@link JwtAuthenticationFilter}, so only requests with a valid token reach it,
+ * and keys the limits on the {@code userId} and {@code role} claims that {@link JwtAuthenticationFilter} stored in
+ * the request, without parsing the token a second time.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@NonNullApi
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String RATE_LIMITED_MESSAGE = "Too many requests. Please slow down and try again later.";
+
+    private final RateLimiter rateLimiter;
+    private final ErrorResponseTemplate rateLimitedTemplate;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ErrorResponseWriter errorResponseWriter) {
+        this.rateLimiter = rateLimiter;
+        this.rateLimitedTemplate = errorResponseWriter.template(HttpStatus.TOO_MANY_REQUESTS, RATE_LIMITED_MESSAGE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RateLimiter.LimitedEndpoint endpoint = rateLimiter.find(request.getMethod(), request.getServletPath());
+        TokenClaimsDTO claims = (TokenClaimsDTO) request.getAttribute(JwtAuthenticationFilter.TOKEN_CLAIMS_ATTRIBUTE);
+        if (endpoint == null || claims == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = endpoint.tryAcquire(claims.userId(), RoleType.valueOf(claims.role()));
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            rateLimitedTemplate.writeTo(response, System.currentTimeMillis());
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
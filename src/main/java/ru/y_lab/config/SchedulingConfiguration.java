@@ -0,0 +1,13 @@
+package ru.y_lab.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class that enables scheduled background jobs.
+ * The scheduler thread pool is sized with {@code spring.task.scheduling.pool.size}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
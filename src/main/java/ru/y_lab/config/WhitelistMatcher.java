@@ -0,0 +1,77 @@
+package ru.y_lab.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Matches request paths against the authentication whitelist from {@code security.auth-whitelist}. The
+ * property has no default here, so application.yml stays the only place the whitelist is defined.
+ *
+ * <p>The patterns are compiled once at startup. Exact paths go into a hash set and {@code /prefix/**} patterns
+ * into a prefix list, which covers the whole default whitelist; checking a path against them does not allocate.
+ * Any other pattern is compiled with {@link PathPatternParser} and only checked when the fast paths miss.
+ */
+@Component
+public class WhitelistMatcher {
+
+    private final Set<String> exactPaths = new HashSet<>();
+    private final String[] prefixes;
+    private final PathPattern[] patterns;
+
+    public WhitelistMatcher(@Value("${security.auth-whitelist}") String[] whitelist) {
+        List<String> prefixList = new ArrayList<>();
+        List<PathPattern> patternList = new ArrayList<>();
+        for (String entry : whitelist) {
+            String pattern = entry.trim();
+            if (pattern.isEmpty())
+                continue;
+
+            String base = pattern.endsWith("/**") ? pattern.substring(0, pattern.length() - 3) : pattern;
+            if (isLiteral(base) && pattern.endsWith("/**"))
+                prefixList.add(base);
+            else if (isLiteral(pattern))
+                exactPaths.add(pattern);
+            else
+                patternList.add(PathPatternParser.defaultInstance.parse(pattern));
+        }
+        this.prefixes = prefixList.toArray(String[]::new);
+        this.patterns = patternList.toArray(PathPattern[]::new);
+    }
+
+    /**
+     * Checks whether a request path is whitelisted.
+     *
+     * @param path the servlet path of the request
+     * @return true if the path does not require authentication
+     */
+    public boolean matches(String path) {
+        if (exactPaths.contains(path))
+            return true;
+
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/'))
+                return true;
+        }
+
+        if (patterns.length == 0)
+            return false;
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(container))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isLiteral(String pattern) {
+        return pattern.indexOf('*') < 0 && pattern.indexOf('?') < 0 && pattern.indexOf('{') < 0;
+    }
+}
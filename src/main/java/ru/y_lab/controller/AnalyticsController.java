@@ -0,0 +1,76 @@
+package ru.y_lab.controller;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.y_lab.dto.HourlyOccupancyDTO;
+import ru.y_lab.dto.ResourceOccupancyDTO;
+import ru.y_lab.dto.ResourceTypeOccupancyDTO;
+import ru.y_lab.service.AnalyticsService;
+import ru.y_lab.swagger.API.AnalyticsControllerAPI;
+
+import java.util.List;
+
+/**
+ * Controller for occupancy analytics.
+ * This class handles HTTP requests for utilization reports per resource, per resource type and per hour of day.
+ */
+@Tag(name = "Analytics API", description = "Occupancy analytics")
+@RestController
+@RequestMapping("/api/v1/analytics/occupancy")
+@RequiredArgsConstructor
+public class AnalyticsController implements AnalyticsControllerAPI {
+
+    private final AnalyticsService analyticsService;
+
+    /**
+     * Retrieves the utilization of every resource over a period.
+     *
+     * @param token the authentication token of the admin user making the request
+     * @param from the first day of the period in milliseconds since epoch
+     * @param to the last day of the period in milliseconds since epoch
+     * @return a list of per-resource occupancy figures as {@link ResourceOccupancyDTO}
+     */
+    @Override
+    @GetMapping("/resources")
+    public ResponseEntity<List<ResourceOccupancyDTO>> getResourceOccupancy(@RequestHeader("Authorization") String token,
+                                                                           @RequestParam Long from,
+                                                                           @RequestParam Long to) {
+        return ResponseEntity.ok(analyticsService.getResourceOccupancy(token, from, to));
+    }
+
+    /**
+     * Retrieves the utilization of every resource type over a period.
+     *
+     * @param token the authentication token of the admin user making the request
+     * @param from the first day of the period in milliseconds since epoch
+     * @param to the last day of the period in milliseconds since epoch
+     * @return a list of per-type occupancy figures as {@link ResourceTypeOccupancyDTO}
+     */
+    @Override
+    @GetMapping("/types")
+    public ResponseEntity<List<ResourceTypeOccupancyDTO>> getResourceTypeOccupancy(@RequestHeader("Authorization") String token,
+                                                                                   @RequestParam Long from,
+                                                                                   @RequestParam Long to) {
+        return ResponseEntity.ok(analyticsService.getResourceTypeOccupancy(token, from, to));
+    }
+
+    /**
+     * Retrieves the utilization of each hour of the day over a period.
+     *
+     * @param token the authentication token of the admin user making the request
+     * @param from the first day of the period in milliseconds since epoch
+     * @param to the last day of the period in milliseconds since epoch
+     * @param resourceId the ID of the resource to report on, or all resources if absent
+     * @return a list of per-hour occupancy figures as {@link HourlyOccupancyDTO}
+     */
+    @Override
+    @GetMapping("/hours")
+    public ResponseEntity<List<HourlyOccupancyDTO>> getHourlyOccupancy(@RequestHeader("Authorization") String token,
+                                                                       @RequestParam Long from,
+                                                                       @RequestParam Long to,
+                                                                       @RequestParam(required = false) Long resourceId) {
+        return ResponseEntity.ok(analyticsService.getHourlyOccupancy(token, from, to, resourceId));
+    }
+}
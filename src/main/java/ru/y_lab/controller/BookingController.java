@@ -3,12 +3,15 @@ package ru.y_lab.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.y_lab.dto.*;
 import ru.y_lab.service.BookingService;
+import ru.y_lab.service.IdempotencyService;
 import ru.y_lab.swagger.API.BookingControllerAPI;
+import ru.y_lab.util.VersionTags;
 
 import java.util.List;
 
@@ -23,21 +26,28 @@ import java.util.List;
 public class BookingController implements BookingControllerAPI {
 
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
 
     /**
-     * Adds a new booking.
+     * Adds a new booking. A retry with the same idempotency key returns the booking created by the first request.
      *
      * @param token the authentication token of the user making the request
      * @param request the booking request details
-     * @return the created booking as a {@link BookingDTO}
+     * @param idempotencyKey the key identifying retries of the same request, if any
+     * @return the created booking as a {@link BookingDTO}, with its version as the ETag
      */
     @Override
     @PostMapping
     public ResponseEntity<BookingDTO> addBooking(@RequestHeader("Authorization") String token,
-                                                 @RequestBody AddBookingRequestDTO request) {
-        BookingDTO bookingDTO;
-        bookingDTO = bookingService.addBooking(token, request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(bookingDTO);
+                                                 @RequestBody AddBookingRequestDTO request,
+                                                 @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        IdempotencyService.Result<BookingDTO> result = idempotencyService.execute(token, "create-booking", idempotencyKey,
+                request, BookingDTO.class, () -> bookingService.addBooking(token, request));
+        BookingDTO bookingDTO = result.body();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(VersionTags.toETag(bookingDTO.version()))
+                .header(IdempotencyService.REPLAYED_HEADER, Boolean.toString(result.replayed()))
+                .body(bookingDTO);
     }
 
     /**
@@ -45,14 +55,14 @@ public class BookingController implements BookingControllerAPI {
      *
      * @param token the authentication token of the user making the request
      * @param bookingId the ID of the booking
-     * @return the booking details as a {@link BookingWithOwnerResourceDTO}
+     * @return the booking details as a {@link BookingWithOwnerResourceDTO}, with its version as the ETag
      */
     @Override
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingWithOwnerResourceDTO> getBookingById(@RequestHeader("Authorization") String token,
                                                                       @PathVariable Long bookingId) {
         BookingWithOwnerResourceDTO booking = bookingService.getBookingById(token, bookingId);
-        return ResponseEntity.ok(booking);
+        return ResponseEntity.ok().eTag(VersionTags.toETag(booking.version())).body(booking);
     }
 
     /**
@@ -97,7 +107,7 @@ public class BookingController implements BookingControllerAPI {
     }
 
     /**
-     * Retrieves bookings for a specific user ID.
+     * Retrieves the booking history for a specific user ID, including archived bookings.
      *
      * @param token the authentication token of the admin user making the request
      * @param userId the ID of the user
@@ -147,15 +157,17 @@ public class BookingController implements BookingControllerAPI {
      * @param token the authentication token of the user making the request
      * @param bookingId the ID of the booking to be updated
      * @param request the update request details
-     * @return the updated booking as a {@link BookingDTO}
+     * @param ifMatch the version tag the booking must still have, if any
+     * @return the updated booking as a {@link BookingDTO}, with its new version as the ETag
      */
     @Override
     @PutMapping("/{bookingId}")
     public ResponseEntity<BookingDTO> updateBooking(@RequestHeader("Authorization") String token,
                                                     @PathVariable Long bookingId,
-                                                    @RequestBody UpdateBookingRequestDTO request) {
-        BookingDTO updatedBooking = bookingService.updateBooking(token, bookingId, request);
-        return ResponseEntity.ok(updatedBooking);
+                                                    @RequestBody UpdateBookingRequestDTO request,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookingDTO updatedBooking = bookingService.updateBooking(token, bookingId, request, VersionTags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.toETag(updatedBooking.version())).body(updatedBooking);
     }
 
     /**
@@ -0,0 +1,39 @@
+package ru.y_lab.controller;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.y_lab.enums.ResourceType;
+import ru.y_lab.service.BookingStreamService;
+import ru.y_lab.swagger.API.BookingStreamControllerAPI;
+
+/**
+ * Controller for streaming booking changes.
+ * This class handles HTTP requests that open server-sent events streams for a resource or a resource type.
+ */
+@Tag(name = "Booking Stream API", description = "Live booking changes")
+@RestController
+@RequestMapping("/api/v1/bookings/stream")
+@RequiredArgsConstructor
+public class BookingStreamController implements BookingStreamControllerAPI {
+
+    private final BookingStreamService bookingStreamService;
+
+    /**
+     * Opens a stream of booking changes.
+     *
+     * @param token the authentication token of the user making the request
+     * @param resourceId the ID of the resource to watch
+     * @param resourceType the type of resources to watch
+     * @return an {@link SseEmitter} that pushes booking changes
+     */
+    @Override
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookings(@RequestHeader("Authorization") String token,
+                                     @RequestParam(required = false) Long resourceId,
+                                     @RequestParam(required = false) ResourceType resourceType) {
+        return bookingStreamService.subscribe(resourceId, resourceType);
+    }
+}
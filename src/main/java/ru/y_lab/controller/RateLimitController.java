@@ -0,0 +1,39 @@
+package ru.y_lab.controller;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.y_lab.dto.RateLimitedUserDTO;
+import ru.y_lab.service.RateLimitService;
+import ru.y_lab.swagger.API.RateLimitControllerAPI;
+
+import java.util.List;
+
+/**
+ * Controller for inspecting the per-user rate limits.
+ * This class handles HTTP requests for the users currently being rate limited.
+ */
+@Tag(name = "Rate Limit API", description = "Per-user rate limits")
+@RestController
+@RequestMapping("/api/v1/rate-limits")
+@RequiredArgsConstructor
+public class RateLimitController implements RateLimitControllerAPI {
+
+    private final RateLimitService rateLimitService;
+
+    /**
+     * Retrieves the users whose requests were recently rejected by the rate limiter.
+     *
+     * @param token the authentication token of the admin user making the request
+     * @return a list of limited users as {@link RateLimitedUserDTO}
+     */
+    @Override
+    @GetMapping("/limited-users")
+    public ResponseEntity<List<RateLimitedUserDTO>> getLimitedUsers(@RequestHeader("Authorization") String token) {
+        return ResponseEntity.ok(rateLimitService.getLimitedUsers(token));
+    }
+}
@@ -2,6 +2,7 @@ package ru.y_lab.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,8 +11,10 @@ import ru.y_lab.dto.ResourceDTO;
 import ru.y_lab.dto.ResourceWithOwnerDTO;
 import ru.y_lab.dto.UpdateResourceRequestDTO;
 import ru.y_lab.enums.ResourceType;
+import ru.y_lab.service.IdempotencyService;
 import ru.y_lab.service.ResourceService;
 import ru.y_lab.swagger.API.ResourceControllerAPI;
+import ru.y_lab.util.VersionTags;
 
 import java.util.List;
 
@@ -26,22 +29,32 @@ import java.util.List;
 public class ResourceController implements ResourceControllerAPI {
 
     private final ResourceService resourceService;
+    private final IdempotencyService idempotencyService;
 
     /**
-     * Adds a new resource.
+     * Adds a new resource. A retry with the same idempotency key returns the resource created by the first request.
      *
      * @param token the authentication token of the user making the request
      * @param addResourceRequest the request containing resource details
      * @param resourceType the type of the resource
+     * @param idempotencyKey the key identifying retries of the same request, if any
      * @return a {@link ResponseEntity} containing the added resource as a {@link ResourceDTO} with HTTP status CREATED
+     * and its version as the ETag
      */
     @Override
     @PostMapping
     public ResponseEntity<ResourceDTO> addResource(@RequestHeader("Authorization") String token,
                                                    @RequestBody AddResourceRequestDTO addResourceRequest,
-                                                   @RequestParam ResourceType resourceType) {
-        ResourceDTO resourceDTO = resourceService.addResource(token, addResourceRequest, resourceType);
-        return new ResponseEntity<>(resourceDTO, HttpStatus.CREATED);
+                                                   @RequestParam ResourceType resourceType,
+                                                   @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        IdempotencyService.Result<ResourceDTO> result = idempotencyService.execute(token, "create-resource", idempotencyKey,
+                List.of(addResourceRequest, resourceType), ResourceDTO.class,
+                () -> resourceService.addResource(token, addResourceRequest, resourceType));
+        ResourceDTO resourceDTO = result.body();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(VersionTags.toETag(resourceDTO.version()))
+                .header(IdempotencyService.REPLAYED_HEADER, Boolean.toString(result.replayed()))
+                .body(resourceDTO);
     }
 
     /**
@@ -49,14 +62,15 @@ public class ResourceController implements ResourceControllerAPI {
      *
      * @param token the authentication token of the user making the request
      * @param resourceId the ID of the resource
-     * @return a {@link ResponseEntity} containing the resource with owner details as a {@link ResourceWithOwnerDTO} with HTTP status OK
+     * @return a {@link ResponseEntity} containing the resource with owner details as a {@link ResourceWithOwnerDTO} with HTTP status OK,
+     *         with its version as the ETag
      */
     @Override
     @GetMapping("/{resourceId}")
     public ResponseEntity<ResourceWithOwnerDTO> getResourceById(@RequestHeader("Authorization") String token,
                                                                 @PathVariable("resourceId") Long resourceId) {
         ResourceWithOwnerDTO resourceWithOwnerDTO = resourceService.getResourceById(resourceId);
-        return new ResponseEntity<>(resourceWithOwnerDTO, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(VersionTags.toETag(resourceWithOwnerDTO.version())).body(resourceWithOwnerDTO);
     }
 
     /**
@@ -79,16 +93,20 @@ public class ResourceController implements ResourceControllerAPI {
      * @param resourceId the ID of the resource to be updated
      * @param request the update request containing updated resource details
      * @param resourceType the type of the resource
+     * @param ifMatch the version tag the resource must still have, if any
      * @return a {@link ResponseEntity} containing the updated resource as a {@link ResourceDTO} with HTTP status OK
+     * and its new version as the ETag
      */
     @Override
     @PutMapping("/{resourceId}")
     public ResponseEntity<ResourceDTO> updateResource(@RequestHeader("Authorization") String token,
                                                       @PathVariable("resourceId") Long resourceId,
                                                       @RequestBody UpdateResourceRequestDTO request,
-                                                      @RequestParam ResourceType resourceType) {
-        ResourceDTO resourceDTO = resourceService.updateResource(token, resourceId, request, resourceType);
-        return new ResponseEntity<>(resourceDTO, HttpStatus.OK);
+                                                      @RequestParam ResourceType resourceType,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ResourceDTO resourceDTO = resourceService.updateResource(token, resourceId, request, resourceType,
+                VersionTags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.toETag(resourceDTO.version())).body(resourceDTO);
     }
 
     /**
@@ -0,0 +1,73 @@
+package ru.y_lab.controller;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.y_lab.dto.AddBookingRequestDTO;
+import ru.y_lab.dto.BookingDTO;
+import ru.y_lab.dto.SlotHoldDTO;
+import ru.y_lab.service.SlotHoldService;
+import ru.y_lab.swagger.API.SlotHoldControllerAPI;
+import ru.y_lab.util.VersionTags;
+
+/**
+ * Controller for managing temporary holds of time periods.
+ * This class handles HTTP requests for placing, releasing, and confirming holds.
+ */
+@Tag(name = "Slot Hold API", description = "Operations about temporary holds of time periods")
+@RestController
+@RequestMapping("/api/v1/bookings/holds")
+@RequiredArgsConstructor
+public class SlotHoldController implements SlotHoldControllerAPI {
+
+    private final SlotHoldService slotHoldService;
+
+    /**
+     * Holds a free time period for the current user.
+     *
+     * @param token the authentication token of the user making the request
+     * @param request the resource and the period to hold
+     * @return the created hold as a {@link SlotHoldDTO}
+     */
+    @Override
+    @PostMapping
+    public ResponseEntity<SlotHoldDTO> createHold(@RequestHeader("Authorization") String token,
+                                                  @RequestBody AddBookingRequestDTO request) {
+        SlotHoldDTO hold = slotHoldService.createHold(token, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    /**
+     * Releases a hold of the current user.
+     *
+     * @param token the authentication token of the user making the request
+     * @param holdId the ID of the hold
+     * @return a response with HTTP status NO_CONTENT
+     */
+    @Override
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<Void> releaseHold(@RequestHeader("Authorization") String token,
+                                            @PathVariable Long holdId) {
+        slotHoldService.releaseHold(token, holdId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Turns a hold of the current user into a booking.
+     *
+     * @param token the authentication token of the user making the request
+     * @param holdId the ID of the hold
+     * @return the created booking as a {@link BookingDTO}
+     */
+    @Override
+    @PostMapping("/{holdId}/confirm")
+    public ResponseEntity<BookingDTO> confirmHold(@RequestHeader("Authorization") String token,
+                                                  @PathVariable Long holdId) {
+        BookingDTO booking = slotHoldService.confirmHold(token, holdId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(VersionTags.toETag(booking.version()))
+                .body(booking);
+    }
+}
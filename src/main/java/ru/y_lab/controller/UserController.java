@@ -1,6 +1,7 @@
 package ru.y_lab.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -44,12 +45,27 @@ public class UserController implements UserControllerAPI {
      * Authenticates a user and logs them in.
      *
      * @param loginRequest the login request containing username and password
+     * @param httpRequest the HTTP request, whose remote address is used to throttle login attempts; behind trusted
+     *                    proxies it is the client address taken from {@code X-Forwarded-For}
      * @return a {@link ResponseEntity} containing the authenticated user as a {@link UserDTO} with HTTP status OK
      */
     @Override
     @PostMapping(value = "/login", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<TokenResponseDTO> loginUser(@Valid @RequestBody LoginRequestDTO loginRequest) {
-        TokenResponseDTO tokenResponseDTO = userService.loginUser(loginRequest);
+    public ResponseEntity<TokenResponseDTO> loginUser(@Valid @RequestBody LoginRequestDTO loginRequest, HttpServletRequest httpRequest) {
+        TokenResponseDTO tokenResponseDTO = userService.loginUser(loginRequest, httpRequest.getRemoteAddr());
+        return ResponseEntity.ok(tokenResponseDTO);
+    }
+
+    /**
+     * Exchanges a refresh token for a new token pair.
+     *
+     * @param request the request containing the refresh token
+     * @return a {@link ResponseEntity} containing the new {@link TokenResponseDTO} with HTTP status OK
+     */
+    @Override
+    @PostMapping(value = "/refresh", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TokenResponseDTO> refreshToken(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        TokenResponseDTO tokenResponseDTO = userService.refreshToken(request);
         return ResponseEntity.ok(tokenResponseDTO);
     }
 
@@ -0,0 +1,69 @@
+package ru.y_lab.controller;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.y_lab.dto.AddBookingRequestDTO;
+import ru.y_lab.dto.WaitlistEntryDTO;
+import ru.y_lab.service.WaitlistService;
+import ru.y_lab.swagger.API.WaitlistControllerAPI;
+
+import java.util.List;
+
+/**
+ * Controller for managing the booking waitlist.
+ * This class handles HTTP requests for queuing, listing, and removing waitlisted booking requests.
+ */
+@Tag(name = "Waitlist API", description = "Operations about the booking waitlist")
+@RestController
+@RequestMapping("/api/v1/bookings/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController implements WaitlistControllerAPI {
+
+    private final WaitlistService waitlistService;
+
+    /**
+     * Queues a booking request for an occupied time period.
+     *
+     * @param token the authentication token of the user making the request
+     * @param request the booking request details
+     * @return the created waitlist entry as a {@link WaitlistEntryDTO}
+     */
+    @Override
+    @PostMapping
+    public ResponseEntity<WaitlistEntryDTO> joinWaitlist(@RequestHeader("Authorization") String token,
+                                                         @RequestBody AddBookingRequestDTO request) {
+        WaitlistEntryDTO entry = waitlistService.joinWaitlist(token, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(entry);
+    }
+
+    /**
+     * Retrieves the waitlist entries of the current user.
+     *
+     * @param token the authentication token of the user making the request
+     * @return a list of waitlist entries as {@link WaitlistEntryDTO}
+     */
+    @Override
+    @GetMapping
+    public ResponseEntity<List<WaitlistEntryDTO>> getUserWaitlist(@RequestHeader("Authorization") String token) {
+        List<WaitlistEntryDTO> entries = waitlistService.getUserWaitlist(token);
+        return ResponseEntity.ok(entries);
+    }
+
+    /**
+     * Removes a waitlist entry of the current user.
+     *
+     * @param token the authentication token of the user making the request
+     * @param entryId the ID of the waitlist entry
+     * @return a response with HTTP status NO_CONTENT
+     */
+    @Override
+    @DeleteMapping("/{entryId}")
+    public ResponseEntity<Void> leaveWaitlist(@RequestHeader("Authorization") String token,
+                                              @PathVariable Long entryId) {
+        waitlistService.leaveWaitlist(token, entryId);
+        return ResponseEntity.noContent().build();
+    }
+}
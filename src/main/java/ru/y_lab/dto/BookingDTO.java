@@ -12,6 +12,7 @@ import jakarta.validation.constraints.Pattern;
  * @param resourceId the unique identifier of the resource being booked
  * @param startTime the start time of the booking
  * @param endTime the end time of the booking
+ * @param version the version of the booking, to be sent back in the If-Match header of an update
  */
 public record BookingDTO(
 
@@ -35,4 +36,7 @@ public record BookingDTO(
         @NotNull(message = "End time cannot be null")
         @Schema(name = "endTime", description = "End time in milliseconds", example = "1721487600000")
         @Pattern(regexp = "^\\p{N}+$", message = "End time must be a valid number in milliseconds")
-        String endTime) { }
\ No newline at end of file
+        String endTime,
+
+        @Schema(name = "version", description = "The version of the booking, also returned as the ETag", example = "0")
+        Long version) { }
\ No newline at end of file
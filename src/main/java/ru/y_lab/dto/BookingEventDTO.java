@@ -0,0 +1,44 @@
+package ru.y_lab.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * BookingEventDTO is a Data Transfer Object that represents a booking change pushed to stream subscribers.
+ *
+ * @param type the kind of change (ADDED, UPDATED or DELETED)
+ * @param bookingId the unique identifier of the booking
+ * @param ownerId the unique identifier of the user who owns the booking
+ * @param resourceId the unique identifier of the booked resource
+ * @param resourceType the type of the booked resource
+ * @param startTime the start time of the booking
+ * @param endTime the end time of the booking
+ */
+public record BookingEventDTO(
+
+        @NotNull(message = "Event type cannot be null")
+        @Schema(name = "type", description = "The kind of change", example = "ADDED")
+        String type,
+
+        @NotNull(message = "Booking ID cannot be null")
+        @Schema(name = "bookingId", description = "The unique identifier of the booking", example = "1")
+        Long bookingId,
+
+        @NotNull(message = "User ID cannot be null")
+        @Schema(name = "ownerId", description = "The unique identifier of the user", example = "1")
+        Long ownerId,
+
+        @NotNull(message = "Resource ID cannot be null")
+        @Schema(name = "resourceId", description = "The unique identifier of the resource", example = "1")
+        Long resourceId,
+
+        @Schema(name = "resourceType", description = "The type of the resource", example = "CONFERENCE_ROOM")
+        String resourceType,
+
+        @NotNull(message = "Start time cannot be null")
+        @Schema(name = "startTime", description = "Start time of the booking", example = "2024-07-20T10:00")
+        String startTime,
+
+        @NotNull(message = "End time cannot be null")
+        @Schema(name = "endTime", description = "End time of the booking", example = "2024-07-20T12:00")
+        String endTime) { }
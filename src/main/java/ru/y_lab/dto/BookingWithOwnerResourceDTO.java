@@ -20,6 +20,8 @@ import ru.y_lab.validation.ValidResourceType;
  * @param date the date of the booking
  * @param startTime the start time of the booking
  * @param endTime the end time of the booking
+ * @param version the version of the booking, to be sent back in the If-Match header of an update;
+ *                null for archived bookings
  */
 public record BookingWithOwnerResourceDTO(
 
@@ -64,5 +66,8 @@ public record BookingWithOwnerResourceDTO(
         @NotBlank(message = "End time cannot be blank")
         @Schema(name = "endTime", description = "End time", example = "12:00")
         @Pattern(regexp = "\\d{2}:\\d{2}", message = "End time must be in the format HH:MM")
-        String endTime) {
+        String endTime,
+
+        @Schema(name = "version", description = "The version of the booking, also returned as the ETag", example = "0")
+        Long version) {
 }
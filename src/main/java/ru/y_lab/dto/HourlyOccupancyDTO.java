@@ -0,0 +1,21 @@
+package ru.y_lab.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * HourlyOccupancyDTO is a Data Transfer Object that represents the utilization of an hour of the day over a period.
+ *
+ * @param hour the hour of the day (0-23)
+ * @param bookedMinutes the total booked minutes within this hour in the period
+ * @param utilization the share of this hour that was booked
+ */
+public record HourlyOccupancyDTO(
+
+        @Schema(name = "hour", description = "Hour of the day", example = "10")
+        Integer hour,
+
+        @Schema(name = "bookedMinutes", description = "Total booked minutes within the hour in the period", example = "420")
+        Long bookedMinutes,
+
+        @Schema(name = "utilization", description = "Booked share of the hour", example = "0.35")
+        Double utilization) { }
@@ -0,0 +1,26 @@
+package ru.y_lab.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * RateLimitedUserDTO is a Data Transfer Object that represents a user whose requests to an endpoint were
+ * recently rejected by the rate limiter.
+ *
+ * @param userId the ID of the user
+ * @param rule the name of the rate limit rule of the endpoint
+ * @param rejectedRequests the number of rejected requests since the user started hitting the endpoint
+ * @param lastRejectedAt the time of the last rejected request in milliseconds since epoch
+ */
+public record RateLimitedUserDTO(
+
+        @Schema(name = "userId", description = "ID of the limited user", example = "42")
+        Long userId,
+
+        @Schema(name = "rule", description = "Name of the rate limit rule", example = "available-slots")
+        String rule,
+
+        @Schema(name = "rejectedRequests", description = "Number of rejected requests", example = "135")
+        Long rejectedRequests,
+
+        @Schema(name = "lastRejectedAt", description = "Time of the last rejected request in milliseconds since epoch", example = "1792400400000")
+        Long lastRejectedAt) { }
@@ -0,0 +1,15 @@
+package ru.y_lab.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * RefreshTokenRequestDTO is a Data Transfer Object for exchanging a refresh token for a new token pair.
+ *
+ * @param refreshToken the refresh token received with the last token pair
+ */
+public record RefreshTokenRequestDTO(
+
+        @NotBlank(message = "Refresh token cannot be blank")
+        @Schema(name = "refreshToken", description = "The refresh token", example = "")
+        String refreshToken) { }
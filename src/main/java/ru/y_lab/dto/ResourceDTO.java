@@ -14,6 +14,7 @@ import ru.y_lab.validation.ValidResourceType;
  * @param ownerId the unique identifier of the user who owns the resource
  * @param resourceName the resourceName of the resource
  * @param resourceType the resourceType of the resource
+ * @param version the version of the resource, to be sent back in the If-Match header of an update
  */
 public record ResourceDTO(
 
@@ -33,4 +34,7 @@ public record ResourceDTO(
         @NotBlank(message = "Resource resourceType cannot be blank")
         @Schema(name = "resourceType", description = "The resourceType of the resource", example = "CONFERENCE_ROOM")
         @ValidResourceType
-        String resourceType) {}
+        String resourceType,
+
+        @Schema(name = "version", description = "The version of the resource, also returned as the ETag", example = "0")
+        Long version) {}
@@ -0,0 +1,33 @@
+package ru.y_lab.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * ResourceOccupancyDTO is a Data Transfer Object that represents the utilization of a resource over a period.
+ *
+ * @param resourceId the unique identifier of the resource
+ * @param resourceName the name of the resource
+ * @param resourceType the type of the resource
+ * @param bookedMinutes the total booked minutes in the period
+ * @param bookingCount the number of booking days in the period
+ * @param utilization the share of business hours that were booked
+ */
+public record ResourceOccupancyDTO(
+
+        @Schema(name = "resourceId", description = "The unique identifier of the resource", example = "1")
+        Long resourceId,
+
+        @Schema(name = "resourceName", description = "The name of the resource", example = "Blue room")
+        String resourceName,
+
+        @Schema(name = "resourceType", description = "The type of the resource", example = "CONFERENCE_ROOM")
+        String resourceType,
+
+        @Schema(name = "bookedMinutes", description = "Total booked minutes in the period", example = "1260")
+        Long bookedMinutes,
+
+        @Schema(name = "bookingCount", description = "Number of bookings per day summed over the period", example = "9")
+        Long bookingCount,
+
+        @Schema(name = "utilization", description = "Booked share of business hours (09:00-18:00)", example = "0.47")
+        Double utilization) { }
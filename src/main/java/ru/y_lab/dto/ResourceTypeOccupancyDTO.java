@@ -0,0 +1,29 @@
+package ru.y_lab.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * ResourceTypeOccupancyDTO is a Data Transfer Object that represents the utilization of all resources of a type over a period.
+ *
+ * @param resourceType the type of the resources
+ * @param resourceCount the number of resources of the type
+ * @param bookedMinutes the total booked minutes in the period
+ * @param bookingCount the number of booking days in the period
+ * @param utilization the share of business hours that were booked
+ */
+public record ResourceTypeOccupancyDTO(
+
+        @Schema(name = "resourceType", description = "The type of the resources", example = "CONFERENCE_ROOM")
+        String resourceType,
+
+        @Schema(name = "resourceCount", description = "Number of resources of the type", example = "4")
+        Long resourceCount,
+
+        @Schema(name = "bookedMinutes", description = "Total booked minutes in the period", example = "5040")
+        Long bookedMinutes,
+
+        @Schema(name = "bookingCount", description = "Number of bookings per day summed over the period", example = "36")
+        Long bookingCount,
+
+        @Schema(name = "utilization", description = "Booked share of business hours (09:00-18:00)", example = "0.47")
+        Double utilization) { }
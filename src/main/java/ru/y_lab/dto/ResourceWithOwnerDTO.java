@@ -15,6 +15,7 @@ import ru.y_lab.validation.ValidResourceType;
  * @param resourceType the resourceType of the resource
  * @param ownerId the unique identifier of the user who owns the resource
  * @param ownerName the username of the user who owns the resource
+ * @param version the version of the resource, to be sent back in the If-Match header of an update
  */
 public record ResourceWithOwnerDTO(
 
@@ -40,4 +41,7 @@ public record ResourceWithOwnerDTO(
         @NotNull(message = "Owner resourceName cannot be null")
         @Schema(name = "ownerName", description = "The owner resourceName of the booking", example = "Username")
         @Pattern(regexp = "^\\p{L}+$", message = "Owner resourceName can only contain letters (both Latin and Cyrillic)")
-        String ownerName) { }
+        String ownerName,
+
+        @Schema(name = "version", description = "The version of the resource, also returned as the ETag", example = "0")
+        Long version) { }
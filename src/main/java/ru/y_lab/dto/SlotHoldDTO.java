@@ -0,0 +1,40 @@
+package ru.y_lab.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * SlotHoldDTO is a Data Transfer Object that represents a temporary hold of a time period.
+ *
+ * @param holdId the unique identifier of the hold
+ * @param ownerId the unique identifier of the user who placed the hold
+ * @param resourceId the unique identifier of the held resource
+ * @param startTime the start of the held period
+ * @param endTime the end of the held period
+ * @param expiresAt the time the hold is released unless it is confirmed
+ */
+public record SlotHoldDTO(
+
+        @NotNull(message = "Hold ID cannot be null")
+        @Schema(name = "holdId", description = "The unique identifier of the hold", example = "1")
+        Long holdId,
+
+        @NotNull(message = "User ID cannot be null")
+        @Schema(name = "ownerId", description = "The unique identifier of the user", example = "1")
+        Long ownerId,
+
+        @NotNull(message = "Resource ID cannot be null")
+        @Schema(name = "resourceId", description = "The unique identifier of the resource", example = "1")
+        Long resourceId,
+
+        @NotNull(message = "Start time cannot be null")
+        @Schema(name = "startTime", description = "Start of the held period", example = "2024-07-20T10:00")
+        String startTime,
+
+        @NotNull(message = "End time cannot be null")
+        @Schema(name = "endTime", description = "End of the held period", example = "2024-07-20T12:00")
+        String endTime,
+
+        @NotNull(message = "Expiration time cannot be null")
+        @Schema(name = "expiresAt", description = "The time the hold is released unless it is confirmed", example = "2024-07-19T08:32")
+        String expiresAt) { }
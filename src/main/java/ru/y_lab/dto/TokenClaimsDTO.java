@@ -0,0 +1,19 @@
+package ru.y_lab.dto;
+
+import java.util.Date;
+
+/**
+ * TokenClaimsDTO holds the claims of a bearer token whose signature has been verified.
+ *
+ * @param username the subject of the token
+ * @param userId the ID of the user
+ * @param role the role of the user
+ * @param issuedAt the time the token was issued
+ * @param expiration the time the token expires
+ */
+public record TokenClaimsDTO(
+        String username,
+        Long userId,
+        String role,
+        Date issuedAt,
+        Date expiration) { }
@@ -2,8 +2,21 @@ package ru.y_lab.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+/**
+ * TokenResponseDTO is a Data Transfer Object holding a short-lived access token and the refresh token to renew it.
+ *
+ * @param token the bearer access token
+ * @param refreshToken the opaque refresh token; it can be used only once
+ * @param expiresIn the lifetime of the access token in seconds
+ */
 public record TokenResponseDTO (
 
         @Schema(name = "token", description = "The bearer token", example = "")
-        String token) {
+        String token,
+
+        @Schema(name = "refreshToken", description = "The single-use refresh token", example = "")
+        String refreshToken,
+
+        @Schema(name = "expiresIn", description = "The lifetime of the bearer token in seconds", example = "900")
+        long expiresIn) {
 }
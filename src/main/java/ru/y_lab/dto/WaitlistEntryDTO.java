@@ -0,0 +1,40 @@
+package ru.y_lab.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * WaitlistEntryDTO is a Data Transfer Object that represents a queued booking request.
+ *
+ * @param entryId the unique identifier of the waitlist entry
+ * @param ownerId the unique identifier of the user who queued the request
+ * @param resourceId the unique identifier of the requested resource
+ * @param startTime the requested start time
+ * @param endTime the requested end time
+ * @param createdAt the time the request was queued
+ */
+public record WaitlistEntryDTO(
+
+        @NotNull(message = "Entry ID cannot be null")
+        @Schema(name = "entryId", description = "The unique identifier of the waitlist entry", example = "1")
+        Long entryId,
+
+        @NotNull(message = "User ID cannot be null")
+        @Schema(name = "ownerId", description = "The unique identifier of the user", example = "1")
+        Long ownerId,
+
+        @NotNull(message = "Resource ID cannot be null")
+        @Schema(name = "resourceId", description = "The unique identifier of the resource", example = "1")
+        Long resourceId,
+
+        @NotNull(message = "Start time cannot be null")
+        @Schema(name = "startTime", description = "Requested start time", example = "2024-07-20T10:00")
+        String startTime,
+
+        @NotNull(message = "End time cannot be null")
+        @Schema(name = "endTime", description = "Requested end time", example = "2024-07-20T12:00")
+        String endTime,
+
+        @NotNull(message = "Creation time cannot be null")
+        @Schema(name = "createdAt", description = "The time the request was queued", example = "2024-07-19T08:30")
+        String createdAt) { }
@@ -0,0 +1,29 @@
+package ru.y_lab.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Enum representing the kinds of changes that can happen to a booking.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum BookingEventType {
+
+    /**
+     * A new booking was created.
+     */
+    ADDED("Booking added"),
+
+    /**
+     * The time period of an existing booking was changed.
+     */
+    UPDATED("Booking updated"),
+
+    /**
+     * A booking was removed.
+     */
+    DELETED("Booking deleted");
+
+    private final String displayName;
+}
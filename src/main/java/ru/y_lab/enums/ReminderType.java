@@ -0,0 +1,24 @@
+package ru.y_lab.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Enum representing the kinds of reminders sent for a booking.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ReminderType {
+
+    /**
+     * The booking starts within the configured lead time.
+     */
+    STARTING_SOON("Booking starts soon"),
+
+    /**
+     * The booking has ended.
+     */
+    ENDED("Booking ended");
+
+    private final String displayName;
+}
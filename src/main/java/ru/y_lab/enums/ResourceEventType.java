@@ -0,0 +1,29 @@
+package ru.y_lab.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Enum representing the kinds of changes that can happen to a resource.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ResourceEventType {
+
+    /**
+     * A new resource was created.
+     */
+    ADDED("Resource added"),
+
+    /**
+     * The name or type of an existing resource was changed.
+     */
+    UPDATED("Resource updated"),
+
+    /**
+     * A resource was removed.
+     */
+    DELETED("Resource deleted");
+
+    private final String displayName;
+}
@@ -0,0 +1,105 @@
+package ru.y_lab.event;
+
+import ru.y_lab.enums.BookingEventType;
+import ru.y_lab.model.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * BookingChangedEvent is an in-process application event fired by the booking write path.
+ * Listeners receive it only after the surrounding transaction has committed.
+ *
+ * @param type the kind of change
+ * @param bookingId the unique identifier of the booking
+ * @param userId the unique identifier of the user who owns the booking
+ * @param resourceId the unique identifier of the booked resource
+ * @param resourceType the type of the booked resource, or null if the resource was not loaded
+ * @param startTime the start time of the booking after the change (the removed time for deletions)
+ * @param endTime the end time of the booking after the change (the removed time for deletions)
+ * @param previousStartTime the start time before an update, or null for other changes
+ * @param previousEndTime the end time before an update, or null for other changes
+ */
+public record BookingChangedEvent(BookingEventType type,
+                                  Long bookingId,
+                                  Long userId,
+                                  Long resourceId,
+                                  String resourceType,
+                                  LocalDateTime startTime,
+                                  LocalDateTime endTime,
+                                  LocalDateTime previousStartTime,
+                                  LocalDateTime previousEndTime) {
+
+    /**
+     * Creates an event for a newly created booking.
+     *
+     * @param booking the saved booking
+     * @return the event
+     */
+    public static BookingChangedEvent added(Booking booking) {
+        return new BookingChangedEvent(BookingEventType.ADDED, booking.getId(), booking.getUserId(),
+                booking.getResourceId(), resourceTypeOf(booking), booking.getStartTime(), booking.getEndTime(), null, null);
+    }
+
+    /**
+     * Creates an event for a booking whose time period was changed.
+     *
+     * @param booking the updated booking
+     * @param previousStartTime the start time before the update
+     * @param previousEndTime the end time before the update
+     * @return the event
+     */
+    public static BookingChangedEvent updated(Booking booking, LocalDateTime previousStartTime, LocalDateTime previousEndTime) {
+        return new BookingChangedEvent(BookingEventType.UPDATED, booking.getId(), booking.getUserId(),
+                booking.getResourceId(), resourceTypeOf(booking), booking.getStartTime(), booking.getEndTime(), previousStartTime, previousEndTime);
+    }
+
+    /**
+     * Creates an event for a removed booking.
+     *
+     * @param booking the booking that was deleted
+     * @return the event
+     */
+    public static BookingChangedEvent deleted(Booking booking) {
+        return new BookingChangedEvent(BookingEventType.DELETED, booking.getId(), booking.getUserId(),
+                booking.getResourceId(), resourceTypeOf(booking), booking.getStartTime(), booking.getEndTime(), null, null);
+    }
+
+    /**
+     * Returns whether this change released a time period that other requests may now occupy.
+     *
+     * @return true for updates and deletions
+     */
+    public boolean freesInterval() {
+        return type != BookingEventType.ADDED;
+    }
+
+    /**
+     * Returns the start of the time period released by this change.
+     *
+     * @return the previous start time for updates, the booking start time for deletions, otherwise null
+     */
+    public LocalDateTime freedStartTime() {
+        return switch (type) {
+            case UPDATED -> previousStartTime;
+            case DELETED -> startTime;
+            case ADDED -> null;
+        };
+    }
+
+    /**
+     * Returns the end of the time period released by this change.
+     *
+     * @return the previous end time for updates, the booking end time for deletions, otherwise null
+     */
+    public LocalDateTime freedEndTime() {
+        return switch (type) {
+            case UPDATED -> previousEndTime;
+            case DELETED -> endTime;
+            case ADDED -> null;
+        };
+    }
+
+    private static String resourceTypeOf(Booking booking) {
+        return booking.getResource() != null ? booking.getResource().getType() : null;
+    }
+}
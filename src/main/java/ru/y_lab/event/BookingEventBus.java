@@ -0,0 +1,103 @@
+package ru.y_lab.event;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * In-process publish/subscribe bus for committed booking changes.
+ *
+ * <p>The bus receives every {@link BookingChangedEvent} after its transaction commits and hands it to
+ * the matching subscriptions. Publishing only appends to the per-subscriber buffers; delivery happens
+ * on the {@code bookingEventExecutor}, so a slow subscriber never holds up the others.
+ *
+ * <p>A write to a subscriber blocks a dispatch thread until the client has taken the data. Every
+ * {@code booking-events.stall-check-interval-ms} the bus aborts the subscribers whose current write has taken
+ * longer than {@code booking-events.send-timeout-ms}, so a stalled client occupies a thread for at most that
+ * long before it is dropped and has to reconnect. Deliveries that find every dispatch thread busy are not lost;
+ * they stay buffered and are scheduled again by the next check.
+ */
+@Component
+public class BookingEventBus {
+
+    private final Set<BookingEventSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Executor dispatchExecutor;
+    private final int bufferCapacity;
+    private final long sendTimeoutNanos;
+
+    public BookingEventBus(@Qualifier("bookingEventExecutor") Executor dispatchExecutor,
+                           @Value("${booking-events.buffer-capacity:256}") int bufferCapacity,
+                           @Value("${booking-events.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.dispatchExecutor = dispatchExecutor;
+        this.bufferCapacity = bufferCapacity;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+    }
+
+    /**
+     * Registers a subscriber.
+     *
+     * @param filter selects the events the subscriber is interested in
+     * @param sink   receives the events
+     * @return the subscription, which has to be cancelled when the subscriber goes away
+     */
+    public BookingEventSubscription subscribe(Predicate<BookingChangedEvent> filter, BookingEventSink sink) {
+        BookingEventSubscription subscription = new BookingEventSubscription(filter, sink, bufferCapacity, subscriptions::remove);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Publishes a committed booking change to all matching subscribers.
+     *
+     * @param event the booking change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void publish(BookingChangedEvent event) {
+        for (BookingEventSubscription subscription : subscriptions) {
+            if (subscription.accepts(event) && subscription.offer(event))
+                dispatch(subscription);
+        }
+    }
+
+    /**
+     * Aborts the subscribers that exceeded the send timeout and schedules the deliveries that were deferred
+     * because every dispatch thread was busy.
+     */
+    @Scheduled(fixedDelayString = "${booking-events.stall-check-interval-ms:1000}")
+    public void checkSubscriptions() {
+        long now = System.nanoTime();
+        for (BookingEventSubscription subscription : subscriptions) {
+            if (subscription.isStalled(now, sendTimeoutNanos))
+                subscription.abort();
+            else if (subscription.reschedule())
+                dispatch(subscription);
+        }
+    }
+
+    /**
+     * Returns the number of active subscribers.
+     *
+     * @return the number of subscribers
+     */
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    private void dispatch(BookingEventSubscription subscription) {
+        try {
+            dispatchExecutor.execute(subscription::drain);
+        } catch (RejectedExecutionException ex) {
+            subscription.unschedule();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.y_lab.event;
+
+import java.io.IOException;
+
+/**
+ * Destination of the events delivered to a single {@link BookingEventSubscription}.
+ */
+public interface BookingEventSink {
+
+    /**
+     * Delivers a booking change to the subscriber.
+     *
+     * @param event the booking change
+     * @throws IOException if the subscriber can no longer be written to
+     */
+    void send(BookingChangedEvent event) throws IOException;
+
+    /**
+     * Tells the subscriber that changes were dropped because its buffer overflowed,
+     * so it has to reload the current state instead of relying on the event stream.
+     *
+     * @throws IOException if the subscriber can no longer be written to
+     */
+    void resync() throws IOException;
+
+    /**
+     * Ends the stream of a subscriber that was dropped because it did not keep up with the events.
+     */
+    void close();
+}
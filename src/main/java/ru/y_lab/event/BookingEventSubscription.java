@@ -0,0 +1,213 @@
+package ru.y_lab.event;
+
+import ru.y_lab.enums.BookingEventType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A single subscriber of the {@link BookingEventBus} with its own bounded buffer.
+ *
+ * <p>Pending changes are keyed by booking ID, so repeated changes of the same booking are coalesced
+ * into one event before delivery. When the buffer is full the oldest pending change is dropped and
+ * the subscriber is asked to resync. Publishing never blocks on a slow subscriber. A subscriber whose
+ * write takes longer than the send timeout of the bus is {@link #abort() aborted}: it is detached, and its
+ * sink is closed as soon as the write returns.
+ */
+public class BookingEventSubscription {
+
+    private final Predicate<BookingChangedEvent> filter;
+    private final BookingEventSink sink;
+    private final int capacity;
+    private final Consumer<BookingEventSubscription> onCancel;
+
+    private final LinkedHashMap<Long, BookingChangedEvent> pending = new LinkedHashMap<>();
+    private boolean overflowed;
+    private boolean scheduled;
+    private boolean sinkClosed;
+    private volatile boolean cancelled;
+    private volatile boolean aborted;
+    private volatile long sendStartedAt;
+
+    BookingEventSubscription(Predicate<BookingChangedEvent> filter,
+                             BookingEventSink sink,
+                             int capacity,
+                             Consumer<BookingEventSubscription> onCancel) {
+        this.filter = filter;
+        this.sink = sink;
+        this.capacity = capacity;
+        this.onCancel = onCancel;
+    }
+
+    /**
+     * Returns whether this subscriber is interested in the event.
+     *
+     * @param event the booking change
+     * @return true if the subscription is active and its filter matches
+     */
+    boolean accepts(BookingChangedEvent event) {
+        return !cancelled && filter.test(event);
+    }
+
+    /**
+     * Adds an event to the buffer, coalescing it with a pending change of the same booking.
+     *
+     * @param event the booking change
+     * @return true if the caller has to schedule {@link #drain()}
+     */
+    synchronized boolean offer(BookingChangedEvent event) {
+        BookingChangedEvent previous = pending.remove(event.bookingId());
+        BookingChangedEvent merged = previous == null ? event : coalesce(previous, event);
+
+        if (merged != null) {
+            if (pending.size() >= capacity) {
+                Iterator<BookingChangedEvent> eldest = pending.values().iterator();
+                eldest.next();
+                eldest.remove();
+                overflowed = true;
+            }
+            pending.put(merged.bookingId(), merged);
+        }
+
+        if (scheduled)
+            return false;
+        scheduled = true;
+        return true;
+    }
+
+    /**
+     * Claims the pending delivery of a subscription whose drain could not be scheduled before.
+     *
+     * @return true if the caller has to schedule {@link #drain()}
+     */
+    synchronized boolean reschedule() {
+        if (cancelled || scheduled || (pending.isEmpty() && !overflowed))
+            return false;
+        scheduled = true;
+        return true;
+    }
+
+    /**
+     * Releases the claim of {@link #offer} or {@link #reschedule} after the drain could not be scheduled,
+     * so the buffered events are picked up by a later {@link #reschedule}.
+     */
+    synchronized void unschedule() {
+        scheduled = false;
+    }
+
+    /**
+     * Delivers buffered events to the sink until the buffer is empty.
+     * Runs on the bus dispatch executor; at most one drain per subscription is active at a time.
+     */
+    void drain() {
+        while (true) {
+            List<BookingChangedEvent> batch;
+            boolean resync;
+            synchronized (this) {
+                if (cancelled || (pending.isEmpty() && !overflowed)) {
+                    scheduled = false;
+                    break;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                resync = overflowed;
+                overflowed = false;
+            }
+
+            try {
+                if (resync) {
+                    sendStartedAt = System.nanoTime();
+                    sink.resync();
+                }
+                for (BookingChangedEvent event : batch) {
+                    sendStartedAt = System.nanoTime();
+                    sink.send(event);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                cancel();
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+        if (aborted)
+            closeSink();
+    }
+
+    /**
+     * Checks whether a write to the sink has been running for longer than the given time.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @param timeoutNanos the send timeout
+     * @return true if the subscriber has to be aborted
+     */
+    boolean isStalled(long now, long timeoutNanos) {
+        long startedAt = sendStartedAt;
+        return startedAt != 0 && now - startedAt > timeoutNanos;
+    }
+
+    /**
+     * Detaches a subscriber that does not keep up. The write in progress cannot be interrupted, so the sink
+     * is closed by the drain once that write returns or fails.
+     */
+    void abort() {
+        aborted = true;
+        cancel();
+    }
+
+    /**
+     * Stops delivery and detaches the subscription from the bus.
+     */
+    public void cancel() {
+        if (cancelled)
+            return;
+        cancelled = true;
+        synchronized (this) {
+            pending.clear();
+        }
+        onCancel.accept(this);
+    }
+
+    /**
+     * Returns the number of buffered events.
+     *
+     * @return the number of events waiting for delivery
+     */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    private void closeSink() {
+        synchronized (this) {
+            if (sinkClosed)
+                return;
+            sinkClosed = true;
+        }
+        try {
+            sink.close();
+        } catch (IllegalStateException ex) {
+            // The stream has already been completed by the other side
+        }
+    }
+
+    private static BookingChangedEvent coalesce(BookingChangedEvent previous, BookingChangedEvent next) {
+        if (previous.type() == BookingEventType.ADDED) {
+            return switch (next.type()) {
+                case DELETED -> null;
+                case UPDATED -> new BookingChangedEvent(BookingEventType.ADDED, next.bookingId(), next.userId(),
+                        next.resourceId(), next.resourceType(), next.startTime(), next.endTime(), null, null);
+                case ADDED -> next;
+            };
+        }
+        if (previous.type() == BookingEventType.UPDATED && next.type() == BookingEventType.UPDATED) {
+            return new BookingChangedEvent(BookingEventType.UPDATED, next.bookingId(), next.userId(),
+                    next.resourceId(), next.resourceType(), next.startTime(), next.endTime(),
+                    previous.previousStartTime(), previous.previousEndTime());
+        }
+        return next;
+    }
+}
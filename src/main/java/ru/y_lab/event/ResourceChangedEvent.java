@@ -0,0 +1,34 @@
+package ru.y_lab.event;
+
+import ru.y_lab.enums.ResourceEventType;
+import ru.y_lab.model.Resource;
+
+/**
+ * ResourceChangedEvent is an in-process application event fired by the resource write path.
+ *
+ * @param type the kind of change
+ * @param resourceId the unique identifier of the resource
+ * @param ownerId the unique identifier of the user who owns the resource
+ * @param name the name of the resource after the change
+ * @param resourceType the type of the resource after the change
+ * @param version the version of the resource after the change
+ */
+public record ResourceChangedEvent(ResourceEventType type,
+                                   Long resourceId,
+                                   Long ownerId,
+                                   String name,
+                                   String resourceType,
+                                   Long version) {
+
+    /**
+     * Creates an event for the given change of a resource.
+     *
+     * @param type the kind of change
+     * @param resource the resource after the change (the removed resource for deletions)
+     * @return the event
+     */
+    public static ResourceChangedEvent of(ResourceEventType type, Resource resource) {
+        return new ResourceChangedEvent(type, resource.getId(), resource.getUserId(), resource.getName(), resource.getType(),
+                resource.getVersion());
+    }
+}
@@ -0,0 +1,56 @@
+package ru.y_lab.event;
+
+import ru.y_lab.model.SlotHold;
+
+import java.time.LocalDateTime;
+
+/**
+ * SlotHoldChangedEvent is an in-process application event fired when a hold is placed, released, confirmed
+ * or expires, i.e. whenever the periods blocked by holds change.
+ *
+ * @param holdId the unique identifier of the hold
+ * @param resourceId the unique identifier of the held resource
+ * @param startTime the start of the held period
+ * @param endTime the end of the held period
+ * @param freesInterval true if the held period became free, i.e. the hold was released or expired
+ */
+public record SlotHoldChangedEvent(Long holdId,
+                                   Long resourceId,
+                                   LocalDateTime startTime,
+                                   LocalDateTime endTime,
+                                   boolean freesInterval) {
+
+    /**
+     * Creates an event for a newly placed hold.
+     *
+     * @param hold the saved hold
+     * @return the event
+     */
+    public static SlotHoldChangedEvent placed(SlotHold hold) {
+        return of(hold, false);
+    }
+
+    /**
+     * Creates an event for a hold that was turned into a booking, which keeps the period occupied.
+     *
+     * @param hold the confirmed hold
+     * @return the event
+     */
+    public static SlotHoldChangedEvent confirmed(SlotHold hold) {
+        return of(hold, false);
+    }
+
+    /**
+     * Creates an event for a hold that was released or expired, which frees the held period.
+     *
+     * @param hold the removed hold
+     * @return the event
+     */
+    public static SlotHoldChangedEvent released(SlotHold hold) {
+        return of(hold, true);
+    }
+
+    private static SlotHoldChangedEvent of(SlotHold hold, boolean freesInterval) {
+        return new SlotHoldChangedEvent(hold.getId(), hold.getResourceId(), hold.getStartTime(), hold.getEndTime(), freesInterval);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.y_lab.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.y_lab.service.WaitlistService;
+
+/**
+ * Promotes waitlisted booking requests when a committed booking change, or a released or expired hold, frees
+ * a time period.
+ * Events are handed to the single-threaded {@code waitlistExecutor}, which acts as an ordered
+ * in-process queue, so request threads never wait for promotion and no polling is needed.
+ */
+@Component
+@RequiredArgsConstructor
+public class WaitlistPromotionListener {
+
+    private final WaitlistService waitlistService;
+
+    /**
+     * Handles a committed booking change.
+     *
+     * @param event the booking change
+     */
+    @Async("waitlistExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!event.freesInterval())
+            return;
+        waitlistService.promoteWaitlisted(event.resourceId(), event.freedStartTime(), event.freedEndTime());
+    }
+
+    /**
+     * Handles a committed hold change.
+     *
+     * @param event the hold change
+     */
+    @Async("waitlistExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSlotHoldChanged(SlotHoldChangedEvent event) {
+        if (!event.freesInterval())
+            return;
+        waitlistService.promoteWaitlisted(event.resourceId(), event.startTime(), event.endTime());
+    }
+}
@@ -0,0 +1,108 @@
+package ru.y_lab.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import ru.y_lab.dto.ErrorResponse;
+import ru.y_lab.util.ErrorResponseTemplate;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes {@link ErrorResponse} bodies straight to the servlet output stream.
+ *
+ * <p>The fixed messages of the errors on the authentication and booking paths, listed in
+ * {@link #TEMPLATED_MESSAGES}, are encoded into {@link ErrorResponseTemplate templates} at startup and written
+ * without serializing anything. Any other message, in particular one that embeds request data, is serialized
+ * with the {@link ObjectMapper} per request and never cached. Filters write their own constant messages through
+ * templates they build with {@link #template}.
+ */
+@Component
+public class ErrorResponseWriter {
+
+    /**
+     * The fixed messages of the exceptions handled by {@link GlobalExceptionHandler} that are worth a template.
+     */
+    private static final Map<HttpStatus, Set<String>> TEMPLATED_MESSAGES = Map.of(
+            HttpStatus.UNAUTHORIZED, Set.of(
+                    "Invalid username or password",
+                    "Invalid or expired refresh token"),
+            HttpStatus.FORBIDDEN, Set.of(
+                    "Access denied. Only admin users can access this resource."),
+            HttpStatus.CONFLICT, Set.of(
+                    "The resource is already booked for the specified time period.",
+                    "The resource is held by another user for the specified time period.",
+                    "The resource is already booked or held for the specified time period.",
+                    "The booking was modified by someone else. Please reload it and try again.",
+                    "The resource was modified by someone else. Please reload it and try again.",
+                    "The entity was modified concurrently. Please reload it and try again."),
+            HttpStatus.TOO_MANY_REQUESTS, Set.of(
+                    "Too many login attempts. Please try again later."),
+            HttpStatus.SERVICE_UNAVAILABLE, Set.of(
+                    "Too many login attempts are in progress. Please try again later."));
+
+    private final ObjectMapper objectMapper;
+    private final Map<Integer, Map<String, ErrorResponseTemplate>> templates;
+
+    public ErrorResponseWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        Map<Integer, Map<String, ErrorResponseTemplate>> byStatus = new HashMap<>();
+        TEMPLATED_MESSAGES.forEach((status, messages) -> {
+            Map<String, ErrorResponseTemplate> byMessage = new HashMap<>();
+            for (String message : messages)
+                byMessage.put(message, template(status, message));
+            byStatus.put(status.value(), Map.copyOf(byMessage));
+        });
+        this.templates = Map.copyOf(byStatus);
+    }
+
+    /**
+     * Encodes an error response with a constant message, for callers that write it repeatedly.
+     *
+     * @param status the HTTP status of the error
+     * @param message the constant error message
+     * @return the template of the error response
+     */
+    public ErrorResponseTemplate template(HttpStatus status, String message) {
+        return new ErrorResponseTemplate(status.value(), message);
+    }
+
+    /**
+     * Writes an error response with the current time as its timestamp.
+     *
+     * @param response the response to write to
+     * @param status the HTTP status of the error
+     * @param message the error message
+     * @throws IOException if writing the body fails
+     */
+    public void write(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        write(response, status.value(), message);
+    }
+
+    /**
+     * Writes an error response with the current time as its timestamp.
+     *
+     * @param response the response to write to
+     * @param status the HTTP status code of the error
+     * @param message the error message
+     * @throws IOException if writing the body fails
+     */
+    public void write(HttpServletResponse response, int status, String message) throws IOException {
+        long timestamp = System.currentTimeMillis();
+        Map<String, ErrorResponseTemplate> byMessage = templates.get(status);
+        ErrorResponseTemplate template = byMessage != null && message != null ? byMessage.get(message) : null;
+        if (template != null) {
+            template.writeTo(response, timestamp);
+            return;
+        }
+
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status, message, timestamp));
+    }
+}
@@ -1,9 +1,13 @@
 package ru.y_lab.exception;
 
-import org.springframework.http.ResponseEntity;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import ru.y_lab.dto.ErrorResponse;
+
+import java.io.IOException;
 
 import static org.springframework.http.HttpStatus.*;
 
@@ -11,225 +15,265 @@ import static org.springframework.http.HttpStatus.*;
  * Global exception handler for handling various exceptions thrown by the application.
  * This class uses Spring's {@link ControllerAdvice} to handle exceptions globally
  * and return appropriate HTTP responses with error details.
+ * The error details are written directly to the response by {@link ErrorResponseWriter}.
  */
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final ErrorResponseWriter errorResponseWriter;
+
     /**
      * Handles {@link UserNotFoundException} and returns a NOT_FOUND response.
      *
      * @param ex the {@link UserNotFoundException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status NOT_FOUND
+     * @param response the response the error details are written to with HTTP status NOT_FOUND
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleUserNotFoundException(UserNotFoundException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                NOT_FOUND.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, NOT_FOUND);
+    public void handleUserNotFoundException(UserNotFoundException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, NOT_FOUND, ex.getMessage());
     }
 
     /**
      * Handles {@link IllegalArgumentException} and returns a BAD_REQUEST response.
      *
      * @param ex the {@link IllegalArgumentException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status BAD_REQUEST
+     * @param response the response the error details are written to with HTTP status BAD_REQUEST
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                BAD_REQUEST.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, BAD_REQUEST);
+    public void handleIllegalArgumentException(IllegalArgumentException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, BAD_REQUEST, ex.getMessage());
     }
 
     /**
      * Handles {@link BookingConflictException} and returns a CONFLICT response.
      *
      * @param ex the {@link BookingConflictException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status CONFLICT
+     * @param response the response the error details are written to with HTTP status CONFLICT
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(BookingConflictException.class)
-    public ResponseEntity<ErrorResponse> handleBookingConflictException(BookingConflictException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                CONFLICT.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, CONFLICT);
+    public void handleBookingConflictException(BookingConflictException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, CONFLICT, ex.getMessage());
     }
 
     /**
      * Handles {@link BookingNotFoundException} and returns a NOT_FOUND response.
      *
      * @param ex the {@link BookingNotFoundException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status NOT_FOUND
+     * @param response the response the error details are written to with HTTP status NOT_FOUND
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(BookingNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleBookingNotFoundException(BookingNotFoundException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                NOT_FOUND.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, NOT_FOUND);
+    public void handleBookingNotFoundException(BookingNotFoundException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, NOT_FOUND, ex.getMessage());
+    }
+
+    /**
+     * Handles {@link WaitlistEntryNotFoundException} and returns a NOT_FOUND response.
+     *
+     * @param ex the {@link WaitlistEntryNotFoundException} thrown
+     * @param response the response the error details are written to with HTTP status NOT_FOUND
+     * @throws IOException if writing the response fails
+     */
+    @ExceptionHandler(WaitlistEntryNotFoundException.class)
+    public void handleWaitlistEntryNotFoundException(WaitlistEntryNotFoundException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, NOT_FOUND, ex.getMessage());
+    }
+
+    /**
+     * Handles {@link SlotHoldNotFoundException} and returns a NOT_FOUND response.
+     *
+     * @param ex the {@link SlotHoldNotFoundException} thrown
+     * @param response the response the error details are written to with HTTP status NOT_FOUND
+     * @throws IOException if writing the response fails
+     */
+    @ExceptionHandler(SlotHoldNotFoundException.class)
+    public void handleSlotHoldNotFoundException(SlotHoldNotFoundException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, NOT_FOUND, ex.getMessage());
     }
 
     /**
      * Handles {@link InvalidBookingDataException} and returns a BAD_REQUEST response.
      *
      * @param ex the {@link InvalidBookingDataException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status BAD_REQUEST
+     * @param response the response the error details are written to with HTTP status BAD_REQUEST
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(InvalidBookingDataException.class)
-    public ResponseEntity<ErrorResponse> handleInvalidBookingDataException(InvalidBookingDataException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                BAD_REQUEST.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, BAD_REQUEST);
+    public void handleInvalidBookingDataException(InvalidBookingDataException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, BAD_REQUEST, ex.getMessage());
     }
 
     /**
      * Handles {@link InvalidBookingTimeException} and returns a BAD_REQUEST response.
      *
      * @param ex the {@link InvalidBookingTimeException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status BAD_REQUEST
+     * @param response the response the error details are written to with HTTP status BAD_REQUEST
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(InvalidBookingTimeException.class)
-    public ResponseEntity<ErrorResponse> handleInvalidBookingTimeException(InvalidBookingTimeException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                BAD_REQUEST.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, BAD_REQUEST);
+    public void handleInvalidBookingTimeException(InvalidBookingTimeException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, BAD_REQUEST, ex.getMessage());
     }
 
     /**
      * Handles {@link ResourceConflictException} and returns a CONFLICT response.
      *
      * @param ex the {@link ResourceConflictException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status CONFLICT
+     * @param response the response the error details are written to with HTTP status CONFLICT
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(ResourceConflictException.class)
-    public ResponseEntity<ErrorResponse> handleResourceConflictException(ResourceConflictException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                CONFLICT.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, CONFLICT);
+    public void handleResourceConflictException(ResourceConflictException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, CONFLICT, ex.getMessage());
+    }
+
+    /**
+     * Handles {@link VersionConflictException} and returns a CONFLICT response.
+     *
+     * @param ex the {@link VersionConflictException} thrown
+     * @param response the response the error details are written to with HTTP status CONFLICT
+     * @throws IOException if writing the response fails
+     */
+    @ExceptionHandler(VersionConflictException.class)
+    public void handleVersionConflictException(VersionConflictException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, CONFLICT, ex.getMessage());
+    }
+
+    /**
+     * Handles {@link IdempotencyKeyReuseException} and returns an UNPROCESSABLE_ENTITY response.
+     *
+     * @param ex the {@link IdempotencyKeyReuseException} thrown
+     * @param response the response the error details are written to with HTTP status UNPROCESSABLE_ENTITY
+     * @throws IOException if writing the response fails
+     */
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public void handleIdempotencyKeyReuseException(IdempotencyKeyReuseException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
+    /**
+     * Handles an {@link OptimisticLockingFailureException} of an update that is not retried and returns a CONFLICT
+     * response. The exception message names internal entities, so a fixed message is returned instead.
+     *
+     * @param ex the {@link OptimisticLockingFailureException} thrown
+     * @param response the response the error details are written to with HTTP status CONFLICT
+     * @throws IOException if writing the response fails
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public void handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, CONFLICT, "The entity was modified concurrently. Please reload it and try again.");
     }
 
     /**
      * Handles {@link ResourceNotFoundException} and returns a NOT_FOUND response.
      *
      * @param ex the {@link ResourceNotFoundException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status NOT_FOUND
+     * @param response the response the error details are written to with HTTP status NOT_FOUND
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                NOT_FOUND.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, NOT_FOUND);
+    public void handleResourceNotFoundException(ResourceNotFoundException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, NOT_FOUND, ex.getMessage());
     }
 
     /**
      * Handles {@link DatabaseException} and returns an INTERNAL_SERVER_ERROR response.
      *
      * @param ex the {@link DatabaseException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status INTERNAL_SERVER_ERROR
+     * @param response the response the error details are written to with HTTP status INTERNAL_SERVER_ERROR
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(DatabaseException.class)
-    public ResponseEntity<ErrorResponse> handleDatabaseException(DatabaseException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                INTERNAL_SERVER_ERROR.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, INTERNAL_SERVER_ERROR);
+    public void handleDatabaseException(DatabaseException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, INTERNAL_SERVER_ERROR, ex.getMessage());
     }
 
     /**
      * Handles {@link SecurityException} and returns an UNAUTHORIZED response.
      *
      * @param ex the {@link SecurityException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status UNAUTHORIZED
+     * @param response the response the error details are written to with HTTP status UNAUTHORIZED
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(SecurityException.class)
-    public ResponseEntity<ErrorResponse> handleSecurityException(SecurityException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                UNAUTHORIZED.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, UNAUTHORIZED);
+    public void handleSecurityException(SecurityException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, UNAUTHORIZED, ex.getMessage());
     }
 
     /**
      * Handles {@link AuthenticateException} and returns an UNAUTHORIZED response.
      *
      * @param ex the {@link AuthenticateException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status UNAUTHORIZED
+     * @param response the response the error details are written to with HTTP status UNAUTHORIZED
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(AuthenticateException.class)
-    public ResponseEntity<ErrorResponse> handleAuthenticateException(AuthenticateException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                UNAUTHORIZED.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, UNAUTHORIZED);
+    public void handleAuthenticateException(AuthenticateException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, UNAUTHORIZED, ex.getMessage());
     }
 
     /**
      * Handles {@link AuthorizationException} and returns a FORBIDDEN response.
      *
      * @param ex the {@link AuthorizationException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status FORBIDDEN
+     * @param response the response the error details are written to with HTTP status FORBIDDEN
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(AuthorizationException.class)
-    public ResponseEntity<ErrorResponse> handleAuthorizationException(AuthorizationException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                FORBIDDEN.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, FORBIDDEN);
+    public void handleAuthorizationException(AuthorizationException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, FORBIDDEN, ex.getMessage());
     }
 
     /**
      * Handles {@link InvalidCredentialsException} and returns an UNAUTHORIZED response.
      *
      * @param ex the {@link InvalidCredentialsException} thrown
-     * @return a {@link ResponseEntity} containing the error details and HTTP status UNAUTHORIZED
+     * @param response the response the error details are written to with HTTP status UNAUTHORIZED
+     * @throws IOException if writing the response fails
      */
     @ExceptionHandler(InvalidCredentialsException.class)
-    public ResponseEntity<ErrorResponse> handleInvalidCredentialsException(InvalidCredentialsException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                UNAUTHORIZED.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, UNAUTHORIZED);
+    public void handleInvalidCredentialsException(InvalidCredentialsException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, UNAUTHORIZED, ex.getMessage());
+    }
+
+    /**
+     * Handles {@link PasswordHashingUnavailableException} and returns a SERVICE_UNAVAILABLE response.
+     *
+     * @param ex the {@link PasswordHashingUnavailableException} thrown
+     * @param response the response the error details are written to with HTTP status SERVICE_UNAVAILABLE
+     * @throws IOException if writing the response fails
+     */
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public void handlePasswordHashingUnavailableException(PasswordHashingUnavailableException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    /**
+     * Handles {@link LoginThrottledException} and returns a TOO_MANY_REQUESTS response with a Retry-After header.
+     *
+     * @param ex the {@link LoginThrottledException} thrown
+     * @param response the response the error details are written to with HTTP status TOO_MANY_REQUESTS
+     * @throws IOException if writing the response fails
+     */
+    @ExceptionHandler(LoginThrottledException.class)
+    public void handleLoginThrottledException(LoginThrottledException ex, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        errorResponseWriter.write(response, TOO_MANY_REQUESTS, ex.getMessage());
     }
 
+    /**
+     * Handles {@link JwtAuthenticationException} and returns an UNAUTHORIZED response.
+     *
+     * @param ex the {@link JwtAuthenticationException} thrown
+     * @param response the response the error details are written to with HTTP status UNAUTHORIZED
+     * @throws IOException if writing the response fails
+     */
     @ExceptionHandler(JwtAuthenticationException.class)
-    public ResponseEntity<ErrorResponse> handleJwtAuthenticationException(JwtAuthenticationException ex) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                UNAUTHORIZED.value(),
-                ex.getMessage(),
-                System.currentTimeMillis()
-        );
-        return new ResponseEntity<>(errorResponse, UNAUTHORIZED);
+    public void handleJwtAuthenticationException(JwtAuthenticationException ex, HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, UNAUTHORIZED, ex.getMessage());
     }
 }
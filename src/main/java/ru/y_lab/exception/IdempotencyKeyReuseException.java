@@ -0,0 +1,15 @@
+package ru.y_lab.exception;
+
+/**
+ * Exception thrown when an idempotency key is sent again with a different request.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    /**
+     * Constructs a new IdempotencyKeyReuseException with the specified detail message.
+     * @param message the detail message
+     */
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.y_lab.exception;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
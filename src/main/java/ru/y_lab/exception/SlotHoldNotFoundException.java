@@ -0,0 +1,15 @@
+package ru.y_lab.exception;
+
+/**
+ * Exception thrown when a slot hold is not found or has already expired.
+ */
+public class SlotHoldNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new SlotHoldNotFoundException with the specified detail message.
+     * @param message the detail message
+     */
+    public SlotHoldNotFoundException(String message) {
+        super(message);
+    }
+}
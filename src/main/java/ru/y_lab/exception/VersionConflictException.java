@@ -0,0 +1,16 @@
+package ru.y_lab.exception;
+
+/**
+ * Exception thrown when an entity was changed by someone else, either before the update was requested
+ * (the If-Match version is stale) or while it was being applied.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    /**
+     * Constructs a new VersionConflictException with the specified detail message.
+     * @param message the detail message
+     */
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
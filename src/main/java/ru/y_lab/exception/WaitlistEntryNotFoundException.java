@@ -0,0 +1,15 @@
+package ru.y_lab.exception;
+
+/**
+ * Exception thrown when a waitlist entry is not found.
+ */
+public class WaitlistEntryNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new WaitlistEntryNotFoundException with the specified detail message.
+     * @param message the detail message
+     */
+    public WaitlistEntryNotFoundException(String message) {
+        super(message);
+    }
+}
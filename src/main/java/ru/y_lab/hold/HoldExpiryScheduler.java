@@ -0,0 +1,207 @@
+package ru.y_lab.hold;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.y_lab.cache.AvailabilityCache;
+import ru.y_lab.coalesce.QueryCoalescer;
+import ru.y_lab.event.SlotHoldChangedEvent;
+import ru.y_lab.model.SlotHold;
+import ru.y_lab.repo.SlotHoldRepo;
+import ru.y_lab.util.TimingWheel;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Releases slot holds when they expire, without a scheduled task per hold and without polling the database.
+ *
+ * <p>Every hold placed through this node is registered in an in-memory {@link TimingWheel} that a dedicated
+ * thread advances every {@code holds.wheel.tick-ms}. The holds that fire within a tick are deleted in batches of
+ * {@code holds.expiry.batch-size}, and a {@link SlotHoldChangedEvent} is published for each of them so that the
+ * caches of all nodes drop the freed period and waitlisted requests for it are promoted; a failed batch is retried after {@code holds.expiry.retry-delay-ms}.
+ * On startup the holds stored in the database are registered again, so holds survive a restart. Deleting the
+ * rows is housekeeping only: every query ignores holds past their expiration time.
+ *
+ * <p>Available slots computed while a hold was active are additionally invalidated locally when the hold
+ * expires, see {@link #scheduleInvalidation}, so the caches of a node heal even if the node that placed the hold
+ * went away before releasing it. Exposes the {@code holds.timers} gauge and the {@code holds.expired} counter.
+ */
+@Slf4j
+@Component
+public class HoldExpiryScheduler implements SmartLifecycle {
+
+    private final SlotHoldRepo slotHoldRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final AvailabilityCache availabilityCache;
+    private final QueryCoalescer queryCoalescer;
+
+    private final long tickMillis;
+    private final int batchSize;
+    private final long retryDelayMs;
+
+    private final TimingWheel<Runnable> wheel;
+    private final Counter expiredCounter;
+
+    /**
+     * Holds whose timeout fired during the current tick; only touched by the ticker thread.
+     */
+    private final List<Long> dueHoldIds = new ArrayList<>();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public HoldExpiryScheduler(SlotHoldRepo slotHoldRepo,
+                               ApplicationEventPublisher eventPublisher,
+                               TransactionTemplate transactionTemplate,
+                               AvailabilityCache availabilityCache,
+                               QueryCoalescer queryCoalescer,
+                               MeterRegistry meterRegistry,
+                               @Value("${holds.wheel.tick-ms:100}") long tickMillis,
+                               @Value("${holds.expiry.batch-size:500}") int batchSize,
+                               @Value("${holds.expiry.retry-delay-ms:5000}") long retryDelayMs) {
+        this.slotHoldRepo = slotHoldRepo;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.availabilityCache = availabilityCache;
+        this.queryCoalescer = queryCoalescer;
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.retryDelayMs = retryDelayMs;
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+        Gauge.builder("holds.timers", wheel, TimingWheel::size)
+                .description("Hold expirations and cache invalidations waiting in the timing wheel")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("holds.expired")
+                .description("Slot holds released because they expired")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the expiration of a hold.
+     *
+     * @param hold the saved hold
+     */
+    public void scheduleExpiry(SlotHold hold) {
+        scheduleExpiry(hold.getId(), toMillis(hold.getExpiresAt()));
+    }
+
+    /**
+     * Invalidates the cached available slots of a resource on a day at the given time.
+     *
+     * @param resourceId the ID of the resource
+     * @param date the day of the slots
+     * @param at the time the cached slots become stale
+     */
+    public void scheduleInvalidation(Long resourceId, LocalDate date, LocalDateTime at) {
+        wheel.schedule(() -> {
+            queryCoalescer.invalidateResource(resourceId);
+            availabilityCache.invalidate(resourceId, date);
+        }, toMillis(at));
+    }
+
+    @Override
+    public void start() {
+        try {
+            List<SlotHold> holds = slotHoldRepo.findAll();
+            holds.forEach(this::scheduleExpiry);
+            log.info("Scheduled the expiration of {} stored slot holds", holds.size());
+        } catch (RuntimeException ex) {
+            log.warn("Stored slot holds could not be loaded, they are ignored once expired: {}", ex.getMessage());
+        }
+        running = true;
+        thread = new Thread(this::run, "hold-expiry");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            wheel.advance(System.currentTimeMillis(), this::runTask);
+            if (!dueHoldIds.isEmpty()) {
+                List<Long> holdIds = new ArrayList<>(dueHoldIds);
+                dueHoldIds.clear();
+                for (int from = 0; from < holdIds.size(); from += batchSize)
+                    expire(holdIds.subList(from, Math.min(from + batchSize, holdIds.size())));
+            }
+        }
+    }
+
+    private void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            log.warn("Hold expiry task failed: {}", ex.getMessage());
+        }
+    }
+
+    private void scheduleExpiry(Long holdId, long deadlineMillis) {
+        wheel.schedule(() -> dueHoldIds.add(holdId), deadlineMillis);
+    }
+
+    /**
+     * Deletes the given holds that have expired and re-registers the ones whose expiration time is still ahead,
+     * which happens when the clocks of the nodes differ.
+     */
+    private void expire(List<Long> holdIds) {
+        try {
+            int expired = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<SlotHold> expiredHolds = new ArrayList<>();
+                for (SlotHold hold : slotHoldRepo.findAllById(holdIds)) {
+                    if (hold.getExpiresAt().isAfter(now))
+                        scheduleExpiry(hold);
+                    else
+                        expiredHolds.add(hold);
+                }
+                slotHoldRepo.deleteAllInBatch(expiredHolds);
+                expiredHolds.forEach(hold -> eventPublisher.publishEvent(SlotHoldChangedEvent.released(hold)));
+                return expiredHolds.size();
+            });
+            expiredCounter.increment(expired);
+        } catch (RuntimeException ex) {
+            log.warn("Expired slot holds could not be released, retrying in {} ms: {}", retryDelayMs, ex.getMessage());
+            long retryAt = System.currentTimeMillis() + retryDelayMs;
+            holdIds.forEach(holdId -> scheduleExpiry(holdId, retryAt));
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,101 @@
+package ru.y_lab.invalidation;
+
+import java.time.LocalDate;
+
+/**
+ * A cache invalidation message of the cross-node invalidation bus.
+ *
+ * <p>Messages are encoded as short tokens, e.g. {@code b:42:2026-10-19}, so that many of them fit into a single
+ * PostgreSQL notification.
+ *
+ * @param kind what changed
+ * @param id the ID of the changed resource or user, or null for {@link Kind#ALL}
+ * @param date the start date of the changed booking for {@link Kind#BOOKING}, otherwise null
+ */
+public record Invalidation(Kind kind, Long id, LocalDate date) {
+
+    /**
+     * Kinds of invalidation messages.
+     */
+    public enum Kind {
+
+        /**
+         * Bookings of a resource starting on a date changed.
+         */
+        BOOKING('b'),
+
+        /**
+         * A resource changed.
+         */
+        RESOURCE('r'),
+
+        /**
+         * A user changed.
+         */
+        USER('u'),
+
+        /**
+         * Everything may have changed.
+         */
+        ALL('*');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+    }
+
+    public static Invalidation booking(Long resourceId, LocalDate date) {
+        return new Invalidation(Kind.BOOKING, resourceId, date);
+    }
+
+    public static Invalidation resource(Long resourceId) {
+        return new Invalidation(Kind.RESOURCE, resourceId, null);
+    }
+
+    public static Invalidation user(Long userId) {
+        return new Invalidation(Kind.USER, userId, null);
+    }
+
+    public static Invalidation all() {
+        return new Invalidation(Kind.ALL, null, null);
+    }
+
+    /**
+     * Encodes the message as a token without spaces.
+     *
+     * @return the encoded message
+     */
+    public String encode() {
+        return switch (kind) {
+            case BOOKING -> kind.code + ":" + id + ":" + date;
+            case RESOURCE, USER -> kind.code + ":" + id;
+            case ALL -> String.valueOf(kind.code);
+        };
+    }
+
+    /**
+     * Decodes a message encoded by {@link #encode()}.
+     *
+     * @param token the encoded message
+     * @return the message
+     * @throws IllegalArgumentException if the token is not a valid message
+     */
+    public static Invalidation decode(String token) {
+        if (token.equals("*"))
+            return all();
+
+        String[] parts = token.split(":");
+        try {
+            return switch (parts[0]) {
+                case "b" -> booking(Long.parseLong(parts[1]), LocalDate.parse(parts[2]));
+                case "r" -> resource(Long.parseLong(parts[1]));
+                case "u" -> user(Long.parseLong(parts[1]));
+                default -> throw new IllegalArgumentException("Unknown invalidation message: " + token);
+            };
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Malformed invalidation message: " + token, ex);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package ru.y_lab.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.y_lab.cache.AvailabilityCache;
+import ru.y_lab.coalesce.QueryCoalescer;
+import ru.y_lab.reminder.ReminderScheduler;
+import ru.y_lab.routing.ReplicaRouter;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the invalidation messages of the other nodes to the in-process caches of this node.
+ *
+ * <p>A dedicated thread holds its own connection outside of the pool and {@code LISTEN}s on the invalidation
+ * channel. Notifications that arrive within {@code invalidation.batch-window-ms} of each other are applied as one
+ * batch, with duplicate messages coalesced; a batch larger than {@code invalidation.max-batch-size} flushes the
+ * caches instead. Notifications sent while the connection is down are lost, so after every (re)connect the caches
+ * are flushed entirely. As for local changes, the query coalescer is invalidated before the availability cache,
+ * and the change is first recorded as a write with the {@link ReplicaRouter}, so that the caches are not refilled
+ * from a replica that has not replayed it yet. Booking changes are also handed to the {@link ReminderScheduler}, which
+ * reloads the affected bookings.
+ */
+@Slf4j
+@Component
+public class InvalidationListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private final InvalidationPublisher publisher;
+    private final AvailabilityCache availabilityCache;
+    private final QueryCoalescer queryCoalescer;
+    private final ReplicaRouter replicaRouter;
+    private final ReminderScheduler reminderScheduler;
+
+    private final boolean enabled;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final long batchWindowMs;
+    private final int maxBatchSize;
+    private final long reconnectDelayMs;
+
+    private final Counter receivedCounter;
+    private final Counter flushCounter;
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread thread;
+
+    public InvalidationListener(InvalidationPublisher publisher,
+                                AvailabilityCache availabilityCache,
+                                QueryCoalescer queryCoalescer,
+                                ReplicaRouter replicaRouter,
+                                ReminderScheduler reminderScheduler,
+                                MeterRegistry meterRegistry,
+                                @Value("${invalidation.enabled:true}") boolean enabled,
+                                @Value("${spring.datasource.url}") String url,
+                                @Value("${spring.datasource.username}") String username,
+                                @Value("${spring.datasource.password}") String password,
+                                @Value("${invalidation.channel:coworking_invalidation}") String channel,
+                                @Value("${invalidation.batch-window-ms:20}") long batchWindowMs,
+                                @Value("${invalidation.max-batch-size:1000}") int maxBatchSize,
+                                @Value("${invalidation.reconnect-delay-ms:1000}") long reconnectDelayMs) {
+        if (!channel.matches("[a-z_][a-z0-9_]*"))
+            throw new IllegalArgumentException("Invalid invalidation channel name: " + channel);
+        this.publisher = publisher;
+        this.availabilityCache = availabilityCache;
+        this.queryCoalescer = queryCoalescer;
+        this.replicaRouter = replicaRouter;
+        this.reminderScheduler = reminderScheduler;
+        this.enabled = enabled;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.batchWindowMs = batchWindowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.receivedCounter = Counter.builder("invalidation.received")
+                .description("Invalidation messages received from the other nodes")
+                .register(meterRegistry);
+        this.flushCounter = Counter.builder("invalidation.flushes")
+                .description("Full cache flushes after reconnects and oversized batches")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled)
+            return;
+        running = true;
+        thread = new Thread(this::run, "invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Checks whether the listener is connected and has flushed the caches after connecting.
+     *
+     * @return true if invalidations of the other nodes are being applied
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for cache invalidations on channel {}", channel);
+                flushAll();
+                listening = true;
+                listen(connection);
+            } catch (SQLException | RuntimeException ex) {
+                listening = false;
+                if (!running)
+                    return;
+                log.warn("Invalidation listener connection lost, reconnecting in {} ms: {}", reconnectDelayMs, ex.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        properties.setProperty("ApplicationName", "invalidation-listener");
+        return DriverManager.getConnection(url, properties);
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+            if (notifications == null || notifications.length == 0) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                continue;
+            }
+
+            Set<String> batch = new LinkedHashSet<>();
+            collect(notifications, batch);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWindowMs);
+            long remainingMs;
+            while (batch.size() <= maxBatchSize
+                    && (remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+                PGNotification[] more = pgConnection.getNotifications((int) remainingMs);
+                if (more == null || more.length == 0)
+                    break;
+                collect(more, batch);
+            }
+            apply(batch);
+        }
+    }
+
+    private void collect(PGNotification[] notifications, Set<String> batch) {
+        for (PGNotification notification : notifications) {
+            String[] tokens = notification.getParameter().split(" ");
+            if (tokens[0].equals(publisher.getNodeId()))
+                continue;
+            for (int i = 1; i < tokens.length; i++)
+                batch.add(tokens[i]);
+        }
+    }
+
+    private void apply(Set<String> batch) {
+        if (batch.isEmpty())
+            return;
+        receivedCounter.increment(batch.size());
+        replicaRouter.recordWrite();
+        if (batch.size() > maxBatchSize) {
+            flushAll();
+            return;
+        }
+
+        boolean ownersChanged = false;
+        for (String token : batch) {
+            Invalidation invalidation;
+            try {
+                invalidation = Invalidation.decode(token);
+            } catch (IllegalArgumentException ex) {
+                log.warn("Ignoring invalidation message: {}", ex.getMessage());
+                continue;
+            }
+            switch (invalidation.kind()) {
+                case BOOKING -> {
+                    queryCoalescer.invalidateResource(invalidation.id());
+                    availabilityCache.invalidate(invalidation.id(), invalidation.date());
+                    reminderScheduler.markStale(invalidation.id(), invalidation.date());
+                }
+                case RESOURCE -> {
+                    queryCoalescer.invalidateAll();
+                    availabilityCache.invalidateResource(invalidation.id());
+                }
+                case USER -> ownersChanged = true;
+                case ALL -> {
+                    flushAll();
+                    return;
+                }
+            }
+        }
+        // user names are embedded in the coalesced listings as the owners of resources and bookings
+        if (ownersChanged)
+            queryCoalescer.invalidateAll();
+    }
+
+    private void flushAll() {
+        replicaRouter.recordWrite();
+        queryCoalescer.invalidateAll();
+        availabilityCache.invalidateAll();
+        reminderScheduler.markAllStale();
+        flushCounter.increment();
+    }
+}
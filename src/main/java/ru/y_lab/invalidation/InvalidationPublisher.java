@@ -0,0 +1,135 @@
+package ru.y_lab.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.y_lab.event.BookingChangedEvent;
+import ru.y_lab.event.ResourceChangedEvent;
+import ru.y_lab.event.SlotHoldChangedEvent;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Publishes cache invalidation messages to the other nodes with {@code pg_notify}.
+ *
+ * <p>Messages published inside a transaction are collected, de-duplicated and sent just before the commit on the
+ * transaction's own connection. PostgreSQL delivers notifications only when the sending transaction commits, so
+ * the other nodes see a message exactly when the change becomes visible and never for a rolled back change.
+ * Outside a transaction a message is sent immediately. Each notification carries the ID of the sending node,
+ * which lets {@link InvalidationListener} skip the changes its own node has already applied.
+ */
+@Component
+public class InvalidationPublisher {
+
+    /**
+     * Notification payloads are limited to 8000 bytes by PostgreSQL; the messages are ASCII.
+     */
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final Counter publishedCounter;
+
+    public InvalidationPublisher(JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${invalidation.channel:coworking_invalidation}") String channel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.channel = channel;
+        this.publishedCounter = Counter.builder("invalidation.published")
+                .description("Invalidation messages sent to the other nodes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes the start dates touched by a booking change.
+     *
+     * @param event the booking change
+     */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        publish(Invalidation.booking(event.resourceId(), event.startTime().toLocalDate()));
+        if (event.previousStartTime() != null)
+            publish(Invalidation.booking(event.resourceId(), event.previousStartTime().toLocalDate()));
+    }
+
+    /**
+     * Publishes a resource change.
+     *
+     * @param event the resource change
+     */
+    @EventListener
+    public void onResourceChanged(ResourceChangedEvent event) {
+        publish(Invalidation.resource(event.resourceId()));
+    }
+
+    /**
+     * Publishes the start date of a hold that was placed or removed.
+     *
+     * @param event the hold change
+     */
+    @EventListener
+    public void onSlotHoldChanged(SlotHoldChangedEvent event) {
+        publish(Invalidation.booking(event.resourceId(), event.startTime().toLocalDate()));
+    }
+
+    /**
+     * Publishes an invalidation message, at the commit of the current transaction if there is one.
+     *
+     * @param invalidation the message
+     */
+    public void publish(Invalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(Set.of(invalidation.encode()));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> messages = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, messages);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    send(messages);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationPublisher.this);
+                }
+            });
+            pending = messages;
+        }
+        pending.add(invalidation.encode());
+    }
+
+    private void send(Set<String> messages) {
+        StringBuilder payload = new StringBuilder(nodeId);
+        for (String message : messages) {
+            if (payload.length() + 1 + message.length() > MAX_PAYLOAD_BYTES) {
+                notify(payload.toString());
+                payload.setLength(0);
+                payload.append(nodeId);
+            }
+            payload.append(' ').append(message);
+        }
+        notify(payload.toString());
+        publishedCounter.increment(messages.size());
+    }
+
+    private void notify(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, channel, payload);
+    }
+}
@@ -4,7 +4,9 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import ru.y_lab.dto.BookingDTO;
+import ru.y_lab.dto.BookingEventDTO;
 import ru.y_lab.dto.BookingWithOwnerResourceDTO;
+import ru.y_lab.event.BookingChangedEvent;
 import ru.y_lab.model.Booking;
 import ru.y_lab.model.Resource;
 import ru.y_lab.model.User;
@@ -27,7 +29,8 @@ public interface BookingMapper {
             @Mapping(source = "resourceId", target = "resourceId"),
             @Mapping(source = "id", target = "bookingId"),
             @Mapping(source = "startTime", target = "startTime"),
-            @Mapping(source = "endTime", target = "endTime")
+            @Mapping(source = "endTime", target = "endTime"),
+            @Mapping(source = "version", target = "version")
     })
     BookingDTO toDTO(Booking booking);
 
@@ -49,7 +52,22 @@ public interface BookingMapper {
             @Mapping(source = "resource.type", target = "resourceType"),
             @Mapping(target = "date", expression = "java(booking.getStartTime().toLocalDate().toString())"),
             @Mapping(target = "startTime", expression = "java(booking.getStartTime().toLocalTime().toString())"),
-            @Mapping(target = "endTime", expression = "java(booking.getEndTime().toLocalTime().toString())")
+            @Mapping(target = "endTime", expression = "java(booking.getEndTime().toLocalTime().toString())"),
+            @Mapping(source = "booking.version", target = "version")
     })
     BookingWithOwnerResourceDTO toBookingWithOwnerResourceDTO(Booking booking, Resource resource, User user);
+
+    /**
+     * Converts a BookingChangedEvent to a BookingEventDTO.
+     *
+     * @param event the BookingChangedEvent to convert
+     * @return the converted BookingEventDTO
+     */
+    @Mappings({
+            @Mapping(source = "type", target = "type"),
+            @Mapping(source = "userId", target = "ownerId"),
+            @Mapping(source = "startTime", target = "startTime"),
+            @Mapping(source = "endTime", target = "endTime")
+    })
+    BookingEventDTO toEventDTO(BookingChangedEvent event);
 }
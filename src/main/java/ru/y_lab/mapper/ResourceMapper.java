@@ -26,7 +26,8 @@ public interface ResourceMapper {
             @Mapping(source = "userId", target = "ownerId"),
             @Mapping(source = "id", target = "resourceId"),
             @Mapping(source = "name", target = "resourceName"),
-            @Mapping(source = "type", target = "resourceType")
+            @Mapping(source = "type", target = "resourceType"),
+            @Mapping(source = "version", target = "version")
     })
     ResourceDTO toDTO(Resource resource);
 
@@ -42,7 +43,8 @@ public interface ResourceMapper {
             @Mapping(source = "resource.name", target = "resourceName"),
             @Mapping(source = "resource.type", target = "resourceType"),
             @Mapping(source = "user.id", target = "ownerId"),
-            @Mapping(source = "user.username", target = "ownerName")
+            @Mapping(source = "user.username", target = "ownerName"),
+            @Mapping(source = "resource.version", target = "version")
     })
     ResourceWithOwnerDTO toResourceWithOwnerDTO(Resource resource, User user);
 }
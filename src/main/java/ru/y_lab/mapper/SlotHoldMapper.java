@@ -0,0 +1,31 @@
+package ru.y_lab.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Mappings;
+import ru.y_lab.dto.SlotHoldDTO;
+import ru.y_lab.model.SlotHold;
+
+/**
+ * Mapper interface for converting between SlotHold entities and DTOs.
+ * This interface uses MapStruct for automatic mapping.
+ */
+@Mapper(componentModel = "spring")
+public interface SlotHoldMapper {
+
+    /**
+     * Converts a SlotHold entity to a SlotHoldDTO.
+     *
+     * @param hold the SlotHold entity to convert
+     * @return the converted SlotHoldDTO
+     */
+    @Mappings({
+            @Mapping(source = "id", target = "holdId"),
+            @Mapping(source = "userId", target = "ownerId"),
+            @Mapping(source = "resourceId", target = "resourceId"),
+            @Mapping(source = "startTime", target = "startTime"),
+            @Mapping(source = "endTime", target = "endTime"),
+            @Mapping(source = "expiresAt", target = "expiresAt")
+    })
+    SlotHoldDTO toDTO(SlotHold hold);
+}
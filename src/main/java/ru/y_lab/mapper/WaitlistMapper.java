@@ -0,0 +1,31 @@
+package ru.y_lab.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Mappings;
+import ru.y_lab.dto.WaitlistEntryDTO;
+import ru.y_lab.model.WaitlistEntry;
+
+/**
+ * Mapper interface for converting between WaitlistEntry entities and DTOs.
+ * This interface uses MapStruct for automatic mapping.
+ */
+@Mapper(componentModel = "spring")
+public interface WaitlistMapper {
+
+    /**
+     * Converts a WaitlistEntry entity to a WaitlistEntryDTO.
+     *
+     * @param entry the WaitlistEntry entity to convert
+     * @return the converted WaitlistEntryDTO
+     */
+    @Mappings({
+            @Mapping(source = "id", target = "entryId"),
+            @Mapping(source = "userId", target = "ownerId"),
+            @Mapping(source = "resourceId", target = "resourceId"),
+            @Mapping(source = "startTime", target = "startTime"),
+            @Mapping(source = "endTime", target = "endTime"),
+            @Mapping(source = "createdAt", target = "createdAt")
+    })
+    WaitlistEntryDTO toDTO(WaitlistEntry entry);
+}
@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 
 /**
  * Represents a booking with details such as ID, user ID, resource ID, start time, and end time.
+ * The version is checked and incremented by every update, so concurrent updates cannot overwrite each other.
  */
 @Data
 @AllArgsConstructor
@@ -36,6 +37,10 @@ public class Booking {
     @Column(name = "end_time", nullable = false)
     private LocalDateTime endTime;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id", insertable = false, updatable = false)
     private User user;
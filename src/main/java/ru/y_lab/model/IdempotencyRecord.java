@@ -0,0 +1,48 @@
+package ru.y_lab.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents the stored outcome of a create request sent with an {@code Idempotency-Key}.
+ * The key is scoped to the user and the operation; the request hash detects a key reused for another request.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "idempotency_keys", schema = "coworking_service")
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_keys_seq")
+    @SequenceGenerator(name = "idempotency_keys_seq", sequenceName = "coworking_service.idempotency_keys_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "operation", nullable = false)
+    private String operation;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 /**
  * Represents a resource with details such as ID, user ID, resourceName, and resourceType.
+ * The version is checked and incremented by every update, so concurrent updates cannot overwrite each other.
  */
 @Data
 @AllArgsConstructor
@@ -31,6 +32,10 @@ public class Resource {
     @Column(name = "type", nullable = false)
     private String type;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id", insertable = false, updatable = false)
     private User user;
@@ -0,0 +1,49 @@
+package ru.y_lab.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Represents the booked minutes and the number of bookings of a resource on a single day.
+ * Rows are maintained incrementally by the booking write path.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@IdClass(ResourceDailyOccupancy.Key.class)
+@Table(name = "resource_daily_occupancy", schema = "coworking_service")
+public class ResourceDailyOccupancy {
+
+    @Id
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    @Id
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "booked_minutes", nullable = false)
+    private Long bookedMinutes;
+
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount;
+
+    /**
+     * Composite primary key of {@link ResourceDailyOccupancy}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long resourceId;
+        private LocalDate day;
+    }
+}
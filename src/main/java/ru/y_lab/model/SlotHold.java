@@ -0,0 +1,45 @@
+package ru.y_lab.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a temporary reservation of a time period of a resource. Until it expires, the period cannot be
+ * booked by anyone but the owner of the hold.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "slot_holds", schema = "coworking_service")
+public class SlotHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "slot_holds_seq")
+    @SequenceGenerator(name = "slot_holds_seq", sequenceName = "coworking_service.slot_holds_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,29 @@
+package ru.y_lab.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents the token watermark of a user: every token of the user issued before
+ * {@code revokedBefore} is revoked.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "token_revocations", schema = "coworking_service")
+public class TokenRevocation {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "revoked_before", nullable = false)
+    private LocalDateTime revokedBefore;
+}
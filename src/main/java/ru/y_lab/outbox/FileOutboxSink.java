@@ -0,0 +1,60 @@
+package ru.y_lab.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.y_lab.model.OutboxEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Outbox sink that appends events to a local file, one JSON object per line.
+ * The file is forced to disk before the batch is acknowledged.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(@Value("${outbox.file.path:outbox-events.jsonl}") String path,
+                          ObjectMapper objectMapper) {
+        this.file = Path.of(path);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent event : events) {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("id", event.getId());
+            node.put("aggregateType", event.getAggregateType());
+            node.put("aggregateId", event.getAggregateId());
+            node.put("eventType", event.getEventType());
+            node.put("createdAt", event.getCreatedAt().toString());
+            node.set("payload", objectMapper.readTree(event.getPayload()));
+            lines.append(objectMapper.writeValueAsString(node)).append('\n');
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        }
+    }
+}
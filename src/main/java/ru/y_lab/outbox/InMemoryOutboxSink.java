@@ -0,0 +1,45 @@
+package ru.y_lab.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.y_lab.model.OutboxEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Outbox sink that keeps the most recently published events in memory.
+ * Intended for local runs and tests; this is the default sink.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+    private final int capacity;
+
+    public InMemoryOutboxSink(@Value("${outbox.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            if (events.size() == capacity)
+                events.removeFirst();
+            events.addLast(event);
+        }
+    }
+
+    /**
+     * Returns the retained events, oldest first.
+     *
+     * @return a copy of the retained events
+     */
+    public synchronized List<OutboxEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.y_lab.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.y_lab.model.OutboxEvent;
+import ru.y_lab.repo.OutboxRepo;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Background worker that moves events from the outbox table to the configured {@link OutboxSink}.
+ *
+ * <p>Each batch is locked with {@code FOR UPDATE SKIP LOCKED}, published, and deleted in one transaction,
+ * so several application instances can relay concurrently and a failed publish is retried on the next run.
+ * Exposes {@code outbox.relay.published}, {@code outbox.relay.failures}, {@code outbox.relay.batch.size}
+ * and {@code outbox.relay.lag} metrics.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxRepo outboxRepo;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer lagTimer;
+
+    public OutboxRelay(OutboxRepo outboxRepo,
+                       OutboxSink sink,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.relay.max-batches-per-run:50}") int maxBatchesPerRun) {
+        this.outboxRepo = outboxRepo;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.publishedCounter = Counter.builder("outbox.relay.published")
+                .description("Outbox events published to the sink")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("outbox.relay.failures")
+                .description("Outbox batches that failed to publish")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Number of events per relayed batch")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.relay.lag")
+                .description("Time between writing an event to the outbox and publishing it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays outbox batches until the outbox is drained or the per-run limit is reached.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int relayed;
+            try {
+                relayed = relayBatch();
+            } catch (RuntimeException ex) {
+                failureCounter.increment();
+                log.warn("Outbox relay failed, the batch will be retried: {}", ex.getMessage());
+                return;
+            }
+            if (relayed < batchSize)
+                return;
+        }
+    }
+
+    /**
+     * Publishes and removes one batch of outbox events.
+     *
+     * @return the number of relayed events
+     */
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxRepo.lockNextBatch(batchSize);
+            if (batch.isEmpty())
+                return 0;
+
+            try {
+                sink.publish(batch);
+            } catch (Exception ex) {
+                throw new IllegalStateException("Outbox sink rejected the batch", ex);
+            }
+            outboxRepo.deleteAllInBatch(batch);
+
+            LocalDateTime now = LocalDateTime.now();
+            for (OutboxEvent event : batch)
+                lagTimer.record(Duration.between(event.getCreatedAt(), now));
+            publishedCounter.increment(batch.size());
+            batchSizeSummary.record(batch.size());
+            return batch.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+}
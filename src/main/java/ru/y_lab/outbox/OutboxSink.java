@@ -0,0 +1,21 @@
+package ru.y_lab.outbox;
+
+import ru.y_lab.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination the {@link OutboxRelay} publishes outbox events to.
+ * A batch is removed from the outbox only after {@link #publish(List)} returns normally,
+ * so implementations must either make the batch durable or throw.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publishes a batch of events in outbox order.
+     *
+     * @param events the events to publish
+     * @throws Exception if the batch could not be published and has to be retried
+     */
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,71 @@
+package ru.y_lab.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.y_lab.dto.ResourceDTO;
+import ru.y_lab.event.BookingChangedEvent;
+import ru.y_lab.event.ResourceChangedEvent;
+import ru.y_lab.mapper.BookingMapper;
+import ru.y_lab.model.OutboxEvent;
+import ru.y_lab.repo.OutboxRepo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appends booking and resource changes to the outbox table.
+ * The listeners are synchronous, so they run inside the transaction of the service method
+ * that published the event: the outbox row commits or rolls back together with the entity change.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    static final String BOOKING_AGGREGATE = "BOOKING";
+    static final String RESOURCE_AGGREGATE = "RESOURCE";
+
+    private final OutboxRepo outboxRepo;
+    private final BookingMapper bookingMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes a booking change to the outbox.
+     *
+     * @param event the booking change
+     */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        append(BOOKING_AGGREGATE, event.bookingId(), BOOKING_AGGREGATE + "_" + event.type().name(),
+                bookingMapper.toEventDTO(event));
+    }
+
+    /**
+     * Writes a resource change to the outbox.
+     *
+     * @param event the resource change
+     */
+    @EventListener
+    public void onResourceChanged(ResourceChangedEvent event) {
+        append(RESOURCE_AGGREGATE, event.resourceId(), RESOURCE_AGGREGATE + "_" + event.type().name(),
+                new ResourceDTO(event.resourceId(), event.ownerId(), event.name(), event.resourceType(), event.version()));
+    }
+
+    private void append(String aggregateType, Long aggregateId, String eventType, Object body) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload for " + eventType, e);
+        }
+
+        outboxRepo.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,85 @@
+package ru.y_lab.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of {@code coworking_service.bookings}.
+ *
+ * <p>On startup and then daily it pre-creates the partitions for the current month and the configured
+ * number of months ahead, so new bookings never land in the default partition. Partitions whose whole
+ * month is older than the retention period are detached; the detached tables keep their data and can be
+ * archived or dropped separately. Retention is disabled when {@code bookings.partitions.retention-months} is 0.
+ */
+@Slf4j
+@Component
+public class BookingPartitionManager {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("bookings_p(\\d{4})_(\\d{2})");
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            JOIN pg_namespace n ON n.oid = p.relnamespace
+            WHERE n.nspname = 'coworking_service'
+              AND p.relname = 'bookings'""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public BookingPartitionManager(JdbcTemplate jdbcTemplate,
+                                   @Value("${bookings.partitions.months-ahead:3}") int monthsAhead,
+                                   @Value("${bookings.partitions.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Creates missing future partitions and detaches expired ones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${bookings.partitions.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        createPartitions(currentMonth);
+        if (retentionMonths > 0)
+            detachPartitionsBefore(currentMonth.minusMonths(retentionMonths));
+    }
+
+    private void createPartitions(YearMonth currentMonth) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate monthStart = currentMonth.plusMonths(i).atDay(1);
+            jdbcTemplate.execute("SELECT coworking_service.create_bookings_partition(DATE '" + monthStart + "')");
+        }
+    }
+
+    private void detachPartitionsBefore(YearMonth firstRetainedMonth) {
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches())
+                continue;
+
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(firstRetainedMonth)) {
+                jdbcTemplate.execute("ALTER TABLE coworking_service.bookings DETACH PARTITION coworking_service." + partition);
+                log.info("Detached bookings partition {} (older than {})", partition, firstRetainedMonth);
+            }
+        }
+    }
+}
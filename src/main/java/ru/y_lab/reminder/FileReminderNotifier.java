@@ -0,0 +1,38 @@
+package ru.y_lab.reminder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reminder notifier that appends reminders to a local file, one JSON object per line.
+ */
+@Component
+@ConditionalOnProperty(name = "reminders.notifier", havingValue = "file")
+public class FileReminderNotifier implements ReminderNotifier {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileReminderNotifier(@Value("${reminders.file.path:reminders.jsonl}") String path,
+                                ObjectMapper objectMapper) {
+        this.file = Path.of(path);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void send(Reminder reminder) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        Files.writeString(file, objectMapper.writeValueAsString(reminder) + '\n', StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.y_lab.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reminder notifier that writes reminders to the application log.
+ * Intended for local development.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reminders.notifier", havingValue = "log", matchIfMissing = true)
+public class LogReminderNotifier implements ReminderNotifier {
+
+    @Override
+    public void send(Reminder reminder) {
+        log.info("{} for user {}: booking {} of resource {} from {} to {}", reminder.type().getDisplayName(),
+                reminder.userId(), reminder.bookingId(), reminder.resourceId(), reminder.startTime(), reminder.endTime());
+    }
+}
@@ -0,0 +1,25 @@
+package ru.y_lab.reminder;
+
+import ru.y_lab.enums.ReminderType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification due to the owner of a booking.
+ *
+ * @param type the kind of reminder
+ * @param bookingId the unique identifier of the booking
+ * @param userId the unique identifier of the user who owns the booking
+ * @param resourceId the unique identifier of the booked resource
+ * @param startTime the start time of the booking
+ * @param endTime the end time of the booking
+ * @param dueAt the time the reminder is due
+ */
+public record Reminder(ReminderType type,
+                       Long bookingId,
+                       Long userId,
+                       Long resourceId,
+                       LocalDateTime startTime,
+                       LocalDateTime endTime,
+                       LocalDateTime dueAt) {
+}
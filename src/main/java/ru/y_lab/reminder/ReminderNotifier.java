@@ -0,0 +1,16 @@
+package ru.y_lab.reminder;
+
+/**
+ * Channel the {@link ReminderScheduler} delivers due reminders through.
+ * Reminders are delivered at most once; a reminder whose delivery fails is dropped.
+ */
+public interface ReminderNotifier {
+
+    /**
+     * Delivers a reminder to the owner of the booking.
+     *
+     * @param reminder the due reminder
+     * @throws Exception if the reminder could not be delivered
+     */
+    void send(Reminder reminder) throws Exception;
+}
@@ -0,0 +1,417 @@
+package ru.y_lab.reminder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.y_lab.enums.BookingEventType;
+import ru.y_lab.enums.ReminderType;
+import ru.y_lab.event.BookingChangedEvent;
+import ru.y_lab.model.Booking;
+import ru.y_lab.repo.BookingRepo;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends a reminder {@code reminders.lead-minutes} before a booking starts and another one when it ends.
+ *
+ * <p>Only the reminders of the bookings starting within the next {@code reminders.lead-minutes} plus
+ * {@code reminders.window-minutes} are kept in memory, in a queue ordered by due time. Every
+ * {@code reminders.refresh-interval-ms} the window is moved forward with a range query on {@code start_time},
+ * so each booking is read once instead of the whole table being polled. On startup the bookings that started up
+ * to {@code bookings.max-duration-hours} ago are loaded as well, for their end reminders. A dedicated thread
+ * sleeps until the head of the queue is due and hands it to the {@link ReminderNotifier}; a reminder whose
+ * booking has been deleted or moved in the meantime is dropped.
+ *
+ * <p>Bookings changed on this node are rescheduled from their {@link BookingChangedEvent}. Changes made on other
+ * nodes arrive as invalidations of the affected resource and day, see {@link #markStale}, and are reloaded on
+ * the next refresh. A load only replaces the reminders of bookings that did not change while it was running.
+ * Every enabled node sends reminders for the bookings of all nodes, so the scheduler is off by default and is
+ * switched on with {@code reminders.enabled=true} on exactly one node.
+ * Exposes the {@code reminders.queue.depth} gauge, the {@code reminders.firing.latency} timer (how late a
+ * reminder was handed to the notifier) and the {@code reminders.sent}, {@code reminders.dropped} and
+ * {@code reminders.failures} counters.
+ */
+@Slf4j
+@Component
+public class ReminderScheduler implements SmartLifecycle {
+
+    private final BookingRepo bookingRepo;
+    private final ReminderNotifier notifier;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final boolean enabled;
+    private final Duration lead;
+    private final Duration window;
+    private final Duration maxBookingLength;
+
+    private final Timer firingLatencyTimer;
+    private final Map<ReminderType, Counter> sentCounters = new EnumMap<>(ReminderType.class);
+    private final Counter droppedCounter;
+    private final Counter failureCounter;
+
+    private final Object lock = new Object();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(Entry::dueMillis));
+    private final Map<Long, List<Entry>> scheduled = new HashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private LocalDateTime loadedUntil;
+    private Set<Long> changedDuringLoad;
+
+    private final Set<StaleDay> staleDays = ConcurrentHashMap.newKeySet();
+    private volatile boolean reloadRequested = true;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ReminderScheduler(BookingRepo bookingRepo,
+                             ReminderNotifier notifier,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${reminders.enabled:false}") boolean enabled,
+                             @Value("${reminders.lead-minutes:15}") long leadMinutes,
+                             @Value("${reminders.window-minutes:60}") long windowMinutes,
+                             @Value("${bookings.max-duration-hours:24}") long maxBookingHours) {
+        this.bookingRepo = bookingRepo;
+        this.notifier = notifier;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.lead = Duration.ofMinutes(leadMinutes);
+        this.window = Duration.ofMinutes(windowMinutes);
+        this.maxBookingLength = Duration.ofHours(maxBookingHours);
+        Gauge.builder("reminders.queue.depth", depth, AtomicInteger::get)
+                .description("Reminders waiting to be sent")
+                .register(meterRegistry);
+        this.firingLatencyTimer = Timer.builder("reminders.firing.latency")
+                .description("Time between a reminder becoming due and handing it to the notifier")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        for (ReminderType type : ReminderType.values()) {
+            sentCounters.put(type, Counter.builder("reminders.sent")
+                    .description("Reminders delivered to the notifier")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.droppedCounter = Counter.builder("reminders.dropped")
+                .description("Due reminders dropped because their booking was deleted or moved")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("reminders.failures")
+                .description("Reminders the notifier failed to deliver")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled)
+            return;
+        running = true;
+        thread = new Thread(this::run, "booking-reminders");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Requests a reload of the bookings of a resource starting on a day, after they were changed on another node.
+     *
+     * @param resourceId the ID of the resource
+     * @param date the start date of the changed bookings
+     */
+    public void markStale(Long resourceId, LocalDate date) {
+        if (enabled)
+            staleDays.add(new StaleDay(resourceId, date));
+    }
+
+    /**
+     * Requests a reload of the whole window, after changes of other nodes may have been missed.
+     */
+    public void markAllStale() {
+        reloadRequested = true;
+    }
+
+    /**
+     * Reschedules the reminders of a committed booking change.
+     *
+     * @param event the booking change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!enabled)
+            return;
+        synchronized (lock) {
+            if (changedDuringLoad != null)
+                changedDuringLoad.add(event.bookingId());
+            if (event.type() != BookingEventType.DELETED && loadedUntil != null && event.startTime().isBefore(loadedUntil))
+                schedule(event.bookingId(), event.userId(), event.resourceId(), event.startTime(), event.endTime());
+            else
+                cancel(event.bookingId());
+        }
+    }
+
+    /**
+     * Reloads the stale parts of the window and moves the window forward.
+     */
+    @Scheduled(fixedDelayString = "${reminders.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (!running)
+            return;
+        try {
+            if (reloadRequested) {
+                reloadRequested = false;
+                staleDays.clear();
+                reload();
+                return;
+            }
+            Iterator<StaleDay> iterator = staleDays.iterator();
+            while (iterator.hasNext()) {
+                StaleDay day = iterator.next();
+                iterator.remove();
+                reload(day);
+            }
+            extend();
+        } catch (RuntimeException ex) {
+            reloadRequested = true;
+            synchronized (lock) {
+                changedDuringLoad = null;
+            }
+            log.warn("Booking reminders could not be loaded, retrying: {}", ex.getMessage());
+        }
+    }
+
+    private void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime to = now.plus(lead).plus(window);
+        beginLoad(to);
+        List<Booking> bookings = query(() -> bookingRepo.findStartingBetween(now.minus(maxBookingLength), to));
+        synchronized (lock) {
+            Set<Long> changed = changedDuringLoad;
+            new ArrayList<>(scheduled.keySet()).stream()
+                    .filter(bookingId -> !changed.contains(bookingId))
+                    .forEach(this::cancel);
+            scheduleLoaded(bookings, to);
+        }
+        log.info("Loaded the reminders of {} bookings starting until {}", bookings.size(), to);
+    }
+
+    private void reload(StaleDay day) {
+        LocalDateTime dayStart = day.date().atStartOfDay();
+        LocalDateTime to;
+        synchronized (lock) {
+            to = loadedUntil;
+        }
+        if (!dayStart.isBefore(to) || !dayStart.plusDays(1).isAfter(LocalDateTime.now().minus(maxBookingLength)))
+            return;
+        beginLoad(to);
+        List<Booking> bookings = query(() -> bookingRepo.findByResourceIdStartingBetween(day.resourceId(), dayStart, dayStart.plusDays(1)));
+        synchronized (lock) {
+            Set<Long> changed = changedDuringLoad;
+            List<Long> bookingIds = new ArrayList<>();
+            scheduled.forEach((bookingId, entries) -> {
+                Reminder reminder = entries.get(0).reminder();
+                if (reminder.resourceId().equals(day.resourceId()) && reminder.startTime().toLocalDate().equals(day.date())
+                        && !changed.contains(bookingId))
+                    bookingIds.add(bookingId);
+            });
+            bookingIds.forEach(this::cancel);
+            scheduleLoaded(bookings, to);
+        }
+    }
+
+    private void extend() {
+        LocalDateTime from;
+        LocalDateTime to = LocalDateTime.now().plus(lead).plus(window);
+        synchronized (lock) {
+            from = loadedUntil;
+        }
+        if (!to.isAfter(from))
+            return;
+        beginLoad(to);
+        List<Booking> bookings = query(() -> bookingRepo.findStartingBetween(from, to));
+        synchronized (lock) {
+            scheduleLoaded(bookings, to);
+        }
+    }
+
+    private void beginLoad(LocalDateTime to) {
+        synchronized (lock) {
+            loadedUntil = to;
+            changedDuringLoad = new HashSet<>();
+        }
+    }
+
+    private List<Booking> query(Supplier<List<Booking>> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    /**
+     * Schedules the loaded bookings that did not change while they were loaded and ends the load.
+     */
+    private void scheduleLoaded(List<Booking> bookings, LocalDateTime to) {
+        for (Booking booking : bookings) {
+            if (!changedDuringLoad.contains(booking.getId()) && booking.getStartTime().isBefore(to))
+                schedule(booking.getId(), booking.getUserId(), booking.getResourceId(), booking.getStartTime(), booking.getEndTime());
+        }
+        changedDuringLoad = null;
+    }
+
+    /**
+     * Replaces the reminders of a booking. Reminders that are already overdue, because the booking was loaded
+     * or created late, are sent right away, unless the booking has already started or ended respectively.
+     */
+    private void schedule(Long bookingId, Long userId, Long resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        cancel(bookingId);
+        LocalDateTime now = LocalDateTime.now();
+        long nowMillis = System.currentTimeMillis();
+        List<Entry> entries = new ArrayList<>(2);
+        if (startTime.isAfter(now))
+            entries.add(new Entry(new Reminder(ReminderType.STARTING_SOON, bookingId, userId, resourceId,
+                    startTime, endTime, startTime.minus(lead)), nowMillis));
+        if (endTime.isAfter(now))
+            entries.add(new Entry(new Reminder(ReminderType.ENDED, bookingId, userId, resourceId,
+                    startTime, endTime, endTime), nowMillis));
+        if (entries.isEmpty())
+            return;
+
+        Entry head = queue.peek();
+        scheduled.put(bookingId, entries);
+        queue.addAll(entries);
+        depth.addAndGet(entries.size());
+        if (queue.peek() != head)
+            lock.notifyAll();
+    }
+
+    private void cancel(Long bookingId) {
+        List<Entry> entries = scheduled.remove(bookingId);
+        if (entries == null)
+            return;
+        for (Entry entry : entries) {
+            entry.cancelled = true;
+            depth.decrementAndGet();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            Entry entry;
+            try {
+                entry = takeDue();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            firingLatencyTimer.record(Math.max(0, System.currentTimeMillis() - entry.dueMillis()), TimeUnit.MILLISECONDS);
+            fire(entry.reminder());
+        }
+    }
+
+    private Entry takeDue() throws InterruptedException {
+        synchronized (lock) {
+            while (true) {
+                Entry entry = queue.peek();
+                if (entry == null) {
+                    lock.wait();
+                    continue;
+                }
+                if (entry.cancelled) {
+                    queue.poll();
+                    continue;
+                }
+                long delay = entry.dueMillis() - System.currentTimeMillis();
+                if (delay > 0) {
+                    lock.wait(delay);
+                    continue;
+                }
+                queue.poll();
+                List<Entry> entries = scheduled.get(entry.reminder().bookingId());
+                entries.remove(entry);
+                if (entries.isEmpty())
+                    scheduled.remove(entry.reminder().bookingId());
+                depth.decrementAndGet();
+                return entry;
+            }
+        }
+    }
+
+    private void fire(Reminder reminder) {
+        try {
+            if (!bookingRepo.existsWithPeriod(reminder.bookingId(), reminder.startTime(), reminder.endTime())) {
+                droppedCounter.increment();
+                return;
+            }
+            notifier.send(reminder);
+            sentCounters.get(reminder.type()).increment();
+        } catch (Exception ex) {
+            failureCounter.increment();
+            log.warn("Reminder for booking {} could not be sent: {}", reminder.bookingId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * A scheduled reminder. The cancellation flag is guarded by the scheduler lock; cancelled entries stay in the
+     * queue until they reach its head.
+     */
+    private static final class Entry {
+
+        private final Reminder reminder;
+        private final long dueMillis;
+        private boolean cancelled;
+
+        private Entry(Reminder reminder, long nowMillis) {
+            this.reminder = reminder;
+            this.dueMillis = Math.max(reminder.dueAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), nowMillis);
+        }
+
+        private Reminder reminder() {
+            return reminder;
+        }
+
+        private long dueMillis() {
+            return dueMillis;
+        }
+    }
+
+    private record StaleDay(Long resourceId, LocalDate date) {
+    }
+}
@@ -1,12 +1,15 @@
 package ru.y_lab.repo;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.y_lab.dto.BookingWithOwnerResourceDTO;
 import ru.y_lab.model.Booking;
+import ru.y_lab.util.ValidationUtil;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,7 +36,8 @@ public interface BookingRepo extends JpaRepository<Booking, Long> {
                    r.type as resourceType,
                    TO_CHAR(b.start_time, 'YYYY-MM-DD') as date,
                    TO_CHAR(b.start_time, 'HH24:MI') as startTime,
-                   TO_CHAR(b.end_time, 'HH24:MI') as endTime
+                   TO_CHAR(b.end_time, 'HH24:MI') as endTime,
+                   b.version as version
             FROM coworking_service.bookings b
             JOIN coworking_service.resources r
                 ON b.resource_id = r.id
@@ -57,15 +61,47 @@ public interface BookingRepo extends JpaRepository<Booking, Long> {
                    r.type as resourceType,
                    TO_CHAR(b.start_time, 'YYYY-MM-DD') as date,
                    TO_CHAR(b.start_time, 'HH24:MI') as startTime,
-                   TO_CHAR(b.end_time, 'HH24:MI') as endTime
+                   TO_CHAR(b.end_time, 'HH24:MI') as endTime,
+                   b.version as version
             FROM coworking_service.bookings b
             JOIN coworking_service.resources r
                 ON b.resource_id = r.id
             JOIN coworking_service.users u
                 ON b.user_id = u.id
-            WHERE b.id = :userId""", nativeQuery = true)
+            WHERE b.user_id = :userId""", nativeQuery = true)
     List<BookingWithOwnerResourceDTO> findBookingWithOwnerResourceByUserId(@Param("userId") Long userId);
 
+    /**
+     * Retrieves the full booking history of a user, including bookings moved to the archive.
+     *
+     * @param userId the ID of the user
+     * @return a list of live and archived bookings with owner and resource details, ordered by start time
+     */
+    @Query(value = """
+            SELECT u.id as ownerId,
+                   r.id as resourceId,
+                   b.id as bookingId,
+                   u.username as ownerName,
+                   r.name as resourceName,
+                   r.type as resourceType,
+                   TO_CHAR(b.start_time, 'YYYY-MM-DD') as date,
+                   TO_CHAR(b.start_time, 'HH24:MI') as startTime,
+                   TO_CHAR(b.end_time, 'HH24:MI') as endTime,
+                   b.version as version
+            FROM (SELECT id, user_id, resource_id, start_time, end_time, version
+                  FROM coworking_service.bookings
+                  WHERE user_id = :userId
+                  UNION ALL
+                  SELECT id, user_id, resource_id, start_time, end_time, NULL
+                  FROM coworking_service.bookings_archive
+                  WHERE user_id = :userId) b
+            JOIN coworking_service.resources r
+                ON b.resource_id = r.id
+            JOIN coworking_service.users u
+                ON b.user_id = u.id
+            ORDER BY b.start_time""", nativeQuery = true)
+    List<BookingWithOwnerResourceDTO> findBookingHistoryWithOwnerResourceByUserId(@Param("userId") Long userId);
+
     /**
      * Retrieves bookings along with their owner and resource details by resource ID.
      *
@@ -81,13 +117,14 @@ public interface BookingRepo extends JpaRepository<Booking, Long> {
                    r.type as resourceType,
                    TO_CHAR(b.start_time, 'YYYY-MM-DD') as date,
                    TO_CHAR(b.start_time, 'HH24:MI') as startTime,
-                   TO_CHAR(b.end_time, 'HH24:MI') as endTime
+                   TO_CHAR(b.end_time, 'HH24:MI') as endTime,
+                   b.version as version
             FROM coworking_service.bookings b
             JOIN coworking_service.resources r
                 ON b.resource_id = r.id
             JOIN coworking_service.users u
                 ON b.user_id = u.id
-            WHERE b.id = :resourceId""", nativeQuery = true)
+            WHERE b.resource_id = :resourceId""", nativeQuery = true)
     List<BookingWithOwnerResourceDTO> findBookingWithOwnerResourceByResourceId(@Param("resourceId") Long resourceId);
 
     /**
@@ -104,7 +141,8 @@ public interface BookingRepo extends JpaRepository<Booking, Long> {
                    r.type as resourceType,
                    TO_CHAR(b.start_time, 'YYYY-MM-DD') as date,
                    TO_CHAR(b.start_time, 'HH24:MI') as startTime,
-                   TO_CHAR(b.end_time, 'HH24:MI') as endTime
+                   TO_CHAR(b.end_time, 'HH24:MI') as endTime,
+                   b.version as version
             FROM coworking_service.bookings b
             JOIN coworking_service.resources r
                 ON b.resource_id = r.id
@@ -114,8 +152,10 @@ public interface BookingRepo extends JpaRepository<Booking, Long> {
 
     /**
      * Retrieves bookings along with their owner and resource details by date.
+     * The range predicate on {@code start_time} lets PostgreSQL prune the monthly partitions.
      *
-     * @param date the date of the bookings (in 'YYYY-MM-DD' format)
+     * @param dayStart the start of the day (inclusive)
+     * @param dayEnd the start of the next day (exclusive)
      * @return a list of bookings with owner and resource details for the specified date
      */
     @Query(value = """
@@ -127,14 +167,17 @@ public interface BookingRepo extends JpaRepository<Booking, Long> {
                    r.type as resourceType,
                    TO_CHAR(b.start_time, 'YYYY-MM-DD') as date,
                    TO_CHAR(b.start_time, 'HH24:MI') as startTime,
-                   TO_CHAR(b.end_time, 'HH24:MI') as endTime
+                   TO_CHAR(b.end_time, 'HH24:MI') as endTime,
+                   b.version as version
             FROM coworking_service.bookings b
             JOIN coworking_service.resources r
                 ON b.resource_id = r.id
             JOIN coworking_service.users u
                 ON b.user_id = u.id
-            WHERE TO_CHAR(b.start_time, 'YYYY-MM-DD') = :date""", nativeQuery = true)
-    List<BookingWithOwnerResourceDTO> findBookingWithOwnerResourceByDate(@Param("date") String date);
+            WHERE b.start_time >= :dayStart
+              AND b.start_time < :dayEnd""", nativeQuery = true)
+    List<BookingWithOwnerResourceDTO> findBookingWithOwnerResourceByDate(@Param("dayStart") LocalDateTime dayStart,
+                                                                         @Param("dayEnd") LocalDateTime dayEnd);
 
     /**
      * Retrieves bookings by resource ID.
@@ -147,4 +190,117 @@ public interface BookingRepo extends JpaRepository<Booking, Long> {
             WHERE resource_id = :resourceId
             """, nativeQuery = true)
     List<Booking> findByResourceId(@Param("resourceId") Long resourceId);
+
+    /**
+     * Retrieves bookings of a resource that start within the given range.
+     * The range predicate on {@code start_time} lets PostgreSQL prune the monthly partitions.
+     *
+     * @param resourceId the ID of the resource
+     * @param from the start of the range (inclusive)
+     * @param to the end of the range (exclusive)
+     * @return a list of bookings for the specified resource starting within the range
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.bookings
+            WHERE resource_id = :resourceId
+              AND start_time >= :from
+              AND start_time < :to
+            """, nativeQuery = true)
+    List<Booking> findByResourceIdStartingBetween(@Param("resourceId") Long resourceId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
+
+    /**
+     * Retrieves the bookings of all resources that start within the given range.
+     * The range predicate on {@code start_time} lets PostgreSQL prune the monthly partitions.
+     *
+     * @param from the start of the range (inclusive)
+     * @param to the end of the range (exclusive)
+     * @return a list of bookings starting within the range
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.bookings
+            WHERE start_time >= :from
+              AND start_time < :to
+            """, nativeQuery = true)
+    List<Booking> findStartingBetween(@Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    /**
+     * Checks whether a booking still exists with the given time period.
+     *
+     * @param bookingId the ID of the booking
+     * @param startTime the expected start time
+     * @param endTime the expected end time
+     * @return true if the booking exists and has not been moved
+     */
+    @Query(value = """
+            SELECT EXISTS (SELECT 1 FROM coworking_service.bookings
+                           WHERE id = :bookingId
+                             AND start_time = :startTime
+                             AND end_time = :endTime)""", nativeQuery = true)
+    boolean existsWithPeriod(@Param("bookingId") Long bookingId,
+                             @Param("startTime") LocalDateTime startTime,
+                             @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Retrieves bookings of a resource whose time period overlaps the given one.
+     * No booking is longer than {@link ValidationUtil#maxBookingDuration()}, so the start time is bounded from
+     * both sides and only the partitions around the period are scanned.
+     *
+     * @param resourceId the ID of the resource
+     * @param startTime the start of the period
+     * @param endTime the end of the period
+     * @return a list of overlapping bookings for the specified resource
+     */
+    default List<Booking> findOverlapping(Long resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        return findOverlapping(resourceId, startTime.minus(ValidationUtil.maxBookingDuration()), startTime, endTime);
+    }
+
+    /**
+     * Retrieves bookings of a resource that start after the given lower bound and overlap the given period.
+     *
+     * @param resourceId the ID of the resource
+     * @param earliestStart the start time before which no overlapping booking can start
+     * @param startTime the start of the period
+     * @param endTime the end of the period
+     * @return a list of overlapping bookings for the specified resource
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.bookings
+            WHERE resource_id = :resourceId
+              AND start_time > :earliestStart
+              AND start_time < :endTime
+              AND end_time > :startTime
+            """, nativeQuery = true)
+    List<Booking> findOverlapping(@Param("resourceId") Long resourceId,
+                                  @Param("earliestStart") LocalDateTime earliestStart,
+                                  @Param("startTime") LocalDateTime startTime,
+                                  @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Moves a batch of bookings that ended before the cutoff into the archive table.
+     * Rows locked by concurrent writers are skipped and picked up by a later batch.
+     *
+     * @param cutoff the bookings ending before this moment are archived
+     * @param batchSize the maximum number of bookings to move
+     * @return the number of archived bookings
+     */
+    @Modifying
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM coworking_service.bookings
+                WHERE (id, start_time) IN (SELECT id, start_time
+                                           FROM coworking_service.bookings
+                                           WHERE start_time < :cutoff
+                                             AND end_time < :cutoff
+                                           ORDER BY start_time
+                                           LIMIT :batchSize
+                                           FOR UPDATE SKIP LOCKED)
+                RETURNING id, user_id, resource_id, start_time, end_time)
+            INSERT INTO coworking_service.bookings_archive (id, user_id, resource_id, start_time, end_time, archived_at)
+            SELECT id, user_id, resource_id, start_time, end_time, now()
+            FROM moved""", nativeQuery = true)
+    int archiveEndedBefore(@Param("cutoff") LocalDateTime cutoff,
+                           @Param("batchSize") int batchSize);
 }
@@ -0,0 +1,98 @@
+package ru.y_lab.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.y_lab.model.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing IdempotencyRecord entities.
+ * This interface extends JpaRepository and provides methods
+ * to interact with the database using SQL queries.
+ */
+@Repository
+public interface IdempotencyRepo extends JpaRepository<IdempotencyRecord, Long> {
+
+    /**
+     * Claims an idempotency key for the current transaction. An expired record of the key is taken over.
+     * While the claiming transaction is open, a concurrent claim of the same key waits on the unique constraint.
+     *
+     * @param userId the ID of the user
+     * @param operation the name of the operation
+     * @param idempotencyKey the key sent by the client
+     * @param requestHash the hash of the request
+     * @param createdAt the current moment
+     * @param expiresAt the moment the record expires
+     * @return 1 if the key was claimed, 0 if a live record of the key exists
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO coworking_service.idempotency_keys (user_id, operation, idempotency_key, request_hash, created_at, expires_at)
+            VALUES (:userId, :operation, :idempotencyKey, :requestHash, :createdAt, :expiresAt)
+            ON CONFLICT (user_id, operation, idempotency_key) DO UPDATE
+            SET request_hash = EXCLUDED.request_hash,
+                response_body = NULL,
+                created_at = EXCLUDED.created_at,
+                expires_at = EXCLUDED.expires_at
+            WHERE coworking_service.idempotency_keys.expires_at <= EXCLUDED.created_at""", nativeQuery = true)
+    int claim(@Param("userId") Long userId,
+              @Param("operation") String operation,
+              @Param("idempotencyKey") String idempotencyKey,
+              @Param("requestHash") String requestHash,
+              @Param("createdAt") LocalDateTime createdAt,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Stores the response of the request that claimed a key.
+     *
+     * @param userId the ID of the user
+     * @param operation the name of the operation
+     * @param idempotencyKey the key sent by the client
+     * @param responseBody the response body as JSON
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE coworking_service.idempotency_keys
+            SET response_body = :responseBody
+            WHERE user_id = :userId
+              AND operation = :operation
+              AND idempotency_key = :idempotencyKey""", nativeQuery = true)
+    void complete(@Param("userId") Long userId,
+                  @Param("operation") String operation,
+                  @Param("idempotencyKey") String idempotencyKey,
+                  @Param("responseBody") String responseBody);
+
+    /**
+     * Retrieves the record of a key.
+     *
+     * @param userId the ID of the user
+     * @param operation the name of the operation
+     * @param idempotencyKey the key sent by the client
+     * @return an optional containing the record
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.idempotency_keys
+            WHERE user_id = :userId
+              AND operation = :operation
+              AND idempotency_key = :idempotencyKey""", nativeQuery = true)
+    Optional<IdempotencyRecord> findByKey(@Param("userId") Long userId,
+                                          @Param("operation") String operation,
+                                          @Param("idempotencyKey") String idempotencyKey);
+
+    /**
+     * Deletes the records that expired before the given moment.
+     *
+     * @param before the moment before which expired records are deleted
+     * @return the number of deleted records
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM coworking_service.idempotency_keys
+            WHERE expires_at < :before""", nativeQuery = true)
+    int deleteExpiredBefore(@Param("before") LocalDateTime before);
+}
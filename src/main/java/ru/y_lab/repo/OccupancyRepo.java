@@ -0,0 +1,164 @@
+package ru.y_lab.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.y_lab.dto.HourlyOccupancyDTO;
+import ru.y_lab.dto.ResourceOccupancyDTO;
+import ru.y_lab.dto.ResourceTypeOccupancyDTO;
+import ru.y_lab.model.ResourceDailyOccupancy;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for the occupancy aggregate tables.
+ * This interface extends JpaRepository and provides methods
+ * to update and query the aggregates using SQL queries.
+ */
+@Repository
+public interface OccupancyRepo extends JpaRepository<ResourceDailyOccupancy, ResourceDailyOccupancy.Key> {
+
+    /**
+     * Adds a delta to the daily aggregate of a resource, creating the row if needed.
+     *
+     * @param resourceId the ID of the resource
+     * @param day the day
+     * @param minutes the booked minutes to add (negative to subtract)
+     * @param count the number of bookings to add (negative to subtract)
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO coworking_service.resource_daily_occupancy AS o (resource_id, day, booked_minutes, booking_count)
+            VALUES (:resourceId, :day, :minutes, :count)
+            ON CONFLICT (resource_id, day) DO UPDATE
+            SET booked_minutes = o.booked_minutes + EXCLUDED.booked_minutes,
+                booking_count = o.booking_count + EXCLUDED.booking_count""", nativeQuery = true)
+    void addDaily(@Param("resourceId") Long resourceId,
+                  @Param("day") LocalDate day,
+                  @Param("minutes") long minutes,
+                  @Param("count") long count);
+
+    /**
+     * Adds a delta to the hourly aggregate of a resource, creating the row if needed.
+     *
+     * @param resourceId the ID of the resource
+     * @param day the day
+     * @param hour the hour of the day (0-23)
+     * @param minutes the booked minutes to add (negative to subtract)
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO coworking_service.resource_hourly_occupancy AS o (resource_id, day, hour, booked_minutes)
+            VALUES (:resourceId, :day, :hour, :minutes)
+            ON CONFLICT (resource_id, day, hour) DO UPDATE
+            SET booked_minutes = o.booked_minutes + EXCLUDED.booked_minutes""", nativeQuery = true)
+    void addHourly(@Param("resourceId") Long resourceId,
+                   @Param("day") LocalDate day,
+                   @Param("hour") int hour,
+                   @Param("minutes") long minutes);
+
+    /**
+     * Retrieves the utilization of every resource over a period.
+     *
+     * @param fromDay the first day of the period
+     * @param toDay the last day of the period
+     * @param days the number of days in the period
+     * @param dayMinutes the number of business minutes per day
+     * @return a list of per-resource occupancy figures
+     */
+    @Query(value = """
+            SELECT r.id as resourceId,
+                   r.name as resourceName,
+                   r.type as resourceType,
+                   CAST(COALESCE(SUM(o.booked_minutes), 0) AS BIGINT) as bookedMinutes,
+                   CAST(COALESCE(SUM(o.booking_count), 0) AS BIGINT) as bookingCount,
+                   CAST(COALESCE(SUM(o.booked_minutes), 0) AS DOUBLE PRECISION) / (:dayMinutes * :days) as utilization
+            FROM coworking_service.resources r
+            LEFT JOIN coworking_service.resource_daily_occupancy o
+                ON o.resource_id = r.id
+               AND o.day BETWEEN :fromDay AND :toDay
+            GROUP BY r.id, r.name, r.type
+            ORDER BY r.id""", nativeQuery = true)
+    List<ResourceOccupancyDTO> findResourceOccupancy(@Param("fromDay") LocalDate fromDay,
+                                                     @Param("toDay") LocalDate toDay,
+                                                     @Param("days") long days,
+                                                     @Param("dayMinutes") long dayMinutes);
+
+    /**
+     * Retrieves the utilization of every resource type over a period.
+     *
+     * @param fromDay the first day of the period
+     * @param toDay the last day of the period
+     * @param days the number of days in the period
+     * @param dayMinutes the number of business minutes per day
+     * @return a list of per-type occupancy figures
+     */
+    @Query(value = """
+            SELECT r.type as resourceType,
+                   CAST(COUNT(DISTINCT r.id) AS BIGINT) as resourceCount,
+                   CAST(COALESCE(SUM(o.booked_minutes), 0) AS BIGINT) as bookedMinutes,
+                   CAST(COALESCE(SUM(o.booking_count), 0) AS BIGINT) as bookingCount,
+                   CAST(COALESCE(SUM(o.booked_minutes), 0) AS DOUBLE PRECISION) / (:dayMinutes * :days * COUNT(DISTINCT r.id)) as utilization
+            FROM coworking_service.resources r
+            LEFT JOIN coworking_service.resource_daily_occupancy o
+                ON o.resource_id = r.id
+               AND o.day BETWEEN :fromDay AND :toDay
+            GROUP BY r.type
+            ORDER BY r.type""", nativeQuery = true)
+    List<ResourceTypeOccupancyDTO> findResourceTypeOccupancy(@Param("fromDay") LocalDate fromDay,
+                                                             @Param("toDay") LocalDate toDay,
+                                                             @Param("days") long days,
+                                                             @Param("dayMinutes") long dayMinutes);
+
+    /**
+     * Retrieves the utilization of each hour of the day over a period, across all resources.
+     *
+     * @param fromDay the first day of the period
+     * @param toDay the last day of the period
+     * @param days the number of days in the period
+     * @param resourceCount the number of resources
+     * @return a list of 24 per-hour occupancy figures
+     */
+    @Query(value = """
+            SELECT h.hour as hour,
+                   CAST(COALESCE(SUM(o.booked_minutes), 0) AS BIGINT) as bookedMinutes,
+                   CAST(COALESCE(SUM(o.booked_minutes), 0) AS DOUBLE PRECISION) / (60 * :days * :resourceCount) as utilization
+            FROM generate_series(0, 23) AS h(hour)
+            LEFT JOIN coworking_service.resource_hourly_occupancy o
+                ON o.hour = h.hour
+               AND o.day BETWEEN :fromDay AND :toDay
+            GROUP BY h.hour
+            ORDER BY h.hour""", nativeQuery = true)
+    List<HourlyOccupancyDTO> findHourlyOccupancy(@Param("fromDay") LocalDate fromDay,
+                                                 @Param("toDay") LocalDate toDay,
+                                                 @Param("days") long days,
+                                                 @Param("resourceCount") long resourceCount);
+
+    /**
+     * Retrieves the utilization of each hour of the day over a period for a single resource.
+     *
+     * @param resourceId the ID of the resource
+     * @param fromDay the first day of the period
+     * @param toDay the last day of the period
+     * @param days the number of days in the period
+     * @return a list of 24 per-hour occupancy figures
+     */
+    @Query(value = """
+            SELECT h.hour as hour,
+                   CAST(COALESCE(SUM(o.booked_minutes), 0) AS BIGINT) as bookedMinutes,
+                   CAST(COALESCE(SUM(o.booked_minutes), 0) AS DOUBLE PRECISION) / (60 * :days) as utilization
+            FROM generate_series(0, 23) AS h(hour)
+            LEFT JOIN coworking_service.resource_hourly_occupancy o
+                ON o.hour = h.hour
+               AND o.resource_id = :resourceId
+               AND o.day BETWEEN :fromDay AND :toDay
+            GROUP BY h.hour
+            ORDER BY h.hour""", nativeQuery = true)
+    List<HourlyOccupancyDTO> findHourlyOccupancyByResourceId(@Param("resourceId") Long resourceId,
+                                                             @Param("fromDay") LocalDate fromDay,
+                                                             @Param("toDay") LocalDate toDay,
+                                                             @Param("days") long days);
+}
@@ -0,0 +1,32 @@
+package ru.y_lab.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.y_lab.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing OutboxEvent entities.
+ * This interface extends JpaRepository and provides methods
+ * to interact with the database using SQL queries.
+ */
+@Repository
+public interface OutboxRepo extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Retrieves the oldest outbox events and locks them until the end of the current transaction.
+     * Rows already locked by another relay are skipped, so several relays can work in parallel.
+     *
+     * @param batchSize the maximum number of events to retrieve
+     * @return a list of locked outbox events in insertion order
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.outbox
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("batchSize") int batchSize);
+}
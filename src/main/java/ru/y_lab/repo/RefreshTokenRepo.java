@@ -0,0 +1,69 @@
+package ru.y_lab.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.y_lab.model.RefreshToken;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing RefreshToken entities.
+ * This interface extends JpaRepository and provides methods
+ * to interact with the database using SQL queries.
+ */
+@Repository
+public interface RefreshTokenRepo extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Retrieves a refresh token by its hash and locks it until the end of the current transaction,
+     * so concurrent refreshes with the same token are serialized.
+     *
+     * @param tokenHash the SHA-256 hash of the token
+     * @return an optional containing the locked refresh token
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.refresh_tokens
+            WHERE token_hash = :tokenHash
+            FOR UPDATE""", nativeQuery = true)
+    Optional<RefreshToken> findByTokenHashForUpdate(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Revokes every token of a family.
+     *
+     * @param familyId the ID of the token family
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE coworking_service.refresh_tokens
+            SET revoked = TRUE
+            WHERE family_id = :familyId""", nativeQuery = true)
+    void revokeFamily(@Param("familyId") String familyId);
+
+    /**
+     * Revokes every token of a user.
+     *
+     * @param userId the ID of the user
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE coworking_service.refresh_tokens
+            SET revoked = TRUE
+            WHERE user_id = :userId""", nativeQuery = true)
+    void revokeAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * Deletes the tokens that expired before the given moment.
+     *
+     * @param before the moment before which expired tokens are deleted
+     * @return the number of deleted tokens
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM coworking_service.refresh_tokens
+            WHERE expires_at < :before""", nativeQuery = true)
+    int deleteExpiredBefore(@Param("before") LocalDateTime before);
+}
@@ -29,7 +29,8 @@ public interface ResourceRepo extends JpaRepository<Resource, Long> {
                    r.id as resourceId,
                    r.name as resourceName,
                    r.type as resourceType,
-                   u.username as ownerName
+                   u.username as ownerName,
+                   r.version as version
             FROM coworking_service.resources r
             JOIN coworking_service.users u
                 ON r.user_id = u.id
@@ -46,9 +47,23 @@ public interface ResourceRepo extends JpaRepository<Resource, Long> {
                    r.id as resourceId,
                    r.name as resourceName,
                    r.type as resourceType,
-                   u.username as ownerName
+                   u.username as ownerName,
+                   r.version as version
             FROM coworking_service.resources r
             JOIN coworking_service.users u
                 ON r.user_id = u.id""", nativeQuery = true)
     List<ResourceWithOwnerDTO> findAllResourcesWithOwners();
+
+    /**
+     * Finds a resource by its ID and locks its row until the end of the current transaction.
+     * Used to serialize writes that must re-check booking conflicts for the resource.
+     *
+     * @param resourceId the ID of the resource
+     * @return an {@link Optional} containing the locked {@link Resource} if found, otherwise empty
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.resources
+            WHERE id = :resourceId
+            FOR UPDATE""", nativeQuery = true)
+    Optional<Resource> findByIdForUpdate(@Param("resourceId") Long resourceId);
 }
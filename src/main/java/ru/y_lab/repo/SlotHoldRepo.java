@@ -0,0 +1,87 @@
+package ru.y_lab.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.y_lab.model.SlotHold;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing SlotHold entities.
+ * This interface extends JpaRepository and provides methods
+ * to interact with the database using SQL queries.
+ */
+@Repository
+public interface SlotHoldRepo extends JpaRepository<SlotHold, Long> {
+
+    /**
+     * Retrieves the holds of a resource that are active at the given time and overlap the given period.
+     *
+     * @param resourceId the ID of the resource
+     * @param startTime the start of the period
+     * @param endTime the end of the period
+     * @param now the current time; holds that expired by then are ignored
+     * @return a list of active overlapping holds
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.slot_holds
+            WHERE resource_id = :resourceId
+              AND start_time < :endTime
+              AND end_time > :startTime
+              AND expires_at > :now""", nativeQuery = true)
+    List<SlotHold> findActiveOverlapping(@Param("resourceId") Long resourceId,
+                                         @Param("startTime") LocalDateTime startTime,
+                                         @Param("endTime") LocalDateTime endTime,
+                                         @Param("now") LocalDateTime now);
+
+    /**
+     * Retrieves the holds of a resource that are active at the given time and start within the given period.
+     *
+     * @param resourceId the ID of the resource
+     * @param from the start of the period, inclusive
+     * @param to the end of the period, exclusive
+     * @param now the current time; holds that expired by then are ignored
+     * @return a list of active holds
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.slot_holds
+            WHERE resource_id = :resourceId
+              AND start_time >= :from
+              AND start_time < :to
+              AND expires_at > :now""", nativeQuery = true)
+    List<SlotHold> findActiveByResourceIdStartingBetween(@Param("resourceId") Long resourceId,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to,
+                                                         @Param("now") LocalDateTime now);
+
+    /**
+     * Counts the holds of a user that are active at the given time.
+     *
+     * @param userId the ID of the user
+     * @param now the current time; holds that expired by then are ignored
+     * @return the number of active holds
+     */
+    @Query(value = """
+            SELECT COUNT(*) FROM coworking_service.slot_holds
+            WHERE user_id = :userId
+              AND expires_at > :now""", nativeQuery = true)
+    long countActiveByUserId(@Param("userId") Long userId,
+                             @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes a hold. Unlike {@code deleteById}, deleting a hold that has just been released or expired
+     * concurrently is not an error.
+     *
+     * @param holdId the ID of the hold
+     * @return the number of deleted holds
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM coworking_service.slot_holds
+            WHERE id = :holdId""", nativeQuery = true)
+    int deleteHold(@Param("holdId") Long holdId);
+}
@@ -0,0 +1,58 @@
+package ru.y_lab.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.y_lab.model.TokenRevocation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing TokenRevocation entities.
+ * This interface extends JpaRepository and provides methods
+ * to interact with the database using SQL queries.
+ */
+@Repository
+public interface TokenRevocationRepo extends JpaRepository<TokenRevocation, Long> {
+
+    /**
+     * Moves the token watermark of a user forward; an older watermark never replaces a newer one.
+     *
+     * @param userId the ID of the user
+     * @param revokedBefore the tokens issued before this moment are revoked
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO coworking_service.token_revocations (user_id, revoked_before)
+            VALUES (:userId, :revokedBefore)
+            ON CONFLICT (user_id) DO UPDATE
+            SET revoked_before = GREATEST(coworking_service.token_revocations.revoked_before, EXCLUDED.revoked_before)""",
+            nativeQuery = true)
+    void revokeBefore(@Param("userId") Long userId,
+                      @Param("revokedBefore") LocalDateTime revokedBefore);
+
+    /**
+     * Retrieves the watermarks at or after the given moment.
+     *
+     * @param since the earliest watermark to retrieve
+     * @return a list of token watermarks
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.token_revocations
+            WHERE revoked_before >= :since""", nativeQuery = true)
+    List<TokenRevocation> findRevokedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Deletes the watermarks older than the given moment; all tokens they revoke have expired.
+     *
+     * @param before the moment before which watermarks are deleted
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM coworking_service.token_revocations
+            WHERE revoked_before < :before""", nativeQuery = true)
+    void deleteRevokedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,50 @@
+package ru.y_lab.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.y_lab.model.WaitlistEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing WaitlistEntry entities.
+ * This interface extends JpaRepository and provides methods
+ * to interact with the database using SQL queries.
+ */
+@Repository
+public interface WaitlistRepo extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * Retrieves waitlist entries for a resource whose requested period overlaps the given one,
+     * oldest first.
+     *
+     * @param resourceId the ID of the resource
+     * @param startTime the start of the period
+     * @param endTime the end of the period
+     * @return a list of overlapping waitlist entries in queue order
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.waitlist_entries
+            WHERE resource_id = :resourceId
+              AND start_time < :endTime
+              AND end_time > :startTime
+            ORDER BY created_at, id""", nativeQuery = true)
+    List<WaitlistEntry> findOverlapping(@Param("resourceId") Long resourceId,
+                                        @Param("startTime") LocalDateTime startTime,
+                                        @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Retrieves waitlist entries created by a user, oldest first.
+     *
+     * @param userId the ID of the user
+     * @return a list of the user's waitlist entries
+     */
+    @Query(value = """
+            SELECT * FROM coworking_service.waitlist_entries
+            WHERE user_id = :userId
+            ORDER BY created_at, id""", nativeQuery = true)
+    List<WaitlistEntry> findByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,58 @@
+package ru.y_lab.routing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration class for the application data source.
+ * The primary comes from {@code spring.datasource.*}; read replicas are listed in {@code datasource.replicas.urls}.
+ * Without replicas the primary is used directly. With replicas, read-only transactions are routed by the
+ * {@link ReplicaRouter}.
+ */
+@Configuration
+public class DataSourceConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRouter replicaRouter(DataSourceProperties properties,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${datasource.replicas.urls:}") String[] replicaUrls,
+                                       @Value("${datasource.replicas.username:${spring.datasource.username}}") String replicaUsername,
+                                       @Value("${datasource.replicas.password:${spring.datasource.password}}") String replicaPassword,
+                                       @Value("${datasource.replicas.max-lag-ms:1000}") long maxLagMs) {
+        DataSource primary = properties.initializeDataSourceBuilder().build();
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank())
+                continue;
+            replicas.put("replica-" + replicas.size(), DataSourceBuilder.create()
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build());
+        }
+        return new ReplicaRouter(primary, replicas, maxLagMs, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        if (!replicaRouter.hasReplicas())
+            return replicaRouter.getPrimary();
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(replicaRouter);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,226 @@
+package ru.y_lab.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chooses between the primary and the read replicas for each transaction.
+ *
+ * <p>Read-write transactions always use the primary, and every commit of one is recorded as a write. A read-only
+ * transaction uses a replica only if the replica has replayed the primary's WAL up to a point after the last
+ * recorded write and that point is at most {@code max-lag-ms} old; otherwise it falls back to the primary. This
+ * gives every client of this node read-your-writes, and keeps the caches from reloading data that predates an
+ * invalidation. Eligible replicas are used round-robin.
+ *
+ * <p>Replica progress is sampled every {@code lag-check-interval-ms}: the current WAL position of the primary is
+ * read first, and if a replica has replayed at least that position, it is known to be caught up to the moment
+ * before the primary was queried.
+ */
+@Slf4j
+public class ReplicaRouter implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    @Getter
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagNanos;
+    private final AtomicLong lastWrite = new AtomicLong(System.nanoTime());
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter replicaReadCounter;
+    private final Counter primaryReadCounter;
+
+    public ReplicaRouter(DataSource primary, Map<String, DataSource> replicas, long maxLagMs, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMs);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            Gauge.builder("datasource.replica.lag", replica, r -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - r.caughtUpTo))
+                    .description("Milliseconds since the replica was last known to be caught up with the primary")
+                    .tag("replica", name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        });
+        this.replicaReadCounter = readCounter(meterRegistry, "replica");
+        this.primaryReadCounter = readCounter(meterRegistry, PRIMARY);
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * Returns the data sources of the replicas by their routing keys.
+     *
+     * @return the replica data sources
+     */
+    public Map<String, DataSource> getReplicaDataSources() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        for (Replica replica : replicas)
+            dataSources.put(replica.name, replica.dataSource);
+        return dataSources;
+    }
+
+    /**
+     * Returns the routing key for a connection requested by the current thread.
+     *
+     * @return {@link #PRIMARY} or the name of a replica
+     */
+    Object route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return PRIMARY;
+        }
+
+        long now = System.nanoTime();
+        long writtenAt = lastWrite.get();
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            long caughtUpTo = replica.caughtUpTo;
+            if (caughtUpTo - writtenAt >= 0 && now - caughtUpTo <= maxLagNanos) {
+                replicaReadCounter.increment();
+                return replica.name;
+            }
+        }
+        primaryReadCounter.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Records a write that read-only transactions must observe from now on.
+     */
+    public void recordWrite() {
+        lastWrite.accumulateAndGet(System.nanoTime(), (current, now) -> now - current > 0 ? now : current);
+    }
+
+    /**
+     * Samples how far every replica has replayed the WAL of the primary.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval-ms:200}")
+    public void pollReplicas() {
+        if (replicas.isEmpty())
+            return;
+
+        long sampledAt = System.nanoTime();
+        long primaryLsn;
+        try {
+            primaryLsn = queryLsn(primary, "SELECT pg_current_wal_lsn()");
+        } catch (SQLException ex) {
+            log.warn("Could not read the WAL position of the primary: {}", ex.getMessage());
+            return;
+        }
+
+        for (Replica replica : replicas) {
+            try {
+                if (queryLsn(replica.dataSource, "SELECT pg_last_wal_replay_lsn()") >= primaryLsn)
+                    replica.caughtUpTo = sampledAt;
+            } catch (SQLException ex) {
+                log.warn("Could not read the replay position of replica {}: {}", replica.name, ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof HikariDataSource hikari)
+                hikari.close();
+        }
+        if (primary instanceof HikariDataSource hikari)
+            hikari.close();
+    }
+
+    /**
+     * Records a write when the current read-write transaction commits, or right away outside of a transaction.
+     * The write is recorded before the after-commit listeners run, so a cache that is invalidated by one of them
+     * cannot be refilled from a replica that has not replayed the commit yet.
+     */
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordWrite();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this))
+            return;
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                recordWrite();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaRouter.this);
+            }
+        });
+    }
+
+    private static long queryLsn(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return parseLsn(resultSet.getString(1));
+        }
+    }
+
+    /**
+     * Parses a PostgreSQL LSN such as {@code 0/16B3748} into a comparable number.
+     */
+    static long parseLsn(String lsn) {
+        if (lsn == null)
+            return -1;
+        int separator = lsn.indexOf('/');
+        return (Long.parseLong(lsn.substring(0, separator), 16) << 32) | Long.parseLong(lsn.substring(separator + 1), 16);
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.reads")
+                .description("Read-only transactions by the data source they were routed to")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long caughtUpTo;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.caughtUpTo = System.nanoTime() - Long.MAX_VALUE / 2;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.y_lab.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data source that sends each connection to the primary or a replica as decided by a {@link ReplicaRouter}.
+ *
+ * <p>The decision depends on whether the current transaction is read-only, which Spring only records after the
+ * transaction has begun. The data source must therefore be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so that the physical connection is
+ * fetched on the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaRouter router;
+
+    public ReplicaRoutingDataSource(ReplicaRouter router) {
+        this.router = router;
+        Map<Object, Object> targets = new HashMap<>(router.getReplicaDataSources());
+        targets.put(ReplicaRouter.PRIMARY, router.getPrimary());
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(router.getPrimary());
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return router.route();
+    }
+}
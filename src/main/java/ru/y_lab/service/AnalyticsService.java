@@ -0,0 +1,52 @@
+package ru.y_lab.service;
+
+import ru.y_lab.dto.HourlyOccupancyDTO;
+import ru.y_lab.dto.ResourceOccupancyDTO;
+import ru.y_lab.dto.ResourceTypeOccupancyDTO;
+
+import java.util.List;
+
+/**
+ * The AnalyticsService interface defines methods for reporting resource utilization.
+ * All periods are inclusive and given as dates in milliseconds since epoch.
+ */
+public interface AnalyticsService {
+
+    /**
+     * Retrieves the utilization of every resource over a period. Only accessible by admin users.
+     *
+     * @param token the authentication token of the admin user making the request
+     * @param from  the first day of the period in milliseconds since epoch
+     * @param to    the last day of the period in milliseconds since epoch
+     * @return a list of per-resource occupancy figures
+     */
+    List<ResourceOccupancyDTO> getResourceOccupancy(String token,
+                                                    Long from,
+                                                    Long to);
+
+    /**
+     * Retrieves the utilization of every resource type over a period. Only accessible by admin users.
+     *
+     * @param token the authentication token of the admin user making the request
+     * @param from  the first day of the period in milliseconds since epoch
+     * @param to    the last day of the period in milliseconds since epoch
+     * @return a list of per-type occupancy figures
+     */
+    List<ResourceTypeOccupancyDTO> getResourceTypeOccupancy(String token,
+                                                            Long from,
+                                                            Long to);
+
+    /**
+     * Retrieves the utilization of each hour of the day over a period. Only accessible by admin users.
+     *
+     * @param token      the authentication token of the admin user making the request
+     * @param from       the first day of the period in milliseconds since epoch
+     * @param to         the last day of the period in milliseconds since epoch
+     * @param resourceId the ID of the resource to report on, or null for all resources
+     * @return a list of 24 per-hour occupancy figures
+     */
+    List<HourlyOccupancyDTO> getHourlyOccupancy(String token,
+                                                Long from,
+                                                Long to,
+                                                Long resourceId);
+}
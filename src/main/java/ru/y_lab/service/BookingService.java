@@ -56,7 +56,8 @@ public interface BookingService {
                                                         Long date);
 
     /**
-     * Retrieves bookings made by a specific user ID. Only accessible by admin users.
+     * Retrieves the booking history of a specific user ID, including archived bookings.
+     * Only accessible by admin users.
      *
      * @param userId the ID of the user
      * @return a list of bookings with owner and resource details for the specified user
@@ -89,11 +90,13 @@ public interface BookingService {
      * @param token      the authentication token of the user making the request
      * @param bookingId  the ID of the booking to be updated
      * @param request the update request containing updated booking details
+     * @param expectedVersion the version the caller has seen, or null to update any version
      * @return the updated booking as a BookingDTO
      */
     BookingDTO updateBooking(String token,
                              Long bookingId,
-                             UpdateBookingRequestDTO request);
+                             UpdateBookingRequestDTO request,
+                             Long expectedVersion);
 
     /**
      * Deletes a booking by its ID.
@@ -0,0 +1,21 @@
+package ru.y_lab.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.y_lab.enums.ResourceType;
+
+/**
+ * The BookingStreamService interface defines methods for streaming booking changes to clients.
+ */
+public interface BookingStreamService {
+
+    /**
+     * Opens a server-sent events stream of booking changes.
+     * Exactly one of the resource ID or the resource type has to be given.
+     *
+     * @param resourceId   the ID of the resource to watch, or null
+     * @param resourceType the type of resources to watch, or null
+     * @return the emitter that pushes ADDED, UPDATED and DELETED events
+     */
+    SseEmitter subscribe(Long resourceId,
+                         ResourceType resourceType);
+}
@@ -0,0 +1,54 @@
+package ru.y_lab.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Service interface for running create requests at most once per {@code Idempotency-Key}.
+ */
+public interface IdempotencyService {
+
+    /**
+     * The request header holding the idempotency key.
+     */
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * The response header telling whether the response is a replay of a stored one.
+     */
+    String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * Runs a create operation, or returns the stored response if the same key was already used by the user for
+     * the same operation. Only successful responses are stored; a failed request can be retried with its key.
+     *
+     * @param token the authentication token of the user making the request
+     * @param operation the name of the operation the key is scoped to
+     * @param idempotencyKey the key sent by the client, or null to run the operation unconditionally
+     * @param request the request, compared with the stored request when the key is reused
+     * @param responseType the type of the response body
+     * @param action the operation
+     * @param <T> the type of the response body
+     * @return the response body and whether it was replayed
+     * @throws ru.y_lab.exception.IdempotencyKeyReuseException if the key was used for another request
+     */
+    <T> Result<T> execute(String token,
+                          String operation,
+                          String idempotencyKey,
+                          Object request,
+                          Class<T> responseType,
+                          Supplier<T> action);
+
+    /**
+     * Deletes the expired idempotency records.
+     */
+    void deleteExpired();
+
+    /**
+     * The response of an idempotent request.
+     *
+     * @param body the response body
+     * @param replayed true if the body was stored by an earlier request with the same key
+     * @param <T> the type of the response body
+     */
+    record Result<T>(T body, boolean replayed) { }
+}
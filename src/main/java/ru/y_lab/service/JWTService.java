@@ -1,5 +1,7 @@
 package ru.y_lab.service;
 
+import ru.y_lab.dto.TokenClaimsDTO;
+
 public interface JWTService {
 
     String extractUserName(String token);
@@ -12,5 +14,11 @@ public interface JWTService {
 
     Boolean isTokenValid(String token, String username);
 
+    TokenClaimsDTO parseToken(String token);
+
+    boolean isTokenValid(TokenClaimsDTO claims, String username);
+
     boolean hasRole(String token, String role);
+
+    long getTokenLifetimeSeconds();
 }
@@ -0,0 +1,42 @@
+package ru.y_lab.service;
+
+/**
+ * The PasswordHashingService interface defines methods for hashing and verifying user passwords.
+ * Implementations run the CPU-heavy work on a dedicated bounded executor.
+ */
+public interface PasswordHashingService {
+
+    /**
+     * Hashes a raw password with the current cost parameters.
+     *
+     * @param rawPassword the raw password
+     * @return the encoded hash
+     */
+    String hash(String rawPassword);
+
+    /**
+     * Verifies a raw password against a stored password.
+     *
+     * @param rawPassword the raw password
+     * @param storedPassword the stored hash, or a legacy plaintext password
+     * @return true if the password matches
+     */
+    boolean matches(String rawPassword, String storedPassword);
+
+    /**
+     * Checks whether a stored password should be replaced by a hash with the current cost parameters.
+     *
+     * @param storedPassword the stored hash, or a legacy plaintext password
+     * @return true if the password is plaintext or was hashed with other parameters
+     */
+    boolean needsRehash(String storedPassword);
+
+    /**
+     * Returns a fixed hash with the current cost parameters that no password matches. Checking a login of an
+     * unknown username against it takes as long as checking a known one, so response times do not reveal
+     * which usernames exist.
+     *
+     * @return the dummy hash
+     */
+    String dummyHash();
+}
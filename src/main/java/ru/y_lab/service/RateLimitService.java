@@ -0,0 +1,19 @@
+package ru.y_lab.service;
+
+import ru.y_lab.dto.RateLimitedUserDTO;
+
+import java.util.List;
+
+/**
+ * The RateLimitService interface defines methods for inspecting the per-user rate limits.
+ */
+public interface RateLimitService {
+
+    /**
+     * Retrieves the users with requests rejected by the rate limiter within the last window. Only accessible by admin users.
+     *
+     * @param token the authentication token of the admin user making the request
+     * @return a list of limited users per endpoint, most rejected first
+     */
+    List<RateLimitedUserDTO> getLimitedUsers(String token);
+}
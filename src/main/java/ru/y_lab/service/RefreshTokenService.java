@@ -0,0 +1,41 @@
+package ru.y_lab.service;
+
+import ru.y_lab.model.User;
+
+/**
+ * The RefreshTokenService interface defines methods for issuing and rotating refresh tokens.
+ */
+public interface RefreshTokenService {
+
+    /**
+     * Issues a refresh token that starts a new token family.
+     *
+     * @param user the user who logged in
+     * @return the opaque refresh token
+     */
+    String issue(User user);
+
+    /**
+     * Exchanges a refresh token for a new one of the same family. The presented token cannot be used again;
+     * presenting a used or revoked token revokes the whole family and the user's access tokens.
+     *
+     * @param refreshToken the opaque refresh token
+     * @return the rotated token and the ID of its user
+     */
+    RotatedRefreshToken rotate(String refreshToken);
+
+    /**
+     * Revokes every refresh token of a user.
+     *
+     * @param userId the ID of the user
+     */
+    void revokeAll(Long userId);
+
+    /**
+     * A refresh token issued by rotation.
+     *
+     * @param userId the ID of the user the token belongs to
+     * @param refreshToken the new opaque refresh token
+     */
+    record RotatedRefreshToken(Long userId, String refreshToken) { }
+}
@@ -41,13 +41,15 @@ public interface ResourceService {
      *
      * @param resourceId the ID of the resource to be updated
      * @param request the update request containing updated resource details
+     * @param expectedVersion the version the caller has seen, or null to update any version
      * @return the updated resource as a ResourceDTO
      * @throws SecurityException if the user is not authorized to update the resource
      */
     ResourceDTO updateResource(String token,
                                Long resourceId,
                                UpdateResourceRequestDTO request,
-                               ResourceType resourceType);
+                               ResourceType resourceType,
+                               Long expectedVersion);
 
     /**
      * Deletes a resource by its ID.
@@ -0,0 +1,41 @@
+package ru.y_lab.service;
+
+import ru.y_lab.dto.AddBookingRequestDTO;
+import ru.y_lab.dto.BookingDTO;
+import ru.y_lab.dto.SlotHoldDTO;
+
+/**
+ * The SlotHoldService interface defines methods for temporarily holding a time period of a resource
+ * while the user completes the booking, and for confirming or releasing the hold.
+ */
+public interface SlotHoldService {
+
+    /**
+     * Holds a free time period for the current user. The hold expires on its own after a configured time.
+     *
+     * @param token   the authentication token of the user making the request
+     * @param request the request containing the resource and the period to hold
+     * @return the created hold as a SlotHoldDTO
+     */
+    SlotHoldDTO createHold(String token,
+                           AddBookingRequestDTO request);
+
+    /**
+     * Releases a hold of the current user before it expires.
+     *
+     * @param token  the authentication token of the user making the request
+     * @param holdId the ID of the hold
+     */
+    void releaseHold(String token,
+                     Long holdId);
+
+    /**
+     * Turns a hold of the current user into a booking of the held period.
+     *
+     * @param token  the authentication token of the user making the request
+     * @param holdId the ID of the hold
+     * @return the created booking as a BookingDTO
+     */
+    BookingDTO confirmHold(String token,
+                           Long holdId);
+}
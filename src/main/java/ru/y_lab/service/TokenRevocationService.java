@@ -0,0 +1,25 @@
+package ru.y_lab.service;
+
+import java.util.Date;
+
+/**
+ * The TokenRevocationService interface defines methods for revoking issued tokens before they expire.
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Revokes every token of a user issued up to now.
+     *
+     * @param userId the ID of the user
+     */
+    void revokeAllTokens(Long userId);
+
+    /**
+     * Checks whether a token has been revoked. The check is in memory and does not touch the database.
+     *
+     * @param userId the ID of the user the token was issued to
+     * @param issuedAt the issue time of the token
+     * @return true if the token has been revoked
+     */
+    boolean isRevoked(Long userId, Date issuedAt);
+}
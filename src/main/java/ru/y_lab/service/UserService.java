@@ -21,9 +21,18 @@ public interface UserService {
      * Authenticates a user and logs them in. Stores user information in the session.
      *
      * @param request the login request containing username and password
+     * @param clientAddress the address of the client, used to throttle login attempts
      * @return the authenticated user as a UserDTO
      */
-    TokenResponseDTO loginUser(LoginRequestDTO request);
+    TokenResponseDTO loginUser(LoginRequestDTO request, String clientAddress);
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     *
+     * @param request the request containing the refresh token
+     * @return the new token pair
+     */
+    TokenResponseDTO refreshToken(RefreshTokenRequestDTO request);
 
     /**
      * Retrieves a user by their ID.
@@ -0,0 +1,55 @@
+package ru.y_lab.service;
+
+import ru.y_lab.dto.AddBookingRequestDTO;
+import ru.y_lab.dto.BookingDTO;
+import ru.y_lab.dto.WaitlistEntryDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The WaitlistService interface defines methods for queuing booking requests
+ * for occupied time periods and promoting them once the period is freed.
+ */
+public interface WaitlistService {
+
+    /**
+     * Queues a booking request for a time period that is currently occupied.
+     *
+     * @param token   the authentication token of the user making the request
+     * @param request the request containing booking details
+     * @return the created waitlist entry as a WaitlistEntryDTO
+     */
+    WaitlistEntryDTO joinWaitlist(String token,
+                                  AddBookingRequestDTO request);
+
+    /**
+     * Retrieves the waitlist entries of the current user.
+     *
+     * @param token the authentication token of the user making the request
+     * @return a list of the user's waitlist entries
+     */
+    List<WaitlistEntryDTO> getUserWaitlist(String token);
+
+    /**
+     * Removes a waitlist entry of the current user.
+     *
+     * @param token   the authentication token of the user making the request
+     * @param entryId the ID of the waitlist entry
+     */
+    void leaveWaitlist(String token,
+                       Long entryId);
+
+    /**
+     * Turns waitlisted requests overlapping a freed time period into bookings, oldest first.
+     * Each request is promoted only if it no longer conflicts with any booking.
+     *
+     * @param resourceId the ID of the resource whose time period was freed
+     * @param startTime  the start of the freed period
+     * @param endTime    the end of the freed period
+     * @return the bookings created from the waitlist
+     */
+    List<BookingDTO> promoteWaitlisted(Long resourceId,
+                                       LocalDateTime startTime,
+                                       LocalDateTime endTime);
+}
@@ -0,0 +1,100 @@
+package ru.y_lab.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.y_lab.annotation.AdminOnly;
+import ru.y_lab.annotation.Loggable;
+import ru.y_lab.dto.HourlyOccupancyDTO;
+import ru.y_lab.dto.ResourceOccupancyDTO;
+import ru.y_lab.dto.ResourceTypeOccupancyDTO;
+import ru.y_lab.exception.ResourceNotFoundException;
+import ru.y_lab.mapper.CustomDateTimeMapper;
+import ru.y_lab.repo.OccupancyRepo;
+import ru.y_lab.repo.ResourceRepo;
+import ru.y_lab.service.AnalyticsService;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * The AnalyticsServiceImpl class provides an implementation of the AnalyticsService interface.
+ * It reads the incrementally maintained occupancy aggregates instead of the bookings table,
+ * so the cost of a report depends on the number of days and resources, not on the number of bookings.
+ */
+@Loggable
+@Service
+@RequiredArgsConstructor
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    /**
+     * Business hours used for utilization, matching the 09:00-18:00 day of available slots.
+     */
+    private static final long BUSINESS_DAY_MINUTES = 9 * 60;
+    private static final long MAX_PERIOD_DAYS = 3 * 366;
+
+    private final CustomDateTimeMapper dateTimeMapper;
+    private final OccupancyRepo occupancyRepo;
+    private final ResourceRepo resourceRepo;
+
+    @Override
+    @AdminOnly
+    @Transactional(readOnly = true)
+    public List<ResourceOccupancyDTO> getResourceOccupancy(String token, Long from, Long to) {
+        LocalDate fromDay = dateTimeMapper.toLocalDate(from);
+        LocalDate toDay = dateTimeMapper.toLocalDate(to);
+        long days = countDays(fromDay, toDay);
+
+        List<ResourceOccupancyDTO> occupancy = occupancyRepo.findResourceOccupancy(fromDay, toDay, days, BUSINESS_DAY_MINUTES);
+        if (occupancy.isEmpty())
+            throw new ResourceNotFoundException("No resources found in the system.");
+        return occupancy;
+    }
+
+    @Override
+    @AdminOnly
+    @Transactional(readOnly = true)
+    public List<ResourceTypeOccupancyDTO> getResourceTypeOccupancy(String token, Long from, Long to) {
+        LocalDate fromDay = dateTimeMapper.toLocalDate(from);
+        LocalDate toDay = dateTimeMapper.toLocalDate(to);
+        long days = countDays(fromDay, toDay);
+
+        List<ResourceTypeOccupancyDTO> occupancy = occupancyRepo.findResourceTypeOccupancy(fromDay, toDay, days, BUSINESS_DAY_MINUTES);
+        if (occupancy.isEmpty())
+            throw new ResourceNotFoundException("No resources found in the system.");
+        return occupancy;
+    }
+
+    @Override
+    @AdminOnly
+    @Transactional(readOnly = true)
+    public List<HourlyOccupancyDTO> getHourlyOccupancy(String token, Long from, Long to, Long resourceId) {
+        LocalDate fromDay = dateTimeMapper.toLocalDate(from);
+        LocalDate toDay = dateTimeMapper.toLocalDate(to);
+        long days = countDays(fromDay, toDay);
+
+        if (resourceId != null) {
+            if (!resourceRepo.existsById(resourceId))
+                throw new ResourceNotFoundException("The requested resource was not found.");
+            return occupancyRepo.findHourlyOccupancyByResourceId(resourceId, fromDay, toDay, days);
+        }
+
+        long resourceCount = resourceRepo.count();
+        if (resourceCount == 0)
+            throw new ResourceNotFoundException("No resources found in the system.");
+        return occupancyRepo.findHourlyOccupancy(fromDay, toDay, days, resourceCount);
+    }
+
+    private static long countDays(LocalDate fromDay, LocalDate toDay) {
+        if (fromDay == null || toDay == null)
+            throw new IllegalArgumentException("Both the start and the end of the period must be provided.");
+        if (toDay.isBefore(fromDay))
+            throw new IllegalArgumentException("The start of the period must not be after its end.");
+
+        long days = ChronoUnit.DAYS.between(fromDay, toDay) + 1;
+        if (days > MAX_PERIOD_DAYS)
+            throw new IllegalArgumentException("The period must not be longer than " + MAX_PERIOD_DAYS + " days.");
+        return days;
+    }
+}
@@ -1,27 +1,36 @@
 package ru.y_lab.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.y_lab.annotation.AdminOnly;
 import ru.y_lab.annotation.AdminOrOwner;
 import ru.y_lab.annotation.Loggable;
+import ru.y_lab.annotation.RetryOnConflict;
+import ru.y_lab.cache.AvailabilityCache;
+import ru.y_lab.coalesce.QueryCoalescer;
 import ru.y_lab.dto.*;
+import ru.y_lab.event.BookingChangedEvent;
 import ru.y_lab.exception.BookingConflictException;
 import ru.y_lab.exception.BookingNotFoundException;
 import ru.y_lab.exception.ResourceNotFoundException;
+import ru.y_lab.exception.VersionConflictException;
+import ru.y_lab.hold.HoldExpiryScheduler;
 import ru.y_lab.mapper.BookingMapper;
 import ru.y_lab.mapper.CustomDateTimeMapper;
 import ru.y_lab.model.Booking;
 import ru.y_lab.model.Resource;
+import ru.y_lab.model.SlotHold;
 import ru.y_lab.repo.BookingRepo;
 import ru.y_lab.repo.ResourceRepo;
+import ru.y_lab.repo.SlotHoldRepo;
 import ru.y_lab.service.BookingService;
 import ru.y_lab.service.JWTService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -44,22 +53,30 @@ public class BookingServiceImpl implements BookingService {
     private final ResourceRepo resourceRepo;
     private final BookingRepo bookingRepo;
     private final JWTService jwtService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QueryCoalescer queryCoalescer;
+    private final AvailabilityCache availabilityCache;
+    private final SlotHoldRepo slotHoldRepo;
+    private final HoldExpiryScheduler holdExpiryScheduler;
 
     /**
-     * Adds a new booking to the system.
+     * Adds a new booking to the system. The resource row is locked before the conflict check, like on every
+     * other path that creates or moves bookings or holds, so concurrent writers of the same resource are serialized.
      *
      * @param token      the authentication token of the user making the request
      * @param requestDTO the request containing booking details
      * @return the added booking as a BookingDTO
      */
     @Override
+    @Transactional
     public BookingDTO addBooking(String token, AddBookingRequestDTO requestDTO) {
         Long userId = jwtService.extractUserId(token);
-        Resource resource = resourceRepo.findById(requestDTO.resourceId())
+        Resource resource = resourceRepo.findByIdForUpdate(requestDTO.resourceId())
                 .orElseThrow(() -> new ResourceNotFoundException("The requested resource was not found."));
 
         Booking booking = createBooking(userId, resource, requestDTO);
         Booking savedBooking = bookingRepo.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.added(savedBooking));
         return bookingMapper.toDTO(savedBooking);
     }
 
@@ -72,6 +89,7 @@ public class BookingServiceImpl implements BookingService {
      */
     @Override
     @AdminOnly
+    @Transactional(readOnly = true)
     public BookingWithOwnerResourceDTO getBookingById(String token, Long bookingId) {
         return bookingRepo.findBookingWithOwnerResourceById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("The requested booking was not found."));
@@ -84,6 +102,7 @@ public class BookingServiceImpl implements BookingService {
      * @return a list of bookings with owner and resource details for the specified user
      */
     @Override
+    @Transactional(readOnly = true)
     public List<BookingWithOwnerResourceDTO> getUserBookings(String token) {
         Long userId = jwtService.extractUserId(token);
         List<BookingWithOwnerResourceDTO> bookings = bookingRepo.findBookingWithOwnerResourceByUserId(userId);
@@ -100,6 +119,7 @@ public class BookingServiceImpl implements BookingService {
      */
     @Override
     @AdminOnly
+    @Transactional(readOnly = true)
     public List<BookingWithOwnerResourceDTO> getAllBookings(String token) {
         List<BookingWithOwnerResourceDTO> bookings = bookingRepo.findAllBookingWithOwnerResource();
         if (bookings.isEmpty())
@@ -115,25 +135,27 @@ public class BookingServiceImpl implements BookingService {
      * @return a list of bookings with owner and resource details for the specified date
      */
     @Override
+    @Transactional(readOnly = true)
     public List<BookingWithOwnerResourceDTO> getBookingsByDate(String token, Long date) {
-        LocalDate localDate = dateTimeMapper.toLocalDate(date);
-        String dateString = localDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        List<BookingWithOwnerResourceDTO> bookings = bookingRepo.findBookingWithOwnerResourceByDate(dateString);
+        LocalDateTime dayStart = dateTimeMapper.toLocalDate(date).atStartOfDay();
+        List<BookingWithOwnerResourceDTO> bookings = bookingRepo.findBookingWithOwnerResourceByDate(dayStart, dayStart.plusDays(1));
         if (bookings.isEmpty())
             throw new BookingNotFoundException("No bookings were found in the system.");
         return bookings;
     }
 
     /**
-     * Retrieves bookings made by a specific user ID. Only accessible by admin users.
+     * Retrieves the booking history of a specific user ID, including archived bookings.
+     * Only accessible by admin users.
      *
      * @param userId the ID of the user
      * @return a list of bookings with owner and resource details for the specified user
      */
     @Override
     @AdminOnly
+    @Transactional(readOnly = true)
     public List<BookingWithOwnerResourceDTO> getBookingsByUserId(Long userId) {
-        List<BookingWithOwnerResourceDTO> bookings = bookingRepo.findBookingWithOwnerResourceByUserId(userId);
+        List<BookingWithOwnerResourceDTO> bookings = bookingRepo.findBookingHistoryWithOwnerResourceByUserId(userId);
         if (bookings.isEmpty())
             throw new BookingNotFoundException("No bookings were found in the system.");
         return bookings;
@@ -147,8 +169,10 @@ public class BookingServiceImpl implements BookingService {
      * @return a list of bookings with owner and resource details for the specified resource
      */
     @Override
+    @Transactional(readOnly = true)
     public List<BookingWithOwnerResourceDTO> getBookingsByResourceId(String token, Long resourceId) {
-        List<BookingWithOwnerResourceDTO> bookings = bookingRepo.findBookingWithOwnerResourceByResourceId(resourceId);
+        List<BookingWithOwnerResourceDTO> bookings = queryCoalescer.resourceBookings(resourceId,
+                () -> bookingRepo.findBookingWithOwnerResourceByResourceId(resourceId));
         if (bookings.isEmpty())
             throw new BookingNotFoundException("No bookings were found in the system.");
         return bookings;
@@ -162,39 +186,80 @@ public class BookingServiceImpl implements BookingService {
      * @return a list of available slots for the specified resource and date
      */
     @Override
+    @Transactional(readOnly = true)
     public List<AvailableSlotDTO> getAvailableSlots(String token, AvailableSlotsRequestDTO request) {
 
         Long resourceId = request.resourceId();
         LocalDate date = dateTimeMapper.toLocalDate(request.date());
 
-        List<Booking> bookings = bookingRepo.findByResourceId(resourceId);
-        if(bookings.isEmpty())
-            throw new BookingNotFoundException("The resource for the booking was not found or no bookings were found for the specified resource.");
+        return availabilityCache.get(resourceId, date,
+                () -> queryCoalescer.availableSlots(resourceId, date, () -> loadAvailableSlots(resourceId, date)));
+    }
+
+    /**
+     * Computes the available slots of a resource on a day from the database. Periods held by any user are
+     * not available; the result is invalidated on this node when the first of those holds expires.
+     *
+     * @param resourceId the ID of the resource
+     * @param date the day of the slots
+     * @return a list of available slots for the specified resource and date
+     */
+    private List<AvailableSlotDTO> loadAvailableSlots(Long resourceId, LocalDate date) {
+        if (!resourceRepo.existsById(resourceId))
+            throw new ResourceNotFoundException("The resource for the booking was not found.");
+
+        LocalDateTime dayStart = date.atStartOfDay();
+        List<Booking> bookings = new ArrayList<>(bookingRepo.findByResourceIdStartingBetween(resourceId, dayStart, dayStart.plusDays(1)));
+        List<SlotHold> holds = slotHoldRepo.findActiveByResourceIdStartingBetween(resourceId, dayStart, dayStart.plusDays(1), LocalDateTime.now());
+        for (SlotHold hold : holds) {
+            bookings.add(Booking.builder()
+                    .resourceId(resourceId)
+                    .startTime(hold.getStartTime())
+                    .endTime(hold.getEndTime())
+                    .build());
+        }
+        holds.stream()
+                .map(SlotHold::getExpiresAt)
+                .min(Comparator.naturalOrder())
+                .ifPresent(expiresAt -> holdExpiryScheduler.scheduleInvalidation(resourceId, date, expiresAt));
         List<Booking> filteredBookings = filterBookingsByDate(bookings, date);
 
         return calculateAvailableSlots(filteredBookings);
     }
 
     /**
-     * Updates an existing booking.
+     * Updates an existing booking. A concurrent update of the same booking is retried with the new state.
+     * The resource row is locked before the conflict check, see {@link #addBooking}.
      *
-     * @param token     the authentication token of the user making the request
-     * @param bookingId the ID of the booking to be updated
-     * @param request   the update request containing updated booking details
+     * @param token           the authentication token of the user making the request
+     * @param bookingId       the ID of the booking to be updated
+     * @param request         the update request containing updated booking details
+     * @param expectedVersion the version the caller has seen, or null to update any version
      * @return the updated booking as a BookingDTO
+     * @throws VersionConflictException if the booking is no longer at the expected version
      */
     @Override
     @AdminOrOwner
-    public BookingDTO updateBooking(String token, Long bookingId, UpdateBookingRequestDTO request) {
+    @RetryOnConflict
+    @Transactional
+    public BookingDTO updateBooking(String token, Long bookingId, UpdateBookingRequestDTO request, Long expectedVersion) {
         validateUpdateBookingRequest(request);
 
         Booking existingBooking = bookingRepo.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("The booking to be updated was not found."));
+        if (expectedVersion != null && !expectedVersion.equals(existingBooking.getVersion()))
+            throw new VersionConflictException("The booking was modified by someone else. Please reload it and try again.");
+
+        resourceRepo.findByIdForUpdate(existingBooking.getResourceId())
+                .orElseThrow(() -> new ResourceNotFoundException("The resource for the booking was not found."));
 
+        LocalDateTime previousStartTime = existingBooking.getStartTime();
+        LocalDateTime previousEndTime = existingBooking.getEndTime();
         processBookingTimes(request, existingBooking);
         checkBookingConflicts(existingBooking);
 
-        Booking updatedBooking = bookingRepo.save(existingBooking);
+        Booking updatedBooking = bookingRepo.saveAndFlush(existingBooking);
+        eventPublisher.publishEvent(BookingChangedEvent.updated(updatedBooking, previousStartTime, previousEndTime));
         return bookingMapper.toDTO(updatedBooking);
     }
 
@@ -207,11 +272,13 @@ public class BookingServiceImpl implements BookingService {
      */
     @Override
     @AdminOrOwner
+    @Transactional
     public void deleteBooking(String token, Long bookingId) {
-        bookingRepo.findById(bookingId)
+        Booking booking = bookingRepo.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("The booking to be deleted was not found."));
 
         bookingRepo.deleteById(bookingId);
+        eventPublisher.publishEvent(BookingChangedEvent.deleted(booking));
     }
 
     /**
@@ -230,6 +297,7 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = Booking.builder()
                 .userId(userId)
                 .resourceId(resource.getId())
+                .resource(resource)
                 .startTime(startDateTime)
                 .endTime(endDateTime)
                 .build();
@@ -238,24 +306,38 @@ public class BookingServiceImpl implements BookingService {
     }
 
     /**
-     * Checks for booking conflicts with existing bookings for a given resource.
+     * Checks for booking conflicts with existing bookings and with active holds of other users for a given resource.
      * If a conflict is found, a BookingConflictException is thrown.
      *
      * @param booking the booking to check for conflicts
-     * @throws BookingConflictException if the resource is already booked during the specified time period
+     * @throws BookingConflictException if the resource is already booked or held during the specified time period
      */
     private void checkBookingConflicts(Booking booking) {
-        List<Booking> existingBookings = bookingRepo.findByResourceId(booking.getResourceId())
-                .stream()
-                .filter(existingBooking -> !existingBooking.getId().equals(booking.getId()))
-                .toList();
+        List<Booking> existingBookings = bookingRepo.findOverlapping(booking.getResourceId(), booking.getStartTime(), booking.getEndTime());
+        if (hasConflict(booking, existingBookings))
+            throw new BookingConflictException("The resource is already booked for the specified time period.");
+
+        List<SlotHold> holds = slotHoldRepo.findActiveOverlapping(booking.getResourceId(), booking.getStartTime(), booking.getEndTime(), LocalDateTime.now());
+        if (holds.stream().anyMatch(hold -> !hold.getUserId().equals(booking.getUserId())))
+            throw new BookingConflictException("The resource is held by another user for the specified time period.");
+    }
 
+    /**
+     * Checks whether a booking overlaps any other of the given bookings.
+     *
+     * @param booking the booking to check
+     * @param existingBookings the bookings of the same resource
+     * @return true if another booking overlaps the booking's time period
+     */
+    static boolean hasConflict(Booking booking, List<Booking> existingBookings) {
         for (Booking existingBooking : existingBookings) {
-            if (existingBooking.getStartTime().isBefore(booking.getEndTime()) &&
+            if (!existingBooking.getId().equals(booking.getId()) &&
+                    existingBooking.getStartTime().isBefore(booking.getEndTime()) &&
                     booking.getStartTime().isBefore(existingBooking.getEndTime())) {
-                throw new BookingConflictException("The resource is already booked for the specified time period.");
+                return true;
             }
         }
+        return false;
     }
 
     /**
@@ -265,7 +347,7 @@ public class BookingServiceImpl implements BookingService {
      * @param date the date to filter bookings by
      * @return a list of bookings that occur on the specified date, sorted by start time
      */
-    private List<Booking> filterBookingsByDate(List<Booking> bookings, LocalDate date) {
+    static List<Booking> filterBookingsByDate(List<Booking> bookings, LocalDate date) {
         return bookings.stream()
                 .filter(booking -> booking.getStartTime().toLocalDate().equals(date))
                 .sorted(Comparator.comparing(Booking::getStartTime))
@@ -273,12 +355,12 @@ public class BookingServiceImpl implements BookingService {
     }
 
     /**
-     * Calculates available slots based on existing bookings.
+     * Calculates available slots based on existing bookings, which may overlap each other.
      *
      * @param bookings the list of existing bookings
      * @return a list of available slots as AvailableSlotDTO objects
      */
-    private List<AvailableSlotDTO> calculateAvailableSlots(List<Booking> bookings) {
+    static List<AvailableSlotDTO> calculateAvailableSlots(List<Booking> bookings) {
         List<AvailableSlotDTO> availableSlots = new ArrayList<>();
         LocalTime startOfDay = LocalTime.of(9, 0);
         LocalTime endOfDay = LocalTime.of(18, 0);
@@ -294,7 +376,8 @@ public class BookingServiceImpl implements BookingService {
                         formatLocalTime(slotStart),
                         formatLocalTime(bookingStart)));
             }
-            slotStart = bookingEnd;
+            if (bookingEnd.isAfter(slotStart))
+                slotStart = bookingEnd;
         }
 
         if (slotStart.isBefore(endOfDay)) {
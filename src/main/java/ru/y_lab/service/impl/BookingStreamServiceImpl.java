@@ -0,0 +1,92 @@
+package ru.y_lab.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.y_lab.enums.ResourceType;
+import ru.y_lab.event.BookingChangedEvent;
+import ru.y_lab.event.BookingEventBus;
+import ru.y_lab.event.BookingEventSink;
+import ru.y_lab.event.BookingEventSubscription;
+import ru.y_lab.exception.ResourceNotFoundException;
+import ru.y_lab.mapper.BookingMapper;
+import ru.y_lab.repo.ResourceRepo;
+import ru.y_lab.service.BookingStreamService;
+
+import java.io.IOException;
+import java.util.function.Predicate;
+
+/**
+ * The BookingStreamServiceImpl class provides an implementation of the BookingStreamService interface.
+ * It subscribes server-sent events emitters to the {@link BookingEventBus}.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingStreamServiceImpl implements BookingStreamService {
+
+    private static final String RESYNC_EVENT = "RESYNC";
+    private static final String RESYNC_MESSAGE = "Some booking changes were dropped. Please reload the bookings.";
+
+    private final BookingEventBus bookingEventBus;
+    private final BookingMapper bookingMapper;
+    private final ResourceRepo resourceRepo;
+
+    @Value("${booking-events.emitter-timeout-ms:1800000}")
+    private long emitterTimeout;
+
+    /**
+     * Opens a server-sent events stream of booking changes.
+     *
+     * @param resourceId   the ID of the resource to watch, or null
+     * @param resourceType the type of resources to watch, or null
+     * @return the emitter that pushes ADDED, UPDATED and DELETED events
+     * @throws IllegalArgumentException if neither or both of the filters are given
+     * @throws ResourceNotFoundException if the resource does not exist
+     */
+    @Override
+    public SseEmitter subscribe(Long resourceId, ResourceType resourceType) {
+        Predicate<BookingChangedEvent> filter = createFilter(resourceId, resourceType);
+
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        BookingEventSubscription subscription = bookingEventBus.subscribe(filter, new BookingEventSink() {
+            @Override
+            public void send(BookingChangedEvent event) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .name(event.type().name())
+                        .data(bookingMapper.toEventDTO(event), MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void resync() throws IOException {
+                emitter.send(SseEmitter.event()
+                        .name(RESYNC_EVENT)
+                        .data(RESYNC_MESSAGE));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(ex -> subscription.cancel());
+        return emitter;
+    }
+
+    private Predicate<BookingChangedEvent> createFilter(Long resourceId, ResourceType resourceType) {
+        if ((resourceId == null) == (resourceType == null))
+            throw new IllegalArgumentException("Exactly one of resourceId or resourceType must be provided.");
+
+        if (resourceId != null) {
+            if (!resourceRepo.existsById(resourceId))
+                throw new ResourceNotFoundException("The requested resource was not found.");
+            return event -> resourceId.equals(event.resourceId());
+        }
+        String typeName = resourceType.name();
+        return event -> typeName.equals(event.resourceType());
+    }
+}
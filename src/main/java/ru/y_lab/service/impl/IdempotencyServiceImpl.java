@@ -0,0 +1,180 @@
+package ru.y_lab.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.y_lab.exception.IdempotencyKeyReuseException;
+import ru.y_lab.model.IdempotencyRecord;
+import ru.y_lab.repo.IdempotencyRepo;
+import ru.y_lab.service.IdempotencyService;
+import ru.y_lab.service.JWTService;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of {@link IdempotencyService} backed by the {@code idempotency_keys} table with an in-memory
+ * front cache.
+ *
+ * <p>A retry that reaches the node that served the original request is answered from the cache without any
+ * database access. Otherwise the key is claimed with an insert in the same transaction as the operation, and the
+ * response is stored before the commit. A concurrent request with the same key waits on the unique constraint
+ * until that transaction ends; it then either finds the stored response or, after a rollback, claims the key
+ * itself. Records live for {@code idempotency.ttl-hours}; the cache keeps them for at most
+ * {@code idempotency.cache.ttl-minutes}, since retries come soon after the original request.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRepo idempotencyRepo;
+    private final JWTService jwtService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<CacheKey, StoredResponse> cache;
+
+    private final Counter executedCounter;
+    private final Counter cacheReplayCounter;
+    private final Counter databaseReplayCounter;
+
+    public IdempotencyServiceImpl(IdempotencyRepo idempotencyRepo,
+                                  JWTService jwtService,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${idempotency.cache.ttl-minutes:10}") long cacheTtlMinutes,
+                                  @Value("${idempotency.cache.max-entries:10000}") long cacheMaxEntries) {
+        this.idempotencyRepo = idempotencyRepo;
+        this.jwtService = jwtService;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(Duration.ofMinutes(Math.min(cacheTtlMinutes, ttl.toMinutes())))
+                .build();
+        this.executedCounter = requests(meterRegistry, "executed");
+        this.cacheReplayCounter = requests(meterRegistry, "replayed_cache");
+        this.databaseReplayCounter = requests(meterRegistry, "replayed_database");
+    }
+
+    @Override
+    public <T> Result<T> execute(String token,
+                                 String operation,
+                                 String idempotencyKey,
+                                 Object request,
+                                 Class<T> responseType,
+                                 Supplier<T> action) {
+        if (idempotencyKey == null)
+            return new Result<>(action.get(), false);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH)
+            throw new IllegalArgumentException("The Idempotency-Key header must hold between 1 and " + MAX_KEY_LENGTH + " characters.");
+
+        Long userId = jwtService.extractUserId(token);
+        String requestHash = hash(request);
+        CacheKey cacheKey = new CacheKey(userId, operation, idempotencyKey);
+
+        StoredResponse cached = cache.getIfPresent(cacheKey);
+        if (cached != null) {
+            cacheReplayCounter.increment();
+            return replay(cached, requestHash, responseType);
+        }
+
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (idempotencyRepo.claim(userId, operation, idempotencyKey, requestHash, now, now.plus(ttl)) == 0) {
+                IdempotencyRecord record = idempotencyRepo.findByKey(userId, operation, idempotencyKey)
+                        .orElseThrow(() -> new IllegalStateException("The claimed idempotency key disappeared"));
+                StoredResponse stored = new StoredResponse(record.getRequestHash(), read(record.getResponseBody(), responseType));
+                cache.put(cacheKey, stored);
+                databaseReplayCounter.increment();
+                return replay(stored, requestHash, responseType);
+            }
+
+            T body = action.get();
+            idempotencyRepo.complete(userId, operation, idempotencyKey, write(body));
+            StoredResponse stored = new StoredResponse(requestHash, body);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(cacheKey, stored);
+                }
+            });
+            executedCounter.increment();
+            return new Result<>(body, false);
+        });
+    }
+
+    /**
+     * Deletes the expired idempotency records every night.
+     */
+    @Override
+    @Scheduled(cron = "${idempotency.cleanup-cron:0 45 4 * * *}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = idempotencyRepo.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0)
+            log.info("Deleted {} expired idempotency keys", deleted);
+    }
+
+    private <T> Result<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash))
+            throw new IdempotencyKeyReuseException("The Idempotency-Key was already used for a different request.");
+        return new Result<>(responseType.cast(stored.body()), true);
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("Could not hash the request", ex);
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize the response", ex);
+        }
+    }
+
+    private <T> T read(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not deserialize the stored response", ex);
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("idempotency.requests")
+                .description("Create requests with an Idempotency-Key by whether they were executed or replayed")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record CacheKey(Long userId, String operation, String idempotencyKey) { }
+
+    private record StoredResponse(String requestHash, Object body) { }
+}
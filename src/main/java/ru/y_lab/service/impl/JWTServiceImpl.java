@@ -4,10 +4,13 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import ru.y_lab.dto.TokenClaimsDTO;
 import ru.y_lab.service.JWTService;
+import ru.y_lab.service.TokenRevocationService;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
@@ -15,11 +18,17 @@ import java.util.Date;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 public class JWTServiceImpl implements JWTService {
 
+    private final TokenRevocationService tokenRevocationService;
+
     @Value("${jwt.secret}")
     private String secretKey;
 
+    @Value("${jwt.expiration-ms:86400000}")
+    private long expirationMs;
+
     private SecretKey signingKey;
 
     @PostConstruct
@@ -30,7 +39,7 @@ public class JWTServiceImpl implements JWTService {
     @Override
     public String generateToken(String username, Long userId, String role) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + 1000 * 60 * 60 * 24); // 24 hours
+        Date expiryDate = new Date(now.getTime() + expirationMs);
 
         return Jwts.builder()
                 .claim("userId", userId)
@@ -44,8 +53,21 @@ public class JWTServiceImpl implements JWTService {
 
     @Override
     public Boolean isTokenValid(String token, String username) {
-        final String usernameFromToken = extractUserName(token);
-        return (usernameFromToken.equals(username) && !isTokenExpired(token));
+        return isTokenValid(parseToken(token), username);
+    }
+
+    @Override
+    public TokenClaimsDTO parseToken(String token) {
+        final Claims claims = extractAllClaims(token);
+        return new TokenClaimsDTO(claims.getSubject(), claims.get("userId", Long.class), claims.get("role", String.class),
+                claims.getIssuedAt(), claims.getExpiration());
+    }
+
+    @Override
+    public boolean isTokenValid(TokenClaimsDTO claims, String username) {
+        return claims.username().equals(username)
+                && !claims.expiration().before(new Date())
+                && !tokenRevocationService.isRevoked(claims.userId(), claims.issuedAt());
     }
 
     @Override
@@ -73,6 +95,11 @@ public class JWTServiceImpl implements JWTService {
         return role.equals(userRole);
     }
 
+    @Override
+    public long getTokenLifetimeSeconds() {
+        return expirationMs / 1000;
+    }
+
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolvers) {
         final Claims claims = extractAllClaims(token);
         return claimsResolvers.apply(claims);
@@ -86,10 +113,6 @@ public class JWTServiceImpl implements JWTService {
                 .getPayload();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
-    }
-
     private String extractJwtFromBearerToken(String token) {
         if (StringUtils.hasText(token) && token.startsWith("Bearer ")) {
             return token.substring(7);
@@ -0,0 +1,100 @@
+package ru.y_lab.service.impl;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import ru.y_lab.exception.PasswordHashingUnavailableException;
+import ru.y_lab.service.PasswordHashingService;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt implementation of {@link PasswordHashingService}.
+ *
+ * <p>Hashing runs on the {@code passwordHashingExecutor}, whose few threads and short queue cap the CPU that
+ * login and registration bursts can take from the rest of the traffic. A request that finds the queue full or
+ * waits longer than {@code security.password.timeout-ms} fails fast with 503 instead of piling up.
+ * Passwords stored before hashing was introduced are still accepted as plaintext and reported as needing a rehash.
+ */
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final ThreadPoolTaskExecutor executor;
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final long timeoutMs;
+    private final String dummyHash;
+
+    public PasswordHashingServiceImpl(@Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor executor,
+                                      @Value("${security.password.bcrypt-strength:10}") int strength,
+                                      @Value("${security.password.timeout-ms:5000}") long timeoutMs) {
+        this.executor = executor;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.timeoutMs = timeoutMs;
+        this.dummyHash = encoder.encode(UUID.randomUUID().toString());
+    }
+
+    @Override
+    public String hash(String rawPassword) {
+        return execute(() -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (!isHash(storedPassword))
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        return execute(() -> encoder.matches(rawPassword, storedPassword));
+    }
+
+    @Override
+    public boolean needsRehash(String storedPassword) {
+        Matcher matcher = BCRYPT_HASH.matcher(storedPassword);
+        return !matcher.matches() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    @Override
+    public String dummyHash() {
+        return dummyHash;
+    }
+
+    private boolean isHash(String storedPassword) {
+        return BCRYPT_HASH.matcher(storedPassword).matches();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (TaskRejectedException ex) {
+            throw new PasswordHashingUnavailableException("Too many login attempts are in progress. Please try again later.");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new PasswordHashingUnavailableException("Too many login attempts are in progress. Please try again later.");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Password check was interrupted.");
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.y_lab.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.y_lab.annotation.AdminOnly;
+import ru.y_lab.annotation.Loggable;
+import ru.y_lab.dto.RateLimitedUserDTO;
+import ru.y_lab.service.RateLimitService;
+import ru.y_lab.throttle.RateLimiter;
+
+import java.util.List;
+
+/**
+ * The RateLimitServiceImpl class provides an implementation of the RateLimitService interface.
+ * It reports the in-memory state of the {@link RateLimiter} of this instance.
+ */
+@Loggable
+@Service
+@RequiredArgsConstructor
+public class RateLimitServiceImpl implements RateLimitService {
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    @AdminOnly
+    public List<RateLimitedUserDTO> getLimitedUsers(String token) {
+        return rateLimiter.getLimitedUsers();
+    }
+}
@@ -0,0 +1,120 @@
+package ru.y_lab.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.y_lab.exception.InvalidCredentialsException;
+import ru.y_lab.model.RefreshToken;
+import ru.y_lab.model.User;
+import ru.y_lab.repo.RefreshTokenRepo;
+import ru.y_lab.service.RefreshTokenService;
+import ru.y_lab.service.TokenRevocationService;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link RefreshTokenService} with opaque single-use tokens.
+ *
+ * <p>A refresh token is 256 random bits; only its SHA-256 hash is stored, so a leaked table cannot be replayed.
+ * Every refresh marks the presented token as used and issues its successor in the same family. A token that is
+ * presented again after it was used means that it was copied: the family is revoked and all access tokens of the
+ * user are revoked through {@link TokenRevocationService}. This state is only consulted on refresh; access
+ * tokens are still validated without any lookup.
+ */
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final String INVALID_REFRESH_TOKEN = "Invalid or expired refresh token";
+
+    private final RefreshTokenRepo refreshTokenRepo;
+    private final TokenRevocationService tokenRevocationService;
+    private final long refreshTokenLifetimeDays;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenServiceImpl(RefreshTokenRepo refreshTokenRepo,
+                                   TokenRevocationService tokenRevocationService,
+                                   @Value("${jwt.refresh.expiration-days:30}") long refreshTokenLifetimeDays) {
+        this.refreshTokenRepo = refreshTokenRepo;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenLifetimeDays = refreshTokenLifetimeDays;
+    }
+
+    @Override
+    @Transactional
+    public String issue(User user) {
+        return createToken(user.getId(), UUID.randomUUID().toString());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    public RotatedRefreshToken rotate(String refreshToken) {
+        RefreshToken presented = refreshTokenRepo.findByTokenHashForUpdate(hash(refreshToken))
+                .orElseThrow(() -> new InvalidCredentialsException(INVALID_REFRESH_TOKEN));
+
+        if (presented.isRevoked() || presented.getUsedAt() != null) {
+            if (!presented.isRevoked())
+                log.warn("Refresh token reuse detected for user {}, revoking token family {}", presented.getUserId(), presented.getFamilyId());
+            refreshTokenRepo.revokeFamily(presented.getFamilyId());
+            tokenRevocationService.revokeAllTokens(presented.getUserId());
+            throw new InvalidCredentialsException(INVALID_REFRESH_TOKEN);
+        }
+        if (presented.getExpiresAt().isBefore(LocalDateTime.now()))
+            throw new InvalidCredentialsException(INVALID_REFRESH_TOKEN);
+
+        presented.setUsedAt(LocalDateTime.now());
+        refreshTokenRepo.save(presented);
+        return new RotatedRefreshToken(presented.getUserId(), createToken(presented.getUserId(), presented.getFamilyId()));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepo.revokeAllByUserId(userId);
+    }
+
+    /**
+     * Deletes expired refresh tokens. Used tokens are kept until they expire so that their reuse is still detected.
+     */
+    @Scheduled(cron = "${jwt.refresh.cleanup-cron:0 15 4 * * *}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepo.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0)
+            log.info("Deleted {} expired refresh tokens", deleted);
+    }
+
+    private String createToken(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepo.save(RefreshToken.builder()
+                .userId(userId)
+                .tokenHash(hash(token))
+                .familyId(familyId)
+                .createdAt(now)
+                .expiresAt(now.plusDays(refreshTokenLifetimeDays))
+                .build());
+        return token;
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package ru.y_lab.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.y_lab.annotation.AdminOrOwner;
 import ru.y_lab.annotation.Loggable;
+import ru.y_lab.annotation.RetryOnConflict;
+import ru.y_lab.coalesce.QueryCoalescer;
 import ru.y_lab.dto.AddResourceRequestDTO;
 import ru.y_lab.dto.ResourceDTO;
 import ru.y_lab.dto.ResourceWithOwnerDTO;
 import ru.y_lab.dto.UpdateResourceRequestDTO;
+import ru.y_lab.enums.ResourceEventType;
 import ru.y_lab.enums.ResourceType;
+import ru.y_lab.event.ResourceChangedEvent;
 import ru.y_lab.exception.ResourceNotFoundException;
 import ru.y_lab.exception.UserNotFoundException;
+import ru.y_lab.exception.VersionConflictException;
 import ru.y_lab.mapper.ResourceMapper;
 import ru.y_lab.model.Resource;
 import ru.y_lab.repo.ResourceRepo;
@@ -31,6 +38,8 @@ public class ResourceServiceImpl implements ResourceService {
     private final ResourceMapper resourceMapper;
     private final ResourceRepo resourceRepo;
     private final JWTService jwsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QueryCoalescer queryCoalescer;
 
     /**
      * Adds a new resource to the system.
@@ -39,9 +48,11 @@ public class ResourceServiceImpl implements ResourceService {
      * @return the added resource as a ResourceDTO
      */
     @Override
+    @Transactional
     public ResourceDTO addResource(String token, AddResourceRequestDTO request, ResourceType resourceType) {
         Resource resource = createResource(request, resourceType, token);
         Resource savedResource = resourceRepo.save(resource);
+        eventPublisher.publishEvent(ResourceChangedEvent.of(ResourceEventType.ADDED, savedResource));
         return resourceMapper.toDTO(savedResource);
     }
 
@@ -54,6 +65,7 @@ public class ResourceServiceImpl implements ResourceService {
      * @throws UserNotFoundException if the user who owns the resource is not found
      */
     @Override
+    @Transactional(readOnly = true)
     public ResourceWithOwnerDTO getResourceById(Long resourceId) {
         return resourceRepo.findResourceWithOwnerById(resourceId)
                 .orElseThrow(() -> new ResourceNotFoundException("The requested resource could not be found. Please check the ID and try again."));
@@ -66,8 +78,9 @@ public class ResourceServiceImpl implements ResourceService {
      * @throws ResourceNotFoundException if no resources are found
      */
     @Override
+    @Transactional(readOnly = true)
     public List<ResourceWithOwnerDTO> getAllResources() {
-        List<ResourceWithOwnerDTO> resources =  resourceRepo.findAllResourcesWithOwners();
+        List<ResourceWithOwnerDTO> resources = queryCoalescer.allResources(resourceRepo::findAllResourcesWithOwners);
         if (resources.isEmpty())
             throw new ResourceNotFoundException("No resources found in the system.");
         return resources;
@@ -78,21 +91,29 @@ public class ResourceServiceImpl implements ResourceService {
      *
      * @param resourceId the ID of the resource to be updated
      * @param request the update request containing updated resource details
+     * @param expectedVersion the version the caller has seen, or null to update any version
      * @return the updated resource as a ResourceDTO
      * @throws ResourceNotFoundException if the resource is not found
      * @throws SecurityException if the user is not authorized to update the resource
+     * @throws VersionConflictException if the resource is no longer at the expected version
      */
     @Override
     @AdminOrOwner
-    public ResourceDTO updateResource(String token, Long resourceId, UpdateResourceRequestDTO request, ResourceType resourceType) {
+    @RetryOnConflict
+    @Transactional
+    public ResourceDTO updateResource(String token, Long resourceId, UpdateResourceRequestDTO request, ResourceType resourceType,
+                                      Long expectedVersion) {
 
         Resource resource = resourceRepo.findById(resourceId)
                 .orElseThrow(() -> new ResourceNotFoundException("The resource you are trying to update could not be found. Please check the ID and try again."));
+        if (expectedVersion != null && !expectedVersion.equals(resource.getVersion()))
+            throw new VersionConflictException("The resource was modified by someone else. Please reload it and try again.");
 
         resource.setName(request.resourceName());
         resource.setType(resourceType.name());
 
-        Resource updatedResource = resourceRepo.save(resource);
+        Resource updatedResource = resourceRepo.saveAndFlush(resource);
+        eventPublisher.publishEvent(ResourceChangedEvent.of(ResourceEventType.UPDATED, updatedResource));
         return resourceMapper.toDTO(updatedResource);
     }
 
@@ -105,10 +126,12 @@ public class ResourceServiceImpl implements ResourceService {
      */
     @Override
     @AdminOrOwner
+    @Transactional
     public void deleteResource(String token, Long resourceId) {
-        resourceRepo.findById(resourceId)
+        Resource resource = resourceRepo.findById(resourceId)
                 .orElseThrow(() -> new ResourceNotFoundException("The resource you are trying to delete could not be found. Please check the ID and try again."));
         resourceRepo.deleteById(resourceId);
+        eventPublisher.publishEvent(ResourceChangedEvent.of(ResourceEventType.DELETED, resource));
     }
 
     private Resource createResource(AddResourceRequestDTO request, ResourceType resourceType, String token) {
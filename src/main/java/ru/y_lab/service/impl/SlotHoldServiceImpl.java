@@ -0,0 +1,182 @@
+package ru.y_lab.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.y_lab.annotation.Loggable;
+import ru.y_lab.dto.AddBookingRequestDTO;
+import ru.y_lab.dto.BookingDTO;
+import ru.y_lab.dto.SlotHoldDTO;
+import ru.y_lab.event.BookingChangedEvent;
+import ru.y_lab.event.SlotHoldChangedEvent;
+import ru.y_lab.exception.AuthorizationException;
+import ru.y_lab.exception.BookingConflictException;
+import ru.y_lab.exception.InvalidBookingDataException;
+import ru.y_lab.exception.ResourceNotFoundException;
+import ru.y_lab.exception.SlotHoldNotFoundException;
+import ru.y_lab.hold.HoldExpiryScheduler;
+import ru.y_lab.mapper.BookingMapper;
+import ru.y_lab.mapper.CustomDateTimeMapper;
+import ru.y_lab.mapper.SlotHoldMapper;
+import ru.y_lab.model.Booking;
+import ru.y_lab.model.Resource;
+import ru.y_lab.model.SlotHold;
+import ru.y_lab.repo.BookingRepo;
+import ru.y_lab.repo.ResourceRepo;
+import ru.y_lab.repo.SlotHoldRepo;
+import ru.y_lab.service.JWTService;
+import ru.y_lab.service.SlotHoldService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static ru.y_lab.util.ValidationUtil.validateDateTime;
+
+/**
+ * The SlotHoldServiceImpl class provides an implementation of the SlotHoldService interface.
+ *
+ * <p>Placing and confirming a hold lock the resource row, like adding, updating and promoting bookings do, so the
+ * conflict checks against bookings and other holds and the insert happen atomically with respect to every other
+ * writer of the resource. Confirming consumes the hold under that lock, so a hold released or confirmed
+ * concurrently cannot be turned into a booking a second time. Holds expire after
+ * {@code holds.ttl-seconds}, see {@link HoldExpiryScheduler}; a user can have at most {@code holds.max-per-user}
+ * active holds.
+ */
+@Loggable
+@Service
+public class SlotHoldServiceImpl implements SlotHoldService {
+
+    private final SlotHoldMapper slotHoldMapper;
+    private final BookingMapper bookingMapper;
+    private final CustomDateTimeMapper dateTimeMapper;
+    private final SlotHoldRepo slotHoldRepo;
+    private final ResourceRepo resourceRepo;
+    private final BookingRepo bookingRepo;
+    private final JWTService jwtService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HoldExpiryScheduler holdExpiryScheduler;
+    private final Duration ttl;
+    private final int maxHoldsPerUser;
+
+    public SlotHoldServiceImpl(SlotHoldMapper slotHoldMapper,
+                               BookingMapper bookingMapper,
+                               CustomDateTimeMapper dateTimeMapper,
+                               SlotHoldRepo slotHoldRepo,
+                               ResourceRepo resourceRepo,
+                               BookingRepo bookingRepo,
+                               JWTService jwtService,
+                               ApplicationEventPublisher eventPublisher,
+                               HoldExpiryScheduler holdExpiryScheduler,
+                               @Value("${holds.ttl-seconds:120}") long ttlSeconds,
+                               @Value("${holds.max-per-user:5}") int maxHoldsPerUser) {
+        this.slotHoldMapper = slotHoldMapper;
+        this.bookingMapper = bookingMapper;
+        this.dateTimeMapper = dateTimeMapper;
+        this.slotHoldRepo = slotHoldRepo;
+        this.resourceRepo = resourceRepo;
+        this.bookingRepo = bookingRepo;
+        this.jwtService = jwtService;
+        this.eventPublisher = eventPublisher;
+        this.holdExpiryScheduler = holdExpiryScheduler;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.maxHoldsPerUser = maxHoldsPerUser;
+    }
+
+    /**
+     * Holds a free time period for the current user.
+     *
+     * @param token   the authentication token of the user making the request
+     * @param request the request containing the resource and the period to hold
+     * @return the created hold as a SlotHoldDTO
+     * @throws BookingConflictException if the period is already booked or held
+     * @throws InvalidBookingDataException if the user already has the maximum number of active holds
+     */
+    @Override
+    @Transactional
+    public SlotHoldDTO createHold(String token, AddBookingRequestDTO request) {
+        Long userId = jwtService.extractUserId(token);
+        Resource resource = resourceRepo.findByIdForUpdate(request.resourceId())
+                .orElseThrow(() -> new ResourceNotFoundException("The requested resource was not found."));
+
+        LocalDateTime startDateTime = dateTimeMapper.toLocalDateTime(request.startTime());
+        LocalDateTime endDateTime = dateTimeMapper.toLocalDateTime(request.endTime());
+        validateDateTime(startDateTime, endDateTime);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (slotHoldRepo.countActiveByUserId(userId, now) >= maxHoldsPerUser)
+            throw new InvalidBookingDataException("You already hold " + maxHoldsPerUser + " time periods. Please confirm or release one of them first.");
+        if (!bookingRepo.findOverlapping(resource.getId(), startDateTime, endDateTime).isEmpty() ||
+                !slotHoldRepo.findActiveOverlapping(resource.getId(), startDateTime, endDateTime, now).isEmpty())
+            throw new BookingConflictException("The resource is already booked or held for the specified time period.");
+
+        SlotHold hold = slotHoldRepo.save(SlotHold.builder()
+                .userId(userId)
+                .resourceId(resource.getId())
+                .startTime(startDateTime)
+                .endTime(endDateTime)
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build());
+        eventPublisher.publishEvent(SlotHoldChangedEvent.placed(hold));
+        holdExpiryScheduler.scheduleExpiry(hold);
+        return slotHoldMapper.toDTO(hold);
+    }
+
+    /**
+     * Releases a hold of the current user before it expires.
+     *
+     * @param token  the authentication token of the user making the request
+     * @param holdId the ID of the hold
+     */
+    @Override
+    @Transactional
+    public void releaseHold(String token, Long holdId) {
+        SlotHold hold = findOwnHold(token, holdId);
+        slotHoldRepo.deleteHold(hold.getId());
+        eventPublisher.publishEvent(SlotHoldChangedEvent.released(hold));
+    }
+
+    /**
+     * Turns a hold of the current user into a booking of the held period.
+     *
+     * @param token  the authentication token of the user making the request
+     * @param holdId the ID of the hold
+     * @return the created booking as a BookingDTO
+     * @throws SlotHoldNotFoundException if the hold does not exist or has expired
+     */
+    @Override
+    @Transactional
+    public BookingDTO confirmHold(String token, Long holdId) {
+        SlotHold hold = findOwnHold(token, holdId);
+        Resource resource = resourceRepo.findByIdForUpdate(hold.getResourceId())
+                .orElseThrow(() -> new ResourceNotFoundException("The requested resource was not found."));
+        if (!hold.getExpiresAt().isAfter(LocalDateTime.now()))
+            throw new SlotHoldNotFoundException("The hold has expired. Please hold the time period again.");
+        if (slotHoldRepo.deleteHold(hold.getId()) == 0)
+            throw new SlotHoldNotFoundException("The hold was not found.");
+        validateDateTime(hold.getStartTime(), hold.getEndTime());
+        if (!bookingRepo.findOverlapping(resource.getId(), hold.getStartTime(), hold.getEndTime()).isEmpty())
+            throw new BookingConflictException("The resource is already booked for the specified time period.");
+
+        Booking booking = bookingRepo.saveAndFlush(Booking.builder()
+                .userId(hold.getUserId())
+                .resourceId(resource.getId())
+                .resource(resource)
+                .startTime(hold.getStartTime())
+                .endTime(hold.getEndTime())
+                .build());
+        eventPublisher.publishEvent(BookingChangedEvent.added(booking));
+        eventPublisher.publishEvent(SlotHoldChangedEvent.confirmed(hold));
+        return bookingMapper.toDTO(booking);
+    }
+
+    private SlotHold findOwnHold(String token, Long holdId) {
+        Long userId = jwtService.extractUserId(token);
+        SlotHold hold = slotHoldRepo.findById(holdId)
+                .orElseThrow(() -> new SlotHoldNotFoundException("The hold was not found."));
+        if (!hold.getUserId().equals(userId))
+            throw new AuthorizationException("Access denied. You can only manage your own holds.");
+        return hold;
+    }
+}
@@ -0,0 +1,93 @@
+package ru.y_lab.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.y_lab.model.TokenRevocation;
+import ru.y_lab.repo.TokenRevocationRepo;
+import ru.y_lab.service.TokenRevocationService;
+import ru.y_lab.util.SortedLongMap;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * Implementation of {@link TokenRevocationService} based on a per-user watermark.
+ *
+ * <p>Revoking the tokens of a user stores "tokens issued before now" in {@code token_revocations}. The request
+ * path checks an in-memory copy held in a {@link SortedLongMap} of user ID to watermark in epoch seconds, so
+ * {@link #isRevoked} is a lock-free binary search. The copy is reloaded periodically to pick up revocations
+ * made by other instances. A watermark is dropped once every token it revokes has expired, so the map only
+ * holds users who changed credentials within the last token lifetime. A local revocation is applied to the copy
+ * only after its transaction commits, so a rolled back credential change never revokes tokens on this instance.
+ *
+ * <p>Token issue times have a resolution of one second: a token issued in the same second as the revocation
+ * stays valid.
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private final TokenRevocationRepo tokenRevocationRepo;
+    private final long tokenLifetimeSeconds;
+
+    private volatile SortedLongMap watermarks = SortedLongMap.empty();
+
+    public TokenRevocationServiceImpl(TokenRevocationRepo tokenRevocationRepo,
+                                      @Value("${jwt.expiration-ms:86400000}") long tokenLifetimeMs) {
+        this.tokenRevocationRepo = tokenRevocationRepo;
+        this.tokenLifetimeSeconds = tokenLifetimeMs / 1000;
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllTokens(Long userId) {
+        long nowSeconds = Instant.now().getEpochSecond();
+        tokenRevocationRepo.revokeBefore(userId, LocalDateTime.ofEpochSecond(nowSeconds, 0, ZoneOffset.UTC));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            merge(userId, nowSeconds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                merge(userId, nowSeconds);
+            }
+        });
+    }
+
+    @Override
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        if (userId == null || issuedAt == null)
+            return true;
+        return issuedAt.getTime() / 1000 < watermarks.get(userId, Long.MIN_VALUE);
+    }
+
+    /**
+     * Reloads the watermarks that can still revoke unexpired tokens and deletes the older ones.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:5000}")
+    @Transactional
+    public void refresh() {
+        long thresholdSeconds = Instant.now().getEpochSecond() - tokenLifetimeSeconds;
+        LocalDateTime threshold = LocalDateTime.ofEpochSecond(thresholdSeconds, 0, ZoneOffset.UTC);
+
+        tokenRevocationRepo.deleteRevokedBefore(threshold);
+        synchronized (this) {
+            watermarks = watermarks.withoutValuesBelow(thresholdSeconds);
+        }
+        for (TokenRevocation revocation : tokenRevocationRepo.findRevokedSince(threshold))
+            merge(revocation.getUserId(), revocation.getRevokedBefore().toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private synchronized void merge(long userId, long watermarkSeconds) {
+        if (watermarks.get(userId, Long.MIN_VALUE) < watermarkSeconds)
+            watermarks = watermarks.with(userId, watermarkSeconds);
+    }
+}
@@ -2,16 +2,23 @@ package ru.y_lab.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.y_lab.annotation.AdminOnly;
 import ru.y_lab.annotation.Loggable;
 import ru.y_lab.dto.*;
 import ru.y_lab.exception.InvalidCredentialsException;
 import ru.y_lab.exception.UserNotFoundException;
+import ru.y_lab.invalidation.Invalidation;
+import ru.y_lab.invalidation.InvalidationPublisher;
 import ru.y_lab.mapper.UserMapper;
 import ru.y_lab.model.User;
 import ru.y_lab.repo.UserRepo;
 import ru.y_lab.service.JWTService;
+import ru.y_lab.service.PasswordHashingService;
+import ru.y_lab.service.RefreshTokenService;
+import ru.y_lab.service.TokenRevocationService;
 import ru.y_lab.service.UserService;
+import ru.y_lab.throttle.LoginThrottle;
 
 import java.util.List;
 
@@ -27,6 +34,11 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final UserRepo userRepo;
     private final JWTService jwtService;
+    private final PasswordHashingService passwordHashingService;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginThrottle loginThrottle;
+    private final InvalidationPublisher invalidationPublisher;
 
     @Override
     public UserDTO registerUser(RegisterRequestDTO request) {
@@ -36,15 +48,33 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public TokenResponseDTO loginUser(LoginRequestDTO request) {
-        User user = userRepo.findByUsername(request.username())
-                .orElseThrow(() -> new InvalidCredentialsException("Invalid username or password"));
-
-        if (!user.getPassword().equals(request.password()))
+    public TokenResponseDTO loginUser(LoginRequestDTO request, String clientAddress) {
+        loginThrottle.acquire(request.username(), clientAddress);
+
+        User user = userRepo.findByUsername(request.username()).orElse(null);
+        // Unknown usernames are checked against a dummy hash, so they take as long to reject as wrong passwords
+        String storedPassword = user != null ? user.getPassword() : passwordHashingService.dummyHash();
+        boolean passwordMatches = passwordHashingService.matches(request.password(), storedPassword);
+        if (user == null || !passwordMatches) {
+            loginThrottle.recordFailure(request.username(), clientAddress);
             throw new InvalidCredentialsException("Invalid username or password");
+        }
+        loginThrottle.recordSuccess(request.username(), clientAddress);
 
-        String token = jwtService.generateToken(user.getUsername(), user.getId(), user.getRole());
-        return new TokenResponseDTO(token);
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.hash(request.password()));
+            userRepo.save(user);
+        }
+
+        return createTokenResponse(user, refreshTokenService.issue(user));
+    }
+
+    @Override
+    public TokenResponseDTO refreshToken(RefreshTokenRequestDTO request) {
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(request.refreshToken());
+        User user = userRepo.findById(rotated.userId())
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid or expired refresh token"));
+        return createTokenResponse(user, rotated.refreshToken());
     }
 
     @Override
@@ -67,6 +97,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDTO updateUser(String token, UpdateUserRequestDTO request) {
         Long userId = jwtService.extractUserId(token);
 
@@ -74,26 +105,36 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException("User not found. No user exists with the specified ID."));
 
         user.setUsername(request.username());
-        user.setPassword(request.password());
+        user.setPassword(passwordHashingService.hash(request.password()));
 
         User updatedUser = userRepo.save(user);
+        tokenRevocationService.revokeAllTokens(userId);
+        refreshTokenService.revokeAll(userId);
+        invalidationPublisher.publish(Invalidation.user(userId));
 
         return userMapper.toDTO(updatedUser);
     }
 
     @Override
+    @Transactional
     public void deleteUser(String token) {
         Long userId = jwtService.extractUserId(token);
 
         userRepo.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found. No user exists with the specified ID."));
         userRepo.deleteById(userId);
+        invalidationPublisher.publish(Invalidation.user(userId));
+    }
+
+    private TokenResponseDTO createTokenResponse(User user, String refreshToken) {
+        String token = jwtService.generateToken(user.getUsername(), user.getId(), user.getRole());
+        return new TokenResponseDTO(token, refreshToken, jwtService.getTokenLifetimeSeconds());
     }
 
     private User createUser(RegisterRequestDTO request) {
         return User.builder()
                 .username(request.username())
-                .password(request.password())
+                .password(passwordHashingService.hash(request.password()))
                 .role("USER")
                 .build();
     }
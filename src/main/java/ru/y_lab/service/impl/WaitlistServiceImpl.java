@@ -0,0 +1,171 @@
+package ru.y_lab.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.y_lab.annotation.Loggable;
+import ru.y_lab.dto.AddBookingRequestDTO;
+import ru.y_lab.dto.BookingDTO;
+import ru.y_lab.dto.WaitlistEntryDTO;
+import ru.y_lab.event.BookingChangedEvent;
+import ru.y_lab.exception.AuthorizationException;
+import ru.y_lab.exception.InvalidBookingDataException;
+import ru.y_lab.exception.ResourceNotFoundException;
+import ru.y_lab.exception.WaitlistEntryNotFoundException;
+import ru.y_lab.mapper.BookingMapper;
+import ru.y_lab.mapper.CustomDateTimeMapper;
+import ru.y_lab.mapper.WaitlistMapper;
+import ru.y_lab.model.Booking;
+import ru.y_lab.model.Resource;
+import ru.y_lab.model.WaitlistEntry;
+import ru.y_lab.repo.BookingRepo;
+import ru.y_lab.repo.ResourceRepo;
+import ru.y_lab.repo.SlotHoldRepo;
+import ru.y_lab.repo.WaitlistRepo;
+import ru.y_lab.service.JWTService;
+import ru.y_lab.service.WaitlistService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static ru.y_lab.util.ValidationUtil.validateDateTime;
+
+/**
+ * The WaitlistServiceImpl class provides an implementation of the WaitlistService interface.
+ * It interacts with the WaitlistRepository and BookingRepository to queue and promote booking requests.
+ */
+@Loggable
+@Service
+@RequiredArgsConstructor
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistMapper waitlistMapper;
+    private final BookingMapper bookingMapper;
+    private final CustomDateTimeMapper dateTimeMapper;
+    private final WaitlistRepo waitlistRepo;
+    private final ResourceRepo resourceRepo;
+    private final BookingRepo bookingRepo;
+    private final SlotHoldRepo slotHoldRepo;
+    private final JWTService jwtService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Queues a booking request for a time period that is currently occupied.
+     *
+     * @param token   the authentication token of the user making the request
+     * @param request the request containing booking details
+     * @return the created waitlist entry as a WaitlistEntryDTO
+     * @throws InvalidBookingDataException if the requested time period is neither booked nor held by another user
+     */
+    @Override
+    @Transactional
+    public WaitlistEntryDTO joinWaitlist(String token, AddBookingRequestDTO request) {
+        Long userId = jwtService.extractUserId(token);
+        Resource resource = resourceRepo.findById(request.resourceId())
+                .orElseThrow(() -> new ResourceNotFoundException("The requested resource was not found."));
+
+        LocalDateTime startDateTime = dateTimeMapper.toLocalDateTime(request.startTime());
+        LocalDateTime endDateTime = dateTimeMapper.toLocalDateTime(request.endTime());
+        validateDateTime(startDateTime, endDateTime);
+
+        if (bookingRepo.findOverlapping(resource.getId(), startDateTime, endDateTime).isEmpty() &&
+                slotHoldRepo.findActiveOverlapping(resource.getId(), startDateTime, endDateTime, LocalDateTime.now()).stream()
+                        .allMatch(hold -> hold.getUserId().equals(userId)))
+            throw new InvalidBookingDataException("The requested time period is available. Please book it directly instead of joining the waitlist.");
+
+        WaitlistEntry entry = WaitlistEntry.builder()
+                .userId(userId)
+                .resourceId(resource.getId())
+                .startTime(startDateTime)
+                .endTime(endDateTime)
+                .createdAt(LocalDateTime.now())
+                .build();
+        return waitlistMapper.toDTO(waitlistRepo.save(entry));
+    }
+
+    /**
+     * Retrieves the waitlist entries of the current user.
+     *
+     * @param token the authentication token of the user making the request
+     * @return a list of the user's waitlist entries
+     */
+    @Override
+    public List<WaitlistEntryDTO> getUserWaitlist(String token) {
+        Long userId = jwtService.extractUserId(token);
+        List<WaitlistEntry> entries = waitlistRepo.findByUserId(userId);
+        if (entries.isEmpty())
+            throw new WaitlistEntryNotFoundException("No waitlist entries were found for the current user.");
+        return entries.stream()
+                .map(waitlistMapper::toDTO)
+                .toList();
+    }
+
+    /**
+     * Removes a waitlist entry of the current user.
+     *
+     * @param token   the authentication token of the user making the request
+     * @param entryId the ID of the waitlist entry
+     */
+    @Override
+    @Transactional
+    public void leaveWaitlist(String token, Long entryId) {
+        Long userId = jwtService.extractUserId(token);
+        WaitlistEntry entry = waitlistRepo.findById(entryId)
+                .orElseThrow(() -> new WaitlistEntryNotFoundException("The waitlist entry to be removed was not found."));
+
+        if (!entry.getUserId().equals(userId))
+            throw new AuthorizationException("Access denied. You can only remove your own waitlist entries.");
+
+        waitlistRepo.delete(entry);
+    }
+
+    /**
+     * Turns waitlisted requests overlapping a freed time period into bookings, oldest first.
+     * Requests overlapping a period held by another user are skipped. The resource row is locked for the duration of the transaction, so the conflict re-check,
+     * the booking insert and the removal of the waitlist entry happen atomically. The promotion always runs in a
+     * new transaction, since it is triggered after the commit of the transaction that freed the period.
+     *
+     * @param resourceId the ID of the resource whose time period was freed
+     * @param startTime  the start of the freed period
+     * @param endTime    the end of the freed period
+     * @return the bookings created from the waitlist
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<BookingDTO> promoteWaitlisted(Long resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        Optional<Resource> resource = resourceRepo.findByIdForUpdate(resourceId);
+        if (resource.isEmpty())
+            return List.of();
+
+        List<BookingDTO> promoted = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (WaitlistEntry entry : waitlistRepo.findOverlapping(resourceId, startTime, endTime)) {
+            if (entry.getStartTime().isBefore(now)) {
+                waitlistRepo.delete(entry);
+                continue;
+            }
+            if (!bookingRepo.findOverlapping(resourceId, entry.getStartTime(), entry.getEndTime()).isEmpty())
+                continue;
+            if (slotHoldRepo.findActiveOverlapping(resourceId, entry.getStartTime(), entry.getEndTime(), now).stream()
+                    .anyMatch(hold -> !hold.getUserId().equals(entry.getUserId())))
+                continue;
+
+            Booking booking = bookingRepo.saveAndFlush(Booking.builder()
+                    .userId(entry.getUserId())
+                    .resourceId(resourceId)
+                    .resource(resource.get())
+                    .startTime(entry.getStartTime())
+                    .endTime(entry.getEndTime())
+                    .build());
+            waitlistRepo.delete(entry);
+            eventPublisher.publishEvent(BookingChangedEvent.added(booking));
+            promoted.add(bookingMapper.toDTO(booking));
+        }
+        return promoted;
+    }
+}
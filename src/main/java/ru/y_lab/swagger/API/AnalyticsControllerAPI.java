@@ -0,0 +1,90 @@
+package ru.y_lab.swagger.API;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.y_lab.dto.HourlyOccupancyDTO;
+import ru.y_lab.dto.ResourceOccupancyDTO;
+import ru.y_lab.dto.ResourceTypeOccupancyDTO;
+import ru.y_lab.swagger.shemas.AccessDeniedResponseSchema;
+import ru.y_lab.swagger.shemas.ForbiddenResponseSchema;
+import ru.y_lab.swagger.shemas.bookingAPI.BookingIllegalArgumentResponseSchema;
+import ru.y_lab.swagger.shemas.resourceAPI.ResourceNotFoundResponseSchema;
+
+import java.util.List;
+
+public interface AnalyticsControllerAPI {
+
+    @Operation(summary = "Get occupancy per resource",
+            description = "Retrieves booked minutes, booking count and utilization of business hours for every resource over an inclusive period",
+            security = @SecurityRequirement(name = "sessionAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Occupancy calculated",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResourceOccupancyDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid period",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookingIllegalArgumentResponseSchema.class))),
+            @ApiResponse(responseCode = "401", description = "Access denied. User is not authorized to perform this action.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "403", description = "You do not have the necessary permissions to access this resource.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ForbiddenResponseSchema.class)))
+    })
+    ResponseEntity<List<ResourceOccupancyDTO>> getResourceOccupancy(@RequestHeader("Authorization") String token,
+                                                                    @RequestParam Long from,
+                                                                    @RequestParam Long to);
+
+    @Operation(summary = "Get occupancy per resource type",
+            description = "Retrieves booked minutes, booking count and utilization of business hours for every resource type over an inclusive period",
+            security = @SecurityRequirement(name = "sessionAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Occupancy calculated",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResourceTypeOccupancyDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid period",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookingIllegalArgumentResponseSchema.class))),
+            @ApiResponse(responseCode = "401", description = "Access denied. User is not authorized to perform this action.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "403", description = "You do not have the necessary permissions to access this resource.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ForbiddenResponseSchema.class)))
+    })
+    ResponseEntity<List<ResourceTypeOccupancyDTO>> getResourceTypeOccupancy(@RequestHeader("Authorization") String token,
+                                                                            @RequestParam Long from,
+                                                                            @RequestParam Long to);
+
+    @Operation(summary = "Get occupancy per hour of day",
+            description = "Retrieves booked minutes and utilization for each hour of the day over an inclusive period, for one resource or all resources",
+            security = @SecurityRequirement(name = "sessionAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Occupancy calculated",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = HourlyOccupancyDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid period",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookingIllegalArgumentResponseSchema.class))),
+            @ApiResponse(responseCode = "401", description = "Access denied. User is not authorized to perform this action.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "403", description = "You do not have the necessary permissions to access this resource.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ForbiddenResponseSchema.class))),
+            @ApiResponse(responseCode = "404", description = "Resource not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class)))
+    })
+    ResponseEntity<List<HourlyOccupancyDTO>> getHourlyOccupancy(@RequestHeader("Authorization") String token,
+                                                                @RequestParam Long from,
+                                                                @RequestParam Long to,
+                                                                @RequestParam(required = false) Long resourceId);
+}
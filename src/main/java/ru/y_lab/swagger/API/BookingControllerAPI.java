@@ -1,16 +1,19 @@
 package ru.y_lab.swagger.API;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import ru.y_lab.dto.*;
+import ru.y_lab.service.IdempotencyService;
 import ru.y_lab.swagger.shemas.AccessDeniedResponseSchema;
 import ru.y_lab.swagger.shemas.ForbiddenResponseSchema;
 import ru.y_lab.swagger.shemas.bookingAPI.BookingIllegalArgumentResponseSchema;
@@ -35,10 +38,18 @@ public interface BookingControllerAPI {
                             schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
             @ApiResponse(responseCode = "403", description = "You do not have the necessary permissions to access this resource.",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = ForbiddenResponseSchema.class)))
+                            schema = @Schema(implementation = ForbiddenResponseSchema.class))),
+            @ApiResponse(responseCode = "422", description = "The Idempotency-Key was already used for a different request.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded. The Retry-After header tells when to try again.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
     })
     ResponseEntity<BookingDTO> addBooking(@RequestHeader("Authorization") String token,
-                                          @RequestBody AddBookingRequestDTO request);
+                                          @RequestBody AddBookingRequestDTO request,
+                                          @Parameter(description = "A unique key per booking to create; a retry with the same key returns the first response")
+                                          @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey);
 
     @Operation(summary = "Get booking by ID",
             description = "Retrieves a booking by its ID",
@@ -110,7 +121,7 @@ public interface BookingControllerAPI {
                                                                         @PathVariable Long date);
 
     @Operation(summary = "Get bookings by user ID",
-            description = "Retrieves bookings for a specific user ID",
+            description = "Retrieves the booking history for a specific user ID, including archived bookings",
             security = @SecurityRequirement(name = "sessionAuth"))
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Bookings found",
@@ -158,7 +169,10 @@ public interface BookingControllerAPI {
                             schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request data",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = BookingIllegalArgumentResponseSchema.class)))
+                            schema = @Schema(implementation = BookingIllegalArgumentResponseSchema.class))),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded. The Retry-After header tells when to try again.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
     })
     ResponseEntity<List<AvailableSlotDTO>> getAvailableSlots(@RequestHeader("Authorization") String token,
                                                              @RequestBody AvailableSlotsRequestDTO request);
@@ -178,11 +192,16 @@ public interface BookingControllerAPI {
                             schema = @Schema(implementation = ForbiddenResponseSchema.class))),
             @ApiResponse(responseCode = "404", description = "Booking not found",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class)))
+                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class))),
+            @ApiResponse(responseCode = "409", description = "The booking was modified by someone else: the If-Match version is stale or a concurrent update won.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
     })
     ResponseEntity<BookingDTO> updateBooking(@RequestHeader("Authorization") String token,
                                              @PathVariable Long bookingId,
-                                             @RequestBody UpdateBookingRequestDTO request);
+                                             @RequestBody UpdateBookingRequestDTO request,
+                                             @Parameter(description = "The ETag of the booking the update is based on, e.g. \"3\"")
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
 
     @Operation(summary = "Delete a booking",
             description = "Deletes a booking by its ID",
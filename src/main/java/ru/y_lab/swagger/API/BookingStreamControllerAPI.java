@@ -0,0 +1,41 @@
+package ru.y_lab.swagger.API;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.y_lab.dto.BookingEventDTO;
+import ru.y_lab.enums.ResourceType;
+import ru.y_lab.swagger.shemas.AccessDeniedResponseSchema;
+import ru.y_lab.swagger.shemas.bookingAPI.BookingIllegalArgumentResponseSchema;
+import ru.y_lab.swagger.shemas.resourceAPI.ResourceNotFoundResponseSchema;
+
+public interface BookingStreamControllerAPI {
+
+    @Operation(summary = "Stream booking changes",
+            description = "Opens a server-sent events stream with ADDED, UPDATED and DELETED events for a resource or a resource type. " +
+                    "A RESYNC event means some changes were dropped and the client has to reload the bookings.",
+            security = @SecurityRequirement(name = "sessionAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened",
+                    content = @Content(mediaType = "text/event-stream",
+                            schema = @Schema(implementation = BookingEventDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both of resourceId and resourceType were provided",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookingIllegalArgumentResponseSchema.class))),
+            @ApiResponse(responseCode = "401", description = "Access denied. User is not authorized to perform this action.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "404", description = "Resource not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class)))
+    })
+    SseEmitter streamBookings(@RequestHeader("Authorization") String token,
+                              @RequestParam(required = false) Long resourceId,
+                              @RequestParam(required = false) ResourceType resourceType);
+}
@@ -0,0 +1,35 @@
+package ru.y_lab.swagger.API;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
+import ru.y_lab.dto.RateLimitedUserDTO;
+import ru.y_lab.swagger.shemas.AccessDeniedResponseSchema;
+import ru.y_lab.swagger.shemas.ForbiddenResponseSchema;
+
+import java.util.List;
+
+public interface RateLimitControllerAPI {
+
+    @Operation(summary = "Get rate limited users",
+            description = "Retrieves the users whose requests were rejected by the rate limiter of this instance within the last window",
+            security = @SecurityRequirement(name = "sessionAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Limited users retrieved",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = RateLimitedUserDTO.class)))),
+            @ApiResponse(responseCode = "401", description = "Access denied. User is not authorized to perform this action.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "403", description = "You do not have the necessary permissions to access this resource.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ForbiddenResponseSchema.class)))
+    })
+    ResponseEntity<List<RateLimitedUserDTO>> getLimitedUsers(@RequestHeader("Authorization") String token);
+}
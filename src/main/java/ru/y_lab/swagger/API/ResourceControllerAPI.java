@@ -1,16 +1,19 @@
 package ru.y_lab.swagger.API;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.y_lab.dto.*;
 import ru.y_lab.enums.ResourceType;
+import ru.y_lab.service.IdempotencyService;
 import ru.y_lab.swagger.shemas.AccessDeniedResponseSchema;
 import ru.y_lab.swagger.shemas.ForbiddenResponseSchema;
 import ru.y_lab.swagger.shemas.resourceAPI.ResourceIllegalArgumentResponseSchema;
@@ -35,11 +38,16 @@ public interface ResourceControllerAPI {
                             schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
             @ApiResponse(responseCode = "403", description = "You do not have the necessary permissions to access this resource.",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = ForbiddenResponseSchema.class)))
+                            schema = @Schema(implementation = ForbiddenResponseSchema.class))),
+            @ApiResponse(responseCode = "422", description = "The Idempotency-Key was already used for a different request.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
     })
     ResponseEntity<ResourceDTO> addResource(@RequestHeader("Authorization") String token,
                                             @RequestBody AddResourceRequestDTO addResourceRequest,
-                                            @RequestParam ResourceType resourceType);
+                                            @RequestParam ResourceType resourceType,
+                                            @Parameter(description = "A unique key per resource to create; a retry with the same key returns the first response")
+                                            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey);
 
     @Operation(summary = "Get Resource By ID",
             description = "Retrieves the resource information based on its ID.",
@@ -98,12 +106,17 @@ public interface ResourceControllerAPI {
                             schema = @Schema(implementation = ForbiddenResponseSchema.class))),
             @ApiResponse(responseCode = "404", description = "Resource not found. No resource exists with the specified ID.",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class)))
+                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class))),
+            @ApiResponse(responseCode = "409", description = "The resource was modified by someone else: the If-Match version is stale or a concurrent update won.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
     })
     ResponseEntity<ResourceDTO> updateResource(@RequestHeader("Authorization") String token,
                                                @PathVariable("resourceId") Long resourceId,
                                                @RequestBody UpdateResourceRequestDTO request,
-                                               @RequestParam ResourceType resourceType);
+                                               @RequestParam ResourceType resourceType,
+                                               @Parameter(description = "The ETag of the resource the update is based on, e.g. \"3\"")
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
 
     @Operation(summary = "Delete resource",
             description = "Deletes a resource by its ID.",
@@ -0,0 +1,87 @@
+package ru.y_lab.swagger.API;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import ru.y_lab.dto.AddBookingRequestDTO;
+import ru.y_lab.dto.BookingDTO;
+import ru.y_lab.dto.ErrorResponse;
+import ru.y_lab.dto.SlotHoldDTO;
+import ru.y_lab.swagger.shemas.AccessDeniedResponseSchema;
+import ru.y_lab.swagger.shemas.ForbiddenResponseSchema;
+import ru.y_lab.swagger.shemas.bookingAPI.BookingIllegalArgumentResponseSchema;
+import ru.y_lab.swagger.shemas.resourceAPI.ResourceNotFoundResponseSchema;
+
+public interface SlotHoldControllerAPI {
+
+    @Operation(summary = "Hold a time period",
+            description = "Temporarily reserves a free time period while the booking is completed. Nobody else can book or hold the period until the hold is confirmed, released or expires.",
+            security = @SecurityRequirement(name = "sessionAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Time period held successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SlotHoldDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or too many active holds",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookingIllegalArgumentResponseSchema.class))),
+            @ApiResponse(responseCode = "401", description = "Access denied. User is not authorized to perform this action.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "404", description = "Resource not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class))),
+            @ApiResponse(responseCode = "409", description = "The time period is already booked or held",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    ResponseEntity<SlotHoldDTO> createHold(@RequestHeader("Authorization") String token,
+                                           @RequestBody AddBookingRequestDTO request);
+
+    @Operation(summary = "Release a hold",
+            description = "Releases a hold of the current user before it expires",
+            security = @SecurityRequirement(name = "sessionAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Hold released successfully"),
+            @ApiResponse(responseCode = "401", description = "Access denied. User is not authorized to perform this action.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "403", description = "You do not have the necessary permissions to access this resource.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ForbiddenResponseSchema.class))),
+            @ApiResponse(responseCode = "404", description = "Hold not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class)))
+    })
+    ResponseEntity<Void> releaseHold(@RequestHeader("Authorization") String token,
+                                     @PathVariable Long holdId);
+
+    @Operation(summary = "Confirm a hold",
+            description = "Turns a hold of the current user into a booking of the held period",
+            security = @SecurityRequirement(name = "sessionAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Booking created successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookingDTO.class))),
+            @ApiResponse(responseCode = "400", description = "The held period has already started",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookingIllegalArgumentResponseSchema.class))),
+            @ApiResponse(responseCode = "401", description = "Access denied. User is not authorized to perform this action.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "403", description = "You do not have the necessary permissions to access this resource.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ForbiddenResponseSchema.class))),
+            @ApiResponse(responseCode = "404", description = "Hold not found or expired",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class)))
+    })
+    ResponseEntity<BookingDTO> confirmHold(@RequestHeader("Authorization") String token,
+                                           @PathVariable Long holdId);
+}
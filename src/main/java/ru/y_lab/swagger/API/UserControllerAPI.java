@@ -1,11 +1,13 @@
 package ru.y_lab.swagger.API;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -41,10 +43,30 @@ public interface UserControllerAPI {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = UserIllegalArgumentResponseSchema.class))),
             @ApiResponse(responseCode = "401", description = "Invalid credentials.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "429", description = "Too many login attempts for the username or from the client address. "
+                    + "The Retry-After header tells when to try again.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    ResponseEntity<TokenResponseDTO> loginUser(@RequestBody LoginRequestDTO request, @Parameter(hidden = true) HttpServletRequest httpRequest);
+
+    @Operation(summary = "Refresh tokens",
+            description = "Exchanges a refresh token for a new bearer token and a new refresh token. "
+                    + "Each refresh token can be used once; reusing one revokes all tokens of the user.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens refreshed successfully.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TokenResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserIllegalArgumentResponseSchema.class))),
+            @ApiResponse(responseCode = "401", description = "Invalid, expired or reused refresh token.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AccessDeniedResponseSchema.class)))
     })
-    ResponseEntity<TokenResponseDTO> loginUser(@RequestBody LoginRequestDTO request);
+    ResponseEntity<TokenResponseDTO> refreshToken(@RequestBody RefreshTokenRequestDTO request);
 
     @Operation(summary = "Get User By ID",
             description = "Retrieves the profile information of a user based on their ID.",
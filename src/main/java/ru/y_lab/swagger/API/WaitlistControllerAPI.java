@@ -0,0 +1,77 @@
+package ru.y_lab.swagger.API;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import ru.y_lab.dto.AddBookingRequestDTO;
+import ru.y_lab.dto.WaitlistEntryDTO;
+import ru.y_lab.swagger.shemas.AccessDeniedResponseSchema;
+import ru.y_lab.swagger.shemas.ForbiddenResponseSchema;
+import ru.y_lab.swagger.shemas.bookingAPI.BookingIllegalArgumentResponseSchema;
+import ru.y_lab.swagger.shemas.resourceAPI.ResourceNotFoundResponseSchema;
+
+import java.util.List;
+
+public interface WaitlistControllerAPI {
+
+    @Operation(summary = "Join the waitlist",
+            description = "Queues a booking request for an occupied time period. The request is turned into a booking automatically once the period is freed.",
+            security = @SecurityRequirement(name = "sessionAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Request queued successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = WaitlistEntryDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or the time period is available",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookingIllegalArgumentResponseSchema.class))),
+            @ApiResponse(responseCode = "401", description = "Access denied. User is not authorized to perform this action.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "404", description = "Resource not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class)))
+    })
+    ResponseEntity<WaitlistEntryDTO> joinWaitlist(@RequestHeader("Authorization") String token,
+                                                  @RequestBody AddBookingRequestDTO request);
+
+    @Operation(summary = "Get user waitlist",
+            description = "Retrieves the waitlist entries of the current user",
+            security = @SecurityRequirement(name = "sessionAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Waitlist entries found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = WaitlistEntryDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Access denied. User is not authorized to perform this action.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "404", description = "No waitlist entries found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class)))
+    })
+    ResponseEntity<List<WaitlistEntryDTO>> getUserWaitlist(@RequestHeader("Authorization") String token);
+
+    @Operation(summary = "Leave the waitlist",
+            description = "Removes a waitlist entry of the current user",
+            security = @SecurityRequirement(name = "sessionAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Waitlist entry removed successfully"),
+            @ApiResponse(responseCode = "401", description = "Access denied. User is not authorized to perform this action.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccessDeniedResponseSchema.class))),
+            @ApiResponse(responseCode = "403", description = "You do not have the necessary permissions to access this resource.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ForbiddenResponseSchema.class))),
+            @ApiResponse(responseCode = "404", description = "Waitlist entry not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResourceNotFoundResponseSchema.class)))
+    })
+    ResponseEntity<Void> leaveWaitlist(@RequestHeader("Authorization") String token,
+                                       @PathVariable Long entryId);
+}
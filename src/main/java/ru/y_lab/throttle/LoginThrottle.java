@@ -0,0 +1,163 @@
+package ru.y_lab.throttle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.y_lab.exception.LoginThrottledException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles login attempts per username and per client address so that credential stuffing is rejected
+ * before it reaches the database or the password hasher.
+ *
+ * <p>Each username and each address has a token bucket; an attempt needs a token from both. The address bucket
+ * is charged first, so attempts rejected for their address do not drain the bucket of the username.
+ * Consecutive failed logins lock the key out for {@code lockout-base-seconds}, doubling with every further
+ * failure up to {@code lockout-max-seconds}; a successful login clears the failures. Addresses are only locked
+ * out when {@code address.lockouts-enabled} is set: the client address is only trustworthy if every proxy in front
+ * of the application is configured in {@code server.tomcat.remoteip.internal-proxies}, and otherwise all clients
+ * share the address of the load balancer, which a lockout would block for everyone. The state lives in bounded
+ * in-memory {@link ThrottleTable tables} of {@code max-entries} keys per dimension, swept every
+ * {@code sweep-interval-ms}, and is not shared between instances.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final String THROTTLED_MESSAGE = "Too many login attempts. Please try again later.";
+
+    private final ThrottleTable usernames;
+    private final ThrottleTable addresses;
+
+    private final Counter admittedCounter;
+    private final Counter usernameThrottledCounter;
+    private final Counter addressThrottledCounter;
+    private final Counter lockedOutCounter;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${security.login-throttle.max-entries:100000}") int maxEntries,
+                         @Value("${security.login-throttle.idle-timeout-minutes:60}") long idleTimeoutMinutes,
+                         @Value("${security.login-throttle.lockout-base-seconds:1}") long lockoutBaseSeconds,
+                         @Value("${security.login-throttle.lockout-max-seconds:900}") long lockoutMaxSeconds,
+                         @Value("${security.login-throttle.username.capacity:10}") int usernameCapacity,
+                         @Value("${security.login-throttle.username.refill-per-minute:5}") double usernameRefillPerMinute,
+                         @Value("${security.login-throttle.username.lockout-threshold:5}") int usernameLockoutThreshold,
+                         @Value("${security.login-throttle.address.capacity:50}") int addressCapacity,
+                         @Value("${security.login-throttle.address.refill-per-minute:30}") double addressRefillPerMinute,
+                         @Value("${security.login-throttle.address.lockout-threshold:50}") int addressLockoutThreshold,
+                         @Value("${security.login-throttle.address.lockouts-enabled:false}") boolean addressLockouts) {
+        long idleNanos = TimeUnit.MINUTES.toNanos(idleTimeoutMinutes);
+        long lockoutBaseNanos = TimeUnit.SECONDS.toNanos(lockoutBaseSeconds);
+        long lockoutMaxNanos = TimeUnit.SECONDS.toNanos(lockoutMaxSeconds);
+        this.usernames = new ThrottleTable(new ThrottleLimits(usernameCapacity, perNano(usernameRefillPerMinute),
+                usernameLockoutThreshold, lockoutBaseNanos, lockoutMaxNanos), maxEntries, idleNanos);
+        this.addresses = new ThrottleTable(new ThrottleLimits(addressCapacity, perNano(addressRefillPerMinute),
+                addressLockoutThreshold, lockoutBaseNanos, lockoutMaxNanos), maxEntries, idleNanos, addressLockouts);
+
+        this.admittedCounter = Counter.builder("auth.login.attempts")
+                .description("Login attempts admitted or rejected by the login throttle")
+                .tag("outcome", "admitted")
+                .tag("reason", "none")
+                .register(meterRegistry);
+        this.usernameThrottledCounter = throttledCounter(meterRegistry, "username");
+        this.addressThrottledCounter = throttledCounter(meterRegistry, "address");
+        this.lockedOutCounter = throttledCounter(meterRegistry, "lockout");
+        Gauge.builder("auth.login.throttle.entries", usernames, ThrottleTable::size)
+                .description("Keys tracked by the login throttle")
+                .tag("dimension", "username")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.throttle.entries", addresses, ThrottleTable::size)
+                .description("Keys tracked by the login throttle")
+                .tag("dimension", "address")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a login attempt or rejects it.
+     *
+     * @param username the username of the attempt
+     * @param clientAddress the address of the client making the attempt
+     * @throws LoginThrottledException if the username or the address is locked out or out of tokens
+     */
+    public void acquire(String username, String clientAddress) {
+        long now = System.nanoTime();
+        ThrottleEntry user = usernames.entry(username, now);
+        ThrottleEntry address = addresses.entry(clientAddress, now);
+
+        long lockedOutFor = Math.max(user.lockedOutFor(now), address.lockedOutFor(now));
+        if (lockedOutFor > 0) {
+            lockedOutCounter.increment();
+            throw throttled(lockedOutFor);
+        }
+
+        long waitNanos = address.tryAcquire(now);
+        if (waitNanos > 0) {
+            addressThrottledCounter.increment();
+            throw throttled(waitNanos);
+        }
+        waitNanos = user.tryAcquire(now);
+        if (waitNanos > 0) {
+            usernameThrottledCounter.increment();
+            throw throttled(waitNanos);
+        }
+        admittedCounter.increment();
+    }
+
+    /**
+     * Records a login attempt with wrong credentials.
+     *
+     * @param username the username of the attempt
+     * @param clientAddress the address of the client that made the attempt
+     */
+    public void recordFailure(String username, String clientAddress) {
+        long now = System.nanoTime();
+        usernames.entry(username, now).recordFailure(now);
+        addresses.entry(clientAddress, now).recordFailure(now);
+    }
+
+    /**
+     * Records a successful login, which clears the failures of the username and the address.
+     *
+     * @param username the username of the attempt
+     * @param clientAddress the address of the client that made the attempt
+     */
+    public void recordSuccess(String username, String clientAddress) {
+        long now = System.nanoTime();
+        ThrottleEntry user = usernames.find(username);
+        if (user != null)
+            user.recordSuccess(now);
+        ThrottleEntry address = addresses.find(clientAddress);
+        if (address != null)
+            address.recordSuccess(now);
+    }
+
+    /**
+     * Drops the entries that no longer affect any decision.
+     */
+    @Scheduled(fixedDelayString = "${security.login-throttle.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        usernames.evictIdle(now);
+        addresses.evictIdle(now);
+    }
+
+    private static double perNano(double perMinute) {
+        return perMinute / TimeUnit.MINUTES.toNanos(1);
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.login.attempts")
+                .description("Login attempts admitted or rejected by the login throttle")
+                .tag("outcome", "throttled")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static LoginThrottledException throttled(long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new LoginThrottledException(THROTTLED_MESSAGE, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.y_lab.throttle;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import ru.y_lab.enums.RoleType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user rate limits of the API, bound from {@code rate-limit.*}.
+ *
+ * @param enabled whether requests are rate limited at all
+ * @param window the length of the sliding window the limits apply to
+ * @param stripes the number of map stripes per rule; rounded up to a power of two
+ * @param rules the limited endpoints
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("60s") Duration window,
+        @DefaultValue("16") int stripes,
+        @DefaultValue List<Rule> rules) {
+
+    /**
+     * Limits of a single endpoint.
+     *
+     * @param name the name of the rule, used in metrics and reports
+     * @param method the HTTP method of the endpoint
+     * @param path the exact servlet path of the endpoint
+     * @param limits the number of requests a user may make per window, by role; roles without a limit are not limited
+     */
+    public record Rule(String name, String method, String path, @DefaultValue Map<RoleType, Integer> limits) { }
+}
@@ -0,0 +1,158 @@
+package ru.y_lab.throttle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.y_lab.dto.RateLimitedUserDTO;
+import ru.y_lab.enums.RoleType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-user rate limiter of the endpoints configured in {@link RateLimitProperties}.
+ *
+ * <p>Every rule keeps a {@link SlidingWindowCounter} per user. The counters are spread over
+ * {@code rate-limit.stripes} concurrent maps by user ID, so that map resizes and idle sweeps only ever touch
+ * one stripe. Counters of users that have been quiet for two windows are dropped.
+ */
+@Component
+public class RateLimiter {
+
+    private final RateLimitProperties properties;
+    private final long windowNanos;
+    private final Map<String, List<LimitedEndpoint>> endpointsByPath = new HashMap<>();
+    private final List<LimitedEndpoint> endpoints = new ArrayList<>();
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.windowNanos = properties.window().toNanos();
+        int stripes = Integer.highestOneBit(Math.max(properties.stripes() - 1, 1)) << 1;
+        for (RateLimitProperties.Rule rule : properties.rules()) {
+            LimitedEndpoint endpoint = new LimitedEndpoint(rule, stripes, meterRegistry);
+            endpoints.add(endpoint);
+            endpointsByPath.computeIfAbsent(rule.path(), path -> new ArrayList<>()).add(endpoint);
+        }
+        Gauge.builder("ratelimit.limited.users", this, limiter -> limiter.getLimitedUsers().size())
+                .description("Users with requests rejected by the rate limiter within the last window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the limited endpoint a request goes to.
+     *
+     * @param method the HTTP method of the request
+     * @param path the servlet path of the request
+     * @return the limited endpoint, or null if the request is not rate limited
+     */
+    public LimitedEndpoint find(String method, String path) {
+        if (!properties.enabled())
+            return null;
+        List<LimitedEndpoint> candidates = endpointsByPath.get(path);
+        if (candidates == null)
+            return null;
+        for (LimitedEndpoint endpoint : candidates) {
+            if (endpoint.rule.method().equalsIgnoreCase(method))
+                return endpoint;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the users with requests rejected within the last window, most rejected first.
+     *
+     * @return the limited users per endpoint
+     */
+    public List<RateLimitedUserDTO> getLimitedUsers() {
+        long now = System.nanoTime();
+        List<RateLimitedUserDTO> limited = new ArrayList<>();
+        for (LimitedEndpoint endpoint : endpoints) {
+            for (ConcurrentMap<Long, SlidingWindowCounter> stripe : endpoint.stripes) {
+                stripe.forEach((userId, counter) -> {
+                    long rejected = counter.recentlyRejected(now, windowNanos);
+                    if (rejected > 0)
+                        limited.add(new RateLimitedUserDTO(userId, endpoint.rule.name(), rejected, counter.lastRejectedAt()));
+                });
+            }
+        }
+        limited.sort(Comparator.comparing(RateLimitedUserDTO::rejectedRequests).reversed());
+        return limited;
+    }
+
+    /**
+     * Drops the counters of users that have been quiet for two windows.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (LimitedEndpoint endpoint : endpoints) {
+            for (ConcurrentMap<Long, SlidingWindowCounter> stripe : endpoint.stripes)
+                stripe.values().removeIf(counter -> counter.isIdle(now));
+        }
+    }
+
+    /**
+     * A rate limited endpoint with the counters of its users.
+     */
+    public final class LimitedEndpoint {
+
+        private final RateLimitProperties.Rule rule;
+        private final Map<RoleType, Integer> limits;
+        private final ConcurrentMap<Long, SlidingWindowCounter>[] stripes;
+        private final Counter admittedCounter;
+        private final Counter rejectedCounter;
+
+        @SuppressWarnings("unchecked")
+        private LimitedEndpoint(RateLimitProperties.Rule rule, int stripeCount, MeterRegistry meterRegistry) {
+            this.rule = rule;
+            this.limits = rule.limits().isEmpty() ? new EnumMap<>(RoleType.class) : new EnumMap<>(rule.limits());
+            this.stripes = new ConcurrentMap[stripeCount];
+            for (int i = 0; i < stripeCount; i++)
+                stripes[i] = new ConcurrentHashMap<>();
+            this.admittedCounter = Counter.builder("ratelimit.requests")
+                    .description("Requests admitted or rejected by the rate limiter")
+                    .tag("rule", rule.name())
+                    .tag("outcome", "admitted")
+                    .register(meterRegistry);
+            this.rejectedCounter = Counter.builder("ratelimit.requests")
+                    .description("Requests admitted or rejected by the rate limiter")
+                    .tag("rule", rule.name())
+                    .tag("outcome", "rejected")
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Counts a request of a user against the limit of the user's role.
+         *
+         * @param userId the ID of the user
+         * @param role the role of the user
+         * @return 0 if the request is admitted, otherwise the nanoseconds until it would be
+         */
+        public long tryAcquire(Long userId, RoleType role) {
+            Integer limit = limits.get(role);
+            if (limit == null)
+                return 0;
+
+            long now = System.nanoTime();
+            ConcurrentMap<Long, SlidingWindowCounter> stripe = stripes[Long.hashCode(userId) & (stripes.length - 1)];
+            SlidingWindowCounter counter = stripe.get(userId);
+            if (counter == null)
+                counter = stripe.computeIfAbsent(userId, id -> new SlidingWindowCounter(windowNanos, now));
+
+            long waitNanos = counter.tryAcquire(limit, now, System.currentTimeMillis());
+            if (waitNanos > 0)
+                rejectedCounter.increment();
+            else
+                admittedCounter.increment();
+            return waitNanos;
+        }
+    }
+}
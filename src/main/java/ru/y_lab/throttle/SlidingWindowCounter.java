@@ -0,0 +1,83 @@
+package ru.y_lab.throttle;
+
+/**
+ * Sliding window request counter of one user on one endpoint.
+ *
+ * <p>The window is approximated from the counts of the current and the previous fixed window: the previous count
+ * is weighted by the share of the previous window that still overlaps the sliding one. This needs two counters
+ * per user instead of a timestamp per request.
+ */
+final class SlidingWindowCounter {
+
+    private final long windowNanos;
+    private long windowStart;
+    private long current;
+    private long previous;
+    private long rejected;
+    private long lastRejectedAt;
+    private long lastRejectedNanos;
+    private long lastSeen;
+
+    SlidingWindowCounter(long windowNanos, long now) {
+        this.windowNanos = windowNanos;
+        this.windowStart = now;
+        this.lastSeen = now;
+    }
+
+    /**
+     * Counts a request if it fits the limit.
+     *
+     * @param limit the number of requests allowed per window
+     * @param now the current {@link System#nanoTime()}
+     * @param nowMillis the current time in milliseconds since epoch, recorded for rejected requests
+     * @return 0 if the request was counted, otherwise the nanoseconds until it would fit
+     */
+    synchronized long tryAcquire(int limit, long now, long nowMillis) {
+        advance(now);
+        lastSeen = now;
+
+        long elapsed = now - windowStart;
+        double previousWeight = 1 - (double) elapsed / windowNanos;
+        if (previous * previousWeight + current + 1 <= limit) {
+            current++;
+            return 0;
+        }
+
+        rejected++;
+        lastRejectedAt = nowMillis;
+        lastRejectedNanos = now;
+        if (current + 1 <= limit && previous > 0) {
+            long fitsAt = (long) (windowNanos * (1 - (double) (limit - 1 - current) / previous));
+            return Math.max(fitsAt - elapsed, 1);
+        }
+        return windowNanos - elapsed;
+    }
+
+    /**
+     * Returns the rejected requests since the counter was created, if any happened within the given time.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @param recentNanos how far back a rejection counts as recent
+     * @return the number of rejected requests, or 0 if the last rejection is not recent
+     */
+    synchronized long recentlyRejected(long now, long recentNanos) {
+        return rejected > 0 && now - lastRejectedNanos < recentNanos ? rejected : 0;
+    }
+
+    synchronized long lastRejectedAt() {
+        return lastRejectedAt;
+    }
+
+    synchronized boolean isIdle(long now) {
+        return now - lastSeen >= 2 * windowNanos;
+    }
+
+    private void advance(long now) {
+        long windows = (now - windowStart) / windowNanos;
+        if (windows <= 0)
+            return;
+        previous = windows == 1 ? current : 0;
+        current = 0;
+        windowStart += windows * windowNanos;
+    }
+}
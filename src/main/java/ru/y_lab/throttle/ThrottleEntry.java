@@ -0,0 +1,112 @@
+package ru.y_lab.throttle;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket with a failure-driven lockout for a single username or client address.
+ *
+ * <p>The state is an immutable snapshot replaced with compare-and-set, so concurrent attempts on the same key
+ * never block each other. An entry created without lockouts only rate limits; it ignores failures.
+ */
+final class ThrottleEntry {
+
+    private record State(double tokens, long refilledAt, int failures, long lockedUntil) { }
+
+    private final ThrottleLimits limits;
+    private final boolean lockouts;
+    private final AtomicReference<State> state;
+
+    ThrottleEntry(ThrottleLimits limits, long now) {
+        this(limits, now, true);
+    }
+
+    ThrottleEntry(ThrottleLimits limits, long now, boolean lockouts) {
+        this.limits = limits;
+        this.lockouts = lockouts;
+        this.state = new AtomicReference<>(new State(limits.capacity(), now, 0, now));
+    }
+
+    /**
+     * Returns how long the key stays locked out.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return the remaining lockout in nanoseconds, or 0 if the key is not locked out
+     */
+    long lockedOutFor(long now) {
+        return Math.max(state.get().lockedUntil() - now, 0);
+    }
+
+    /**
+     * Takes one token from the bucket.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            State current = state.get();
+            double tokens = refill(current, now);
+            if (tokens < 1)
+                return (long) Math.ceil((1 - tokens) / limits.refillPerNano());
+
+            State next = new State(tokens - 1, now, current.failures(), current.lockedUntil());
+            if (state.compareAndSet(current, next))
+                return 0;
+        }
+    }
+
+    /**
+     * Records a failed attempt and starts or extends the lockout once the threshold is reached.
+     *
+     * @param now the current {@link System#nanoTime()}
+     */
+    void recordFailure(long now) {
+        if (!lockouts)
+            return;
+        while (true) {
+            State current = state.get();
+            int failures = current.failures() == Integer.MAX_VALUE ? Integer.MAX_VALUE : current.failures() + 1;
+            long lockout = limits.lockoutNanos(failures);
+            long lockedUntil = lockout > 0 ? now + lockout : current.lockedUntil();
+            State next = new State(current.tokens(), current.refilledAt(), failures, lockedUntil);
+            if (state.compareAndSet(current, next))
+                return;
+        }
+    }
+
+    /**
+     * Records a successful attempt, which clears the failures and the lockout.
+     *
+     * @param now the current {@link System#nanoTime()}
+     */
+    void recordSuccess(long now) {
+        while (true) {
+            State current = state.get();
+            if (current.failures() == 0)
+                return;
+            State next = new State(current.tokens(), current.refilledAt(), 0, now);
+            if (state.compareAndSet(current, next))
+                return;
+        }
+    }
+
+    /**
+     * Checks whether the entry carries no information: it is not locked out, and its bucket has been full
+     * for at least the given time.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @param idleNanos the idle time after which the entry can be dropped
+     * @return true if dropping the entry does not change any future decision
+     */
+    boolean isIdle(long now, long idleNanos) {
+        State current = state.get();
+        return now - current.lockedUntil() >= idleNanos
+                && now - current.refilledAt() >= idleNanos
+                && refill(current, now) >= limits.capacity();
+    }
+
+    private double refill(State current, long now) {
+        long elapsed = Math.max(now - current.refilledAt(), 0);
+        return Math.min(limits.capacity(), current.tokens() + elapsed * limits.refillPerNano());
+    }
+}
@@ -0,0 +1,29 @@
+package ru.y_lab.throttle;
+
+/**
+ * Token bucket and lockout settings of one {@link ThrottleTable}.
+ *
+ * @param capacity the maximum number of attempts that can be made in a burst
+ * @param refillPerNano the number of attempts regained per nanosecond
+ * @param lockoutThreshold the number of consecutive failures after which the key is locked out
+ * @param lockoutBaseNanos the duration of the first lockout; each further failure doubles it
+ * @param lockoutMaxNanos the upper bound of a lockout
+ */
+record ThrottleLimits(int capacity, double refillPerNano, int lockoutThreshold, long lockoutBaseNanos, long lockoutMaxNanos) {
+
+    /**
+     * Returns the lockout duration after the given number of consecutive failures.
+     *
+     * @param failures the number of consecutive failures
+     * @return the lockout duration in nanoseconds, or 0 if the key is not locked out yet
+     */
+    long lockoutNanos(int failures) {
+        if (failures < lockoutThreshold)
+            return 0;
+        long doublings = (long) failures - lockoutThreshold;
+        // Shifting further would move the highest bit of the base into the sign bit
+        if (doublings >= Long.numberOfLeadingZeros(lockoutBaseNanos))
+            return lockoutMaxNanos;
+        return Math.min(lockoutBaseNanos << doublings, lockoutMaxNanos);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.y_lab.throttle;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded map of {@link ThrottleEntry throttle entries} for one dimension, such as usernames or client addresses.
+ *
+ * <p>Lookups of existing keys are plain {@link ConcurrentHashMap#get} calls. Idle entries are dropped by a
+ * periodic {@link #evictIdle sweep}, never on the request path. While the table is full, new keys share a single
+ * overflow entry, so a flood of distinct keys is rate limited as one key instead of growing the table. The
+ * overflow entry records no failures: otherwise the failures of unrelated keys would add up to a lockout of
+ * every key that is not tracked. A table created without lockouts only rate limits its keys.
+ */
+final class ThrottleTable {
+
+    private final ThrottleLimits limits;
+    private final int maxEntries;
+    private final long idleNanos;
+    private final boolean lockouts;
+    private final ConcurrentMap<String, ThrottleEntry> entries = new ConcurrentHashMap<>();
+    private final ThrottleEntry overflow;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    ThrottleTable(ThrottleLimits limits, int maxEntries, long idleNanos) {
+        this(limits, maxEntries, idleNanos, true);
+    }
+
+    ThrottleTable(ThrottleLimits limits, int maxEntries, long idleNanos, boolean lockouts) {
+        this.limits = limits;
+        this.maxEntries = maxEntries;
+        this.idleNanos = idleNanos;
+        this.lockouts = lockouts;
+        this.overflow = new ThrottleEntry(limits, System.nanoTime(), false);
+    }
+
+    /**
+     * Returns the entry of a key, creating it if needed.
+     *
+     * @param key the username or the client address
+     * @param now the current {@link System#nanoTime()}
+     * @return the entry of the key, or the shared overflow entry if the table is full
+     */
+    ThrottleEntry entry(String key, long now) {
+        ThrottleEntry entry = entries.get(key);
+        if (entry != null)
+            return entry;
+
+        if (entries.size() >= maxEntries)
+            return overflow;
+
+        ThrottleEntry created = new ThrottleEntry(limits, now, lockouts);
+        ThrottleEntry existing = entries.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * Returns the entry of a key without creating it.
+     *
+     * @param key the username or the client address
+     * @return the entry of the key, or null if the key is not tracked
+     */
+    ThrottleEntry find(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Drops the idle entries. Takes time linear in the size of the table, so it is only called by the periodic
+     * sweep. Only one thread evicts at a time; the others return immediately.
+     *
+     * @param now the current {@link System#nanoTime()}
+     */
+    void evictIdle(long now) {
+        if (!evicting.compareAndSet(false, true))
+            return;
+        try {
+            entries.values().removeIf(entry -> entry.isIdle(now, idleNanos));
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,78 @@
+package ru.y_lab.util;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pre-serialized JSON body of an {@link ru.y_lab.dto.ErrorResponse} with a fixed status and message.
+ *
+ * <p>Everything except the timestamp is encoded once, so writing the body only copies the cached bytes and
+ * the timestamp digits to the servlet output stream, without building an object or a string.
+ */
+public final class ErrorResponseTemplate {
+
+    private static final byte[] SUFFIX = {'}'};
+
+    private final int status;
+    private final byte[] prefix;
+
+    public ErrorResponseTemplate(int status, String message) {
+        this.status = status;
+        this.prefix = ("{\"status\":" + status
+                + ",\"message\":" + quote(message)
+                + ",\"timestamp\":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the status, the headers and the body to the response.
+     *
+     * @param response the response to write to
+     * @param timestamp the timestamp of the error in milliseconds since the epoch
+     * @throws IOException if writing the body fails
+     */
+    public void writeTo(HttpServletResponse response, long timestamp) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(prefix.length + digitCount(timestamp) + SUFFIX.length);
+
+        ServletOutputStream out = response.getOutputStream();
+        out.write(prefix);
+        writeDigits(out, timestamp);
+        out.write(SUFFIX);
+        out.flush();
+    }
+
+    private static String quote(String message) {
+        if (message == null)
+            return "null";
+        return "\"" + new String(JsonStringEncoder.getInstance().quoteAsString(message)) + "\"";
+    }
+
+    private static int digitCount(long value) {
+        if (value < 0)
+            return 1 + digitCount(-value);
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    private static void writeDigits(ServletOutputStream out, long value) throws IOException {
+        if (value < 0) {
+            out.write('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10)
+            divisor *= 10;
+        for (; divisor > 0; divisor /= 10)
+            out.write((int) ('0' + (value / divisor) % 10));
+    }
+}
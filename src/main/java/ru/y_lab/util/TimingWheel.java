@@ -0,0 +1,232 @@
+package ru.y_lab.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for a large number of coarse-grained timeouts.
+ *
+ * <p>Time advances in ticks of a fixed length. The wheel has four levels of 64 slots each: level 0 holds the
+ * timeouts due within the next 64 ticks, level 1 those due within 64² ticks, and so on. Whenever the lower
+ * level completes a revolution, the next slot of the level above is cascaded down, so every timeout is moved
+ * at most three times before it fires. Scheduling and cancelling are O(1) and allocate one small node; a tick
+ * costs O(1) plus the number of timeouts it fires or cascades, regardless of how many timeouts are pending.
+ * Timeouts further away than the top level can represent are parked in its farthest slot and re-placed when
+ * they are cascaded.
+ *
+ * <p>{@link #schedule} and {@link Timeout#cancel()} may be called from any thread; new timeouts are handed over
+ * through a lock-free queue. {@link #advance} must always be called from the same single thread. Timeouts fire
+ * on a tick boundary, so never early and at most one tick late; cancelled timeouts stay in their slot until it
+ * is reached and are dropped then.
+ *
+ * @param <T> the type of the tasks attached to the timeouts
+ */
+public final class TimingWheel<T> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final long originMillis;
+    @SuppressWarnings("unchecked")
+    private final Timeout<T>[][] slots = new Timeout[LEVELS][WHEEL_SIZE];
+    private final ConcurrentLinkedQueue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private long currentTick;
+
+    /**
+     * Creates a wheel whose first tick ends one tick length after the given time.
+     *
+     * @param tickMillis the length of a tick in milliseconds
+     * @param originMillis the wall-clock time of tick zero in milliseconds
+     */
+    public TimingWheel(long tickMillis, long originMillis) {
+        if (tickMillis <= 0)
+            throw new IllegalArgumentException("The tick length must be positive: " + tickMillis);
+        this.tickMillis = tickMillis;
+        this.originMillis = originMillis;
+    }
+
+    /**
+     * Schedules a task. A deadline in the past fires on the next tick.
+     *
+     * @param task the task handed to the consumer of {@link #advance} when the timeout fires
+     * @param deadlineMillis the wall-clock time the task is due in milliseconds
+     * @return the handle of the timeout
+     */
+    public Timeout<T> schedule(T task, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis - originMillis + tickMillis - 1, tickMillis);
+        Timeout<T> timeout = new Timeout<>(this, task, deadlineMillis, deadlineTick);
+        size.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Processes every tick that has ended by the given time and hands the tasks of the timeouts that fire to
+     * the consumer, in tick order.
+     *
+     * @param nowMillis the current wall-clock time in milliseconds
+     * @param expired receives the tasks of the fired timeouts
+     * @return the number of fired timeouts
+     */
+    public int advance(long nowMillis, Consumer<? super T> expired) {
+        long targetTick = Math.floorDiv(nowMillis - originMillis, tickMillis);
+        int fired = 0;
+        while (currentTick < targetTick) {
+            currentTick++;
+            drainPending();
+            for (int level = 1; level < LEVELS; level++) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0)
+                    break;
+                cascade(level, (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK));
+            }
+            fired += expire((int) (currentTick & WHEEL_MASK), expired);
+        }
+        return fired;
+    }
+
+    /**
+     * Returns the number of timeouts that have neither fired nor been cancelled.
+     *
+     * @return the number of pending timeouts
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private void drainPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (!timeout.isCancelled())
+                place(timeout);
+        }
+    }
+
+    private void cascade(int level, int index) {
+        Timeout<T> timeout = slots[level][index];
+        slots[level][index] = null;
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.next = null;
+            if (!timeout.isCancelled())
+                place(timeout);
+            timeout = next;
+        }
+    }
+
+    private int expire(int index, Consumer<? super T> expired) {
+        Timeout<T> timeout = slots[0][index];
+        slots[0][index] = null;
+        int fired = 0;
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.next = null;
+            if (timeout.deadlineTick > currentTick) {
+                place(timeout);
+            } else if (timeout.markExpired()) {
+                size.decrementAndGet();
+                expired.accept(timeout.task);
+                fired++;
+            }
+            timeout = next;
+        }
+        return fired;
+    }
+
+    /**
+     * Puts a timeout into the slot of the lowest level that covers its distance from the tick being processed.
+     */
+    private void place(Timeout<T> timeout) {
+        long tick = Math.max(timeout.deadlineTick, currentTick);
+        long delta = Math.min(tick - currentTick, MAX_DELTA);
+        tick = currentTick + delta;
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1))))
+            level++;
+        int index = (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+
+        timeout.next = slots[level][index];
+        slots[level][index] = timeout;
+    }
+
+    /**
+     * Handle of a scheduled task.
+     *
+     * @param <T> the type of the task
+     */
+    public static final class Timeout<T> {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel<T> wheel;
+        private final T task;
+        private final long deadlineMillis;
+        private final long deadlineTick;
+        private volatile int state;
+        private Timeout<T> next;
+
+        private Timeout(TimingWheel<T> wheel, T task, long deadlineMillis, long deadlineTick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineMillis = deadlineMillis;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Returns the task of the timeout.
+         *
+         * @return the task
+         */
+        public T task() {
+            return task;
+        }
+
+        /**
+         * Returns the wall-clock time the task is due.
+         *
+         * @return the deadline in milliseconds
+         */
+        public long deadlineMillis() {
+            return deadlineMillis;
+        }
+
+        /**
+         * Cancels the timeout unless it has already fired.
+         *
+         * @return true if the timeout was pending and will no longer fire
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED))
+                return false;
+            wheel.size.decrementAndGet();
+            return true;
+        }
+
+        /**
+         * Checks whether the timeout was cancelled.
+         *
+         * @return true if the timeout was cancelled
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        private boolean markExpired() {
+            return STATE.compareAndSet(this, PENDING, EXPIRED);
+        }
+    }
+}
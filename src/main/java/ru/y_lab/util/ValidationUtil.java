@@ -1,14 +1,18 @@
 package ru.y_lab.util;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import ru.y_lab.dto.UpdateBookingRequestDTO;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 
 /**
  * Utility class for handling data validation.
+ * The maximum booking duration is configured with {@code bookings.max-duration-hours}; queries for overlapping
+ * bookings rely on it to bound the start time from below, see {@link #maxBookingDuration()}.
  */
 @Component
 public class ValidationUtil {
@@ -19,6 +23,27 @@ public class ValidationUtil {
     private static final String INVALID_START_BEFORE_END_MESSAGE = "Start time must be before end time.";
     private static final String INVALID_TIME_IN_PAST_MESSAGE = "Start time and end time must be in the future.";
 
+    private static volatile Duration maxBookingDuration = Duration.ofHours(24);
+
+    /**
+     * Sets the maximum booking duration.
+     *
+     * @param maxDurationHours the maximum duration of a booking in hours
+     */
+    @Value("${bookings.max-duration-hours:24}")
+    public void setMaxBookingDurationHours(long maxDurationHours) {
+        maxBookingDuration = Duration.ofHours(maxDurationHours);
+    }
+
+    /**
+     * Returns the maximum duration of a booking. No booking can start earlier than this before a time it covers.
+     *
+     * @return the maximum booking duration
+     */
+    public static Duration maxBookingDuration() {
+        return maxBookingDuration;
+    }
+
     /**
      * Validates the UpdateBookingRequestDTO for resourceId, startTime, and endTime.
      *
@@ -44,6 +69,9 @@ public class ValidationUtil {
         if (startDateTime.isBefore(LocalDateTime.now()) | endDateTime.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException(INVALID_TIME_IN_PAST_MESSAGE);
         }
+        if (Duration.between(startDateTime, endDateTime).compareTo(maxBookingDuration) > 0) {
+            throw new IllegalArgumentException("A booking cannot be longer than " + maxBookingDuration.toHours() + " hours.");
+        }
     }
 
     private static void validateTime(Long startTime, Long endTime) {
@@ -0,0 +1,43 @@
+package ru.y_lab.util;
+
+/**
+ * Converts entity versions to and from the entity tags of the {@code ETag} and {@code If-Match} headers.
+ * A version {@code 3} is sent as the strong tag {@code "3"}.
+ */
+public final class VersionTags {
+
+    private VersionTags() {
+    }
+
+    /**
+     * Returns the entity tag of a version.
+     *
+     * @param version the version of the entity
+     * @return the quoted entity tag
+     */
+    public static String toETag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Parses the version an {@code If-Match} header expects.
+     *
+     * @param ifMatch the value of the header, may be null
+     * @return the expected version, or null if the header is absent or {@code *}
+     * @throws IllegalArgumentException if the header does not hold a single version tag
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank())
+            return null;
+        String tag = ifMatch.trim();
+        if (tag.equals("*"))
+            return null;
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"')
+            throw new IllegalArgumentException("The If-Match header must hold a single version tag, such as \"3\".");
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("The If-Match header must hold a single version tag, such as \"3\".");
+        }
+    }
+}
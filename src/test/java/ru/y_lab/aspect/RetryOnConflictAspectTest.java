@@ -0,0 +1,98 @@
+package ru.y_lab.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.y_lab.annotation.RetryOnConflict;
+import ru.y_lab.exception.VersionConflictException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link RetryOnConflictAspect} with a mocked join point.
+ */
+@DisplayName("Tests for retrying optimistic locking conflicts")
+public class RetryOnConflictAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RetryOnConflictAspect aspect = new RetryOnConflictAspect(meterRegistry);
+    private final ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+    private final OptimisticLockingFailureException conflict = new OptimisticLockingFailureException("conflict");
+
+    @BeforeEach
+    public void setUp() {
+        Signature signature = mock(Signature.class);
+        when(signature.getName()).thenReturn("updateBooking");
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("A conflicting call is run again until it succeeds")
+    public void retriesUntilSuccess() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(conflict).thenThrow(conflict).thenReturn("saved");
+
+        assertEquals("saved", aspect.retry(joinPoint, retryOnConflict()));
+        verify(joinPoint, times(3)).proceed();
+        assertEquals(2.0, conflicts("retried"));
+    }
+
+    @Test
+    @DisplayName("A call that keeps conflicting fails with a version conflict after the maximum attempts")
+    public void givesUpAfterMaxAttempts() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(conflict);
+
+        assertThrows(VersionConflictException.class, () -> aspect.retry(joinPoint, retryOnConflict()));
+        verify(joinPoint, times(3)).proceed();
+        assertEquals(2.0, conflicts("retried"));
+        assertEquals(1.0, conflicts("exhausted"));
+    }
+
+    @Test
+    @DisplayName("A call inside a surrounding transaction is not retried")
+    public void noRetryInsideTransaction() throws Throwable {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        when(joinPoint.proceed()).thenThrow(conflict).thenReturn("saved");
+
+        assertThrows(VersionConflictException.class, () -> aspect.retry(joinPoint, retryOnConflict()));
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    @DisplayName("Other exceptions are passed on without a retry")
+    public void otherExceptionsAreNotRetried() throws Throwable {
+        IllegalStateException failure = new IllegalStateException("failure");
+        when(joinPoint.proceed()).thenThrow(failure).thenReturn("saved");
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> aspect.retry(joinPoint, retryOnConflict())));
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @RetryOnConflict
+    private void annotated() {
+    }
+
+    private static RetryOnConflict retryOnConflict() throws NoSuchMethodException {
+        return RetryOnConflictAspectTest.class.getDeclaredMethod("annotated").getAnnotation(RetryOnConflict.class);
+    }
+
+    private double conflicts(String outcome) {
+        return meterRegistry.get("concurrency.conflicts").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,168 @@
+package ru.y_lab.coalesce;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link SingleFlight}.
+ */
+@DisplayName("Tests for single-flight call coalescing")
+public class SingleFlightTest {
+
+    private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent calls with the same key run the computation once and share its result")
+    public void concurrentCallsShareOneComputation() throws Exception {
+        SingleFlight<String, List<String>> singleFlight = new SingleFlight<>("test", TTL_NANOS, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> result = List.of("slot");
+
+        Future<List<String>> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return result;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<Future<List<String>>> followers = new ArrayList<>();
+        for (int i = 1; i < CALLERS; i++)
+            followers.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                return List.of("other");
+            })));
+        awaitCount("joined", CALLERS - 1);
+        release.countDown();
+
+        assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        for (Future<List<String>> follower : followers)
+            assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("computed"));
+    }
+
+    @Test
+    @DisplayName("A result is reused within the TTL and recomputed without one")
+    public void resultIsRetainedForTtl() {
+        SingleFlight<String, Integer> retaining = new SingleFlight<>("retaining", TTL_NANOS, meterRegistry);
+        assertEquals(1, retaining.execute("key", loads::incrementAndGet));
+        assertEquals(1, retaining.execute("key", loads::incrementAndGet));
+        assertEquals(1, loads.get());
+
+        SingleFlight<String, Integer> nonRetaining = new SingleFlight<>("non-retaining", 0, meterRegistry);
+        assertEquals(2, nonRetaining.execute("key", loads::incrementAndGet));
+        assertEquals(3, nonRetaining.execute("key", loads::incrementAndGet));
+    }
+
+    @Test
+    @DisplayName("Different keys are computed independently")
+    public void keysAreIndependent() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", TTL_NANOS, meterRegistry);
+
+        assertEquals(1, singleFlight.execute("first", loads::incrementAndGet));
+        assertEquals(2, singleFlight.execute("second", loads::incrementAndGet));
+        assertEquals(1, singleFlight.execute("first", loads::incrementAndGet));
+    }
+
+    @Test
+    @DisplayName("A failure reaches the waiting callers and is not retained")
+    public void failureIsSharedButNotRetained() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", TTL_NANOS, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("load failed");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Integer> follower = executor.submit(() -> singleFlight.execute("key", loads::incrementAndGet));
+        awaitCount("joined", 1);
+        release.countDown();
+
+        assertTrue(assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause() instanceof IllegalStateException);
+        assertTrue(assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause() instanceof IllegalStateException);
+        assertEquals(0, loads.get());
+
+        assertEquals(1, singleFlight.execute("key", loads::incrementAndGet));
+    }
+
+    @Test
+    @DisplayName("Invalidated keys are recomputed, the others keep their retained result")
+    public void invalidateForgetsMatchingKeys() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", TTL_NANOS, meterRegistry);
+        singleFlight.execute("resource-1", loads::incrementAndGet);
+        singleFlight.execute("resource-2", loads::incrementAndGet);
+
+        singleFlight.invalidate(key -> key.equals("resource-1"));
+
+        assertEquals(3, singleFlight.execute("resource-1", loads::incrementAndGet));
+        assertEquals(2, singleFlight.execute("resource-2", loads::incrementAndGet));
+
+        singleFlight.invalidateAll();
+        assertEquals(4, singleFlight.execute("resource-2", loads::incrementAndGet));
+    }
+
+    @Test
+    @DisplayName("Expired results are recomputed")
+    public void expiredResultsAreRecomputed() throws InterruptedException {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", TimeUnit.MILLISECONDS.toNanos(1), meterRegistry);
+        singleFlight.execute("key", loads::incrementAndGet);
+        Thread.sleep(5);
+
+        singleFlight.evictExpired();
+        assertEquals(2, singleFlight.execute("key", loads::incrementAndGet));
+        Thread.sleep(5);
+        assertEquals(3, singleFlight.execute("key", loads::incrementAndGet));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("coalescing.calls").tag("outcome", outcome).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private void awaitCount(String outcome, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(outcome) < expected && System.nanoTime() < deadline)
+            Thread.sleep(1);
+        assertEquals((double) expected, count(outcome));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
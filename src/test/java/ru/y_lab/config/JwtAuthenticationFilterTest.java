@@ -0,0 +1,136 @@
+package ru.y_lab.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.y_lab.dto.TokenClaimsDTO;
+import ru.y_lab.dto.UserAuthDTO;
+import ru.y_lab.exception.ErrorResponseWriter;
+import ru.y_lab.service.CustomUserDetailsService;
+import ru.y_lab.service.TokenRevocationService;
+import ru.y_lab.service.impl.JWTServiceImpl;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link JwtAuthenticationFilter} with real tokens, checking that tokens jjwt rejects end in a 401
+ * instead of escaping the filter.
+ */
+@DisplayName("Tests for the JWT authentication filter")
+public class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "k3QJ7+lHzH5Ghz1YhK60jxhF5Y6t5YT+FoF3DpvOPB9FEkA1Pn8v24e9R6hgkV1z+SfGtMWvsC9WgB32JcBrZQ==";
+    private static final String OTHER_SECRET = "Zm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFy";
+    private static final String USERNAME = "Alice";
+
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+    private final CustomUserDetailsService customUserDetailsService = mock(CustomUserDetailsService.class);
+
+    private JWTServiceImpl jwtService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        jwtService = jwtService(SECRET, 900_000);
+        filter = new JwtAuthenticationFilter(jwtService, customUserDetailsService,
+                new ErrorResponseWriter(new ObjectMapper()),
+                new WhitelistMatcher(new String[]{"/api/v1/users/login"}));
+        when(customUserDetailsService.loadUserByUsername(USERNAME)).thenReturn(new UserAuthDTO(USERNAME, "hash"));
+    }
+
+    @Test
+    @DisplayName("A valid token passes the request on with its claims")
+    public void validToken() throws Exception {
+        MockHttpServletRequest request = request(jwtService.generateToken(USERNAME, 1L, "USER"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertNotNull(chain.getRequest());
+        TokenClaimsDTO claims = (TokenClaimsDTO) request.getAttribute(JwtAuthenticationFilter.TOKEN_CLAIMS_ATTRIBUTE);
+        assertEquals(1L, claims.userId());
+        assertEquals("USER", claims.role());
+    }
+
+    @Test
+    @DisplayName("An expired token is answered with 401 so that the client refreshes it")
+    public void expiredToken() throws Exception {
+        String token = jwtService(SECRET, -60_000).generateToken(USERNAME, 1L, "USER");
+
+        MockHttpServletResponse response = filter(token);
+
+        assertEquals(401, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Token has expired"));
+    }
+
+    @Test
+    @DisplayName("A token signed with another key is answered with 401")
+    public void wronglySignedToken() throws Exception {
+        String token = jwtService(OTHER_SECRET, 900_000).generateToken(USERNAME, 1L, "USER");
+
+        MockHttpServletResponse response = filter(token);
+
+        assertEquals(401, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Token is not valid"));
+    }
+
+    @Test
+    @DisplayName("A malformed token is answered with 401")
+    public void malformedToken() throws Exception {
+        MockHttpServletResponse response = filter("not-a-token");
+
+        assertEquals(401, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Token is not valid"));
+    }
+
+    @Test
+    @DisplayName("A request without a token is answered with 401")
+    public void missingToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/bookings");
+        request.setServletPath("/api/v1/bookings");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    private MockHttpServletResponse filter(String token) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(token), response, chain);
+        assertNull(chain.getRequest());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/bookings");
+        request.setServletPath("/api/v1/bookings");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private JWTServiceImpl jwtService(String secret, long expirationMs) {
+        JWTServiceImpl service = new JWTServiceImpl(tokenRevocationService);
+        ReflectionTestUtils.setField(service, "secretKey", secret);
+        ReflectionTestUtils.setField(service, "expirationMs", expirationMs);
+        service.init();
+        return service;
+    }
+}
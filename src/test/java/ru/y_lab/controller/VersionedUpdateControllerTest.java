@@ -0,0 +1,129 @@
+package ru.y_lab.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.y_lab.dto.BookingWithOwnerResourceDTO;
+import ru.y_lab.dto.ResourceWithOwnerDTO;
+import ru.y_lab.dto.UpdateBookingRequestDTO;
+import ru.y_lab.dto.UpdateResourceRequestDTO;
+import ru.y_lab.enums.ResourceType;
+import ru.y_lab.exception.ErrorResponseWriter;
+import ru.y_lab.exception.GlobalExceptionHandler;
+import ru.y_lab.exception.VersionConflictException;
+import ru.y_lab.service.BookingService;
+import ru.y_lab.service.IdempotencyService;
+import ru.y_lab.service.ResourceService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for conditional updates of bookings and resources: the version read with a GET is returned as the ETag,
+ * and an update sent with it as If-Match after someone else changed the entity is rejected.
+ */
+@DisplayName("Tests for ETags and If-Match updates")
+public class VersionedUpdateControllerTest {
+
+    private static final String TOKEN = "Bearer token";
+
+    private final BookingService bookingService = mock(BookingService.class);
+    private final ResourceService resourceService = mock(ResourceService.class);
+    private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new BookingController(bookingService, idempotencyService),
+                    new ResourceController(resourceService, idempotencyService))
+            .setControllerAdvice(new GlobalExceptionHandler(new ErrorResponseWriter(objectMapper)))
+            .build();
+
+    @Test
+    @DisplayName("GET of a booking returns its version as the ETag")
+    public void bookingETag() throws Exception {
+        when(bookingService.getBookingById(TOKEN, 5L)).thenReturn(booking(3L));
+
+        mockMvc.perform(get("/api/v1/bookings/5").header(HttpHeaders.AUTHORIZATION, TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    @DisplayName("Updating a booking with the ETag of a GET fails once another admin has updated it")
+    public void staleBookingIfMatch() throws Exception {
+        when(bookingService.getBookingById(TOKEN, 5L)).thenReturn(booking(3L));
+        UpdateBookingRequestDTO request = new UpdateBookingRequestDTO(1893488400000L, 1893492000000L);
+        when(bookingService.updateBooking(eq(TOKEN), eq(5L), any(UpdateBookingRequestDTO.class), eq(3L)))
+                .thenThrow(new VersionConflictException("The booking was modified by someone else. Please reload it and try again."));
+
+        String eTag = mockMvc.perform(get("/api/v1/bookings/5").header(HttpHeaders.AUTHORIZATION, TOKEN))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/v1/bookings/5")
+                        .header(HttpHeaders.AUTHORIZATION, TOKEN)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("The booking was modified by someone else. Please reload it and try again."));
+        verify(bookingService).updateBooking(eq(TOKEN), eq(5L), any(UpdateBookingRequestDTO.class), eq(3L));
+    }
+
+    @Test
+    @DisplayName("GET of a resource returns its version as the ETag")
+    public void resourceETag() throws Exception {
+        when(resourceService.getResourceById(7L)).thenReturn(resource(2L));
+
+        mockMvc.perform(get("/api/v1/resources/7").header(HttpHeaders.AUTHORIZATION, TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    @DisplayName("Updating a resource with the ETag of a GET fails once another admin has updated it")
+    public void staleResourceIfMatch() throws Exception {
+        when(resourceService.getResourceById(7L)).thenReturn(resource(2L));
+        UpdateResourceRequestDTO request = new UpdateResourceRequestDTO("Blue Room", "CONFERENCE_ROOM");
+        when(resourceService.updateResource(eq(TOKEN), eq(7L), any(UpdateResourceRequestDTO.class),
+                eq(ResourceType.CONFERENCE_ROOM), eq(2L)))
+                .thenThrow(new VersionConflictException("The resource was modified by someone else. Please reload it and try again."));
+
+        String eTag = mockMvc.perform(get("/api/v1/resources/7").header(HttpHeaders.AUTHORIZATION, TOKEN))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals("\"2\"", eTag);
+
+        mockMvc.perform(put("/api/v1/resources/7")
+                        .param("resourceType", "CONFERENCE_ROOM")
+                        .header(HttpHeaders.AUTHORIZATION, TOKEN)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+        verify(resourceService).updateResource(eq(TOKEN), eq(7L), any(UpdateResourceRequestDTO.class),
+                eq(ResourceType.CONFERENCE_ROOM), eq(2L));
+    }
+
+    private static BookingWithOwnerResourceDTO booking(Long version) {
+        return new BookingWithOwnerResourceDTO(1L, 7L, 5L, "Admin", "Blue Room", "CONFERENCE_ROOM",
+                "2030-01-01", "10:00", "11:00", version);
+    }
+
+    private static ResourceWithOwnerDTO resource(Long version) {
+        return new ResourceWithOwnerDTO(1L, 7L, "Blue Room", "CONFERENCE_ROOM", "Admin", version);
+    }
+}
@@ -0,0 +1,143 @@
+package ru.y_lab.invalidation;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.y_lab.CoworkingServiceApp;
+import ru.y_lab.cache.AvailabilityCache;
+import ru.y_lab.dto.AvailableSlotDTO;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the cross-node invalidation bus with two application contexts sharing one PostgreSQL database.
+ * Node A publishes invalidations, node B caches available slots and must drop exactly the published entries.
+ */
+@Testcontainers
+@DisplayName("Tests for the cross-node invalidation bus")
+public class InvalidationBusTest {
+
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(10);
+    private static final List<AvailableSlotDTO> OLD_SLOTS = List.of(new AvailableSlotDTO(1, "09:00", "18:00"));
+    private static final List<AvailableSlotDTO> NEW_SLOTS = List.of(new AvailableSlotDTO(1, "12:00", "18:00"));
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:13.3")
+            .withDatabaseName("coworkingdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    public static void startNodes() throws InterruptedException {
+        nodeA = startNode();
+        nodeB = startNode();
+        await(() -> nodeA.getBean(InvalidationListener.class).isListening()
+                && nodeB.getBean(InvalidationListener.class).isListening());
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        if (nodeB != null)
+            nodeB.close();
+        if (nodeA != null)
+            nodeA.close();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(CoworkingServiceApp.class)
+                .profiles("dev")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgresContainer.getJdbcUrl(),
+                        "spring.datasource.username=" + postgresContainer.getUsername(),
+                        "spring.datasource.password=" + postgresContainer.getPassword(),
+                        "invalidation.batch-window-ms=10",
+                        "invalidation.reconnect-delay-ms=100")
+                .run();
+    }
+
+    @Test
+    @DisplayName("A committed change on one node invalidates the affected date on the other node")
+    public void committedChangeInvalidatesOtherNode() throws InterruptedException {
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        LocalDate otherDate = date.plusDays(1);
+        AvailabilityCache cacheB = nodeB.getBean(AvailabilityCache.class);
+        cacheB.get(1L, date, () -> OLD_SLOTS);
+        cacheB.get(1L, otherDate, () -> OLD_SLOTS);
+
+        inTransaction(nodeA, false, () -> nodeA.getBean(InvalidationPublisher.class).publish(Invalidation.booking(1L, date)));
+
+        await(() -> NEW_SLOTS.equals(cacheB.get(1L, date, () -> NEW_SLOTS)));
+        assertEquals(OLD_SLOTS, cacheB.get(1L, otherDate, () -> NEW_SLOTS));
+    }
+
+    @Test
+    @DisplayName("A rolled back change is never delivered")
+    public void rolledBackChangeIsNotDelivered() throws InterruptedException {
+        LocalDate date = LocalDate.of(2026, 11, 2);
+        AvailabilityCache cacheB = nodeB.getBean(AvailabilityCache.class);
+        cacheB.get(2L, date, () -> OLD_SLOTS);
+
+        inTransaction(nodeA, true, () -> nodeA.getBean(InvalidationPublisher.class).publish(Invalidation.booking(2L, date)));
+        // a committed marker sent after the rolled back change proves that delivery has caught up
+        LocalDate marker = date.plusDays(1);
+        cacheB.get(2L, marker, () -> OLD_SLOTS);
+        inTransaction(nodeA, false, () -> nodeA.getBean(InvalidationPublisher.class).publish(Invalidation.booking(2L, marker)));
+        await(() -> NEW_SLOTS.equals(cacheB.get(2L, marker, () -> NEW_SLOTS)));
+
+        assertEquals(OLD_SLOTS, cacheB.get(2L, date, () -> NEW_SLOTS));
+    }
+
+    @Test
+    @DisplayName("The caches are flushed after the listener reconnects")
+    public void reconnectFlushesCaches() throws InterruptedException {
+        LocalDate date = LocalDate.of(2026, 12, 7);
+        AvailabilityCache cacheB = nodeB.getBean(AvailabilityCache.class);
+        cacheB.get(3L, date, () -> OLD_SLOTS);
+
+        new JdbcTemplate(nodeA.getBean(DataSource.class)).queryForList("""
+                SELECT pg_terminate_backend(pid)
+                FROM pg_stat_activity
+                WHERE application_name = 'invalidation-listener'""");
+
+        await(() -> NEW_SLOTS.equals(cacheB.get(3L, date, () -> NEW_SLOTS)));
+        await(() -> nodeB.getBean(InvalidationListener.class).isListening());
+    }
+
+    private static void inTransaction(ConfigurableApplicationContext node, boolean rollback, Runnable action) {
+        new TransactionTemplate(node.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            action.run();
+            if (rollback)
+                status.setRollbackOnly();
+        });
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + DELIVERY_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean())
+                return;
+            Thread.sleep(50);
+        }
+        assertTrue(condition.getAsBoolean(), "Invalidation was not delivered within " + DELIVERY_TIMEOUT);
+    }
+}
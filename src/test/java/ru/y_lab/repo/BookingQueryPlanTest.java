@@ -0,0 +1,174 @@
+package ru.y_lab.repo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.y_lab.datagen.DatasetGenerator;
+import ru.y_lab.datagen.DatasetSpec;
+import ru.y_lab.datagen.GeneratedDataset;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query plan regression tests for the native queries of {@link BookingRepo}.
+ *
+ * <p>The schema is created by the real Liquibase changelog and seeded with a large dataset by {@link DatasetGenerator}. Every native
+ * query is explained with the default planner settings on the analyzed data, so a {@code Seq Scan} node on a
+ * bookings table in the plan means that the planner found no index worth using for the query. Partitions too
+ * small for an index to pay off are ignored.
+ */
+@Testcontainers
+@DisplayName("Query plan tests for BookingRepo")
+public class BookingQueryPlanTest {
+
+    /**
+     * Queries that are expected to scan bookings sequentially, with the reason.
+     */
+    private static final Map<String, String> FULL_SCAN_QUERIES = Map.of(
+            "findAllBookingWithOwnerResource", "lists every live booking, so reading whole partitions is the cheapest plan");
+
+    /**
+     * Sequential scans of relations with fewer rows, such as the empty default partition, are not reported.
+     */
+    private static final long MIN_INDEXED_ROWS = 1_000;
+
+    private static final LocalDateTime QUERY_TIME = LocalDateTime.now().withNano(0);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:13.3")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static Map<String, Long> relationRows;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    public static void setUpBeforeAll() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgresContainer.getJdbcUrl(), postgresContainer.getUsername(), postgresContainer.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS liquibase");
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog.xml");
+        liquibase.setDefaultSchema("coworking_service");
+        liquibase.setLiquibaseSchema("liquibase");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        seedDataset(dataSource);
+        relationRows = loadRelationRows();
+    }
+
+    private static void seedDataset(DataSource dataSource) throws SQLException {
+        DatasetSpec spec = new DatasetSpec(10_000, 500, 0.05, 0.85, 0.25, 0.1, 2 * 365, 60, 42L);
+        GeneratedDataset dataset = new DatasetGenerator(dataSource).generate(spec);
+
+        jdbcTemplate.update("""
+                INSERT INTO coworking_service.bookings_archive (id, user_id, resource_id, start_time, end_time, archived_at)
+                SELECT 100000000 + i, ? + (i % ?), ? + (i % ?),
+                       now() - INTERVAL '4 years' + i * INTERVAL '10 minutes',
+                       now() - INTERVAL '4 years' + i * INTERVAL '10 minutes' + INTERVAL '1 hour',
+                       now()
+                FROM generate_series(1, 100000) AS i""",
+                dataset.firstUserId(), dataset.users(), dataset.firstResourceId(), dataset.resources());
+        jdbcTemplate.execute("ANALYZE coworking_service.bookings_archive");
+    }
+
+    private static Map<String, Long> loadRelationRows() {
+        Map<String, Long> rows = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT relname, reltuples::BIGINT
+                FROM pg_class
+                WHERE relnamespace = 'coworking_service'::REGNAMESPACE
+                  AND relname LIKE 'bookings%'""",
+                (ResultSet resultSet) -> {
+                    rows.put(resultSet.getString(1), resultSet.getLong(2));
+                });
+        return rows;
+    }
+
+    @TestFactory
+    @DisplayName("Native queries do not scan bookings sequentially")
+    public Stream<DynamicTest> nativeQueriesUseIndexes() {
+        return Arrays.stream(BookingRepo.class.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(Query.class))
+                .filter(method -> method.getAnnotation(Query.class).nativeQuery())
+                .filter(method -> !FULL_SCAN_QUERIES.containsKey(method.getName()))
+                .sorted(Comparator.comparing(Method::getName))
+                .map(method -> DynamicTest.dynamicTest(method.getName(), () -> assertNoSequentialScan(method)));
+    }
+
+    private void assertNoSequentialScan(Method method) throws Exception {
+        String sql = bindParameters(method);
+        String planJson = jdbcTemplate.execute((Statement statement) -> {
+            try (ResultSet resultSet = statement.executeQuery("EXPLAIN (FORMAT JSON) " + sql)) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        });
+
+        List<String> scannedTables = new ArrayList<>();
+        collectSequentialScans(objectMapper.readTree(planJson).get(0).get("Plan"), scannedTables);
+        assertTrue(scannedTables.isEmpty(),
+                method.getName() + " scans " + scannedTables + " sequentially:\n" + planJson);
+    }
+
+    private String bindParameters(Method method) {
+        String sql = method.getAnnotation(Query.class).value();
+        for (Parameter parameter : method.getParameters()) {
+            String name = parameter.getAnnotation(Param.class).value();
+            sql = sql.replaceAll(":" + name + "\\b", literal(parameter.getType()));
+        }
+        return sql;
+    }
+
+    private String literal(Class<?> type) {
+        if (type == LocalDateTime.class)
+            return "TIMESTAMP '" + QUERY_TIME + "'";
+        if (type == Long.class || type == long.class)
+            return "42";
+        if (type == Integer.class || type == int.class)
+            return "1000";
+        throw new IllegalArgumentException("Unsupported query parameter type: " + type);
+    }
+
+    private void collectSequentialScans(JsonNode plan, List<String> scannedTables) {
+        String relation = plan.path("Relation Name").asText("");
+        if ("Seq Scan".equals(plan.path("Node Type").asText()) && relation.startsWith("bookings")
+                && relationRows.getOrDefault(relation, Long.MAX_VALUE) >= MIN_INDEXED_ROWS)
+            scannedTables.add(relation);
+        for (JsonNode child : plan.path("Plans"))
+            collectSequentialScans(child, scannedTables);
+    }
+}
@@ -0,0 +1,177 @@
+package ru.y_lab.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Tests for {@link ReplicaRouter} against a PostgreSQL primary and a streaming replica cloned from it with
+ * {@code pg_basebackup}.
+ */
+@Testcontainers
+@DisplayName("Tests for read replica routing")
+public class ReplicaRouterTest {
+
+    private static final Network network = Network.newNetwork();
+
+    @Container
+    private static final PostgreSQLContainer<?> primaryContainer = new PostgreSQLContainer<>("postgres:13.3")
+            .withDatabaseName("coworkingdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withNetwork(network)
+            .withNetworkAliases("primary")
+            .withCommand("postgres", "-c", "wal_level=replica", "-c", "max_wal_senders=4", "-c", "hot_standby=on")
+            .withCopyToContainer(Transferable.of(
+                    "echo 'host replication all all md5' >> \"$PGDATA/pg_hba.conf\"\n".getBytes(StandardCharsets.UTF_8), 0755),
+                    "/docker-entrypoint-initdb.d/replication.sh");
+
+    @Container
+    private static final GenericContainer<?> replicaContainer = new GenericContainer<>("postgres:13.3")
+            .withNetwork(network)
+            .dependsOn(primaryContainer)
+            .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+            .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres").withEntrypoint("bash", "-c", """
+                    until PGPASSWORD=test pg_basebackup -h primary -U test -D "$PGDATA" -R -X stream; do sleep 1; done
+                    chmod 0700 "$PGDATA"
+                    exec postgres"""))
+            .waitingFor(Wait.forLogMessage(".*ready to accept read.only connections.*", 1)
+                    .withStartupTimeout(Duration.ofMinutes(1)));
+
+    private static ReplicaRouter router;
+    private static JdbcTemplate primaryJdbcTemplate;
+    private static JdbcTemplate replicaJdbcTemplate;
+    private static JdbcTemplate routedJdbcTemplate;
+    private static TransactionTemplate readOnlyTransaction;
+    private static TransactionTemplate readWriteTransaction;
+
+    @BeforeAll
+    public static void setUpBeforeAll() {
+        DriverManagerDataSource primary = new DriverManagerDataSource(
+                primaryContainer.getJdbcUrl(), primaryContainer.getUsername(), primaryContainer.getPassword());
+        DriverManagerDataSource replica = new DriverManagerDataSource(
+                "jdbc:postgresql://" + replicaContainer.getHost() + ":"
+                        + replicaContainer.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/coworkingdb",
+                "test", "test");
+
+        router = new ReplicaRouter(primary, Map.of("replica-0", replica), 1000, new SimpleMeterRegistry());
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(router);
+        routingDataSource.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        primaryJdbcTemplate = new JdbcTemplate(primary);
+        replicaJdbcTemplate = new JdbcTemplate(replica);
+        routedJdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        primaryJdbcTemplate.execute("CREATE TABLE notes (id BIGINT PRIMARY KEY)");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        replicaJdbcTemplate.execute("SELECT pg_wal_replay_resume()");
+    }
+
+    @Test
+    @DisplayName("Read-only transactions use a caught-up replica, read-write transactions the primary")
+    public void readOnlyTransactionsUseCaughtUpReplica() {
+        awaitReplicaCaughtUp();
+
+        assertTrue(readOnlyTransaction.execute(status -> isInRecovery()));
+        assertFalse(readWriteTransaction.execute(status -> isInRecovery()));
+    }
+
+    @Test
+    @DisplayName("Reads after a committed write see it")
+    public void readsAfterWriteSeeIt() {
+        awaitReplicaCaughtUp();
+
+        readWriteTransaction.executeWithoutResult(status -> routedJdbcTemplate.update("INSERT INTO notes VALUES (1)"));
+
+        assertFalse(readOnlyTransaction.execute(status -> isInRecovery()));
+        assertEquals(1, readOnlyTransaction.execute(status -> countNotes(1)));
+
+        awaitReplicaCaughtUp();
+        assertEquals(1, readOnlyTransaction.execute(status -> countNotes(1)));
+    }
+
+    @Test
+    @DisplayName("Reads fall back to the primary while the replica lags behind a write")
+    public void readsFallBackToPrimaryWhileReplicaLags() throws InterruptedException {
+        awaitReplicaCaughtUp();
+        replicaJdbcTemplate.execute("SELECT pg_wal_replay_pause()");
+
+        readWriteTransaction.executeWithoutResult(status -> routedJdbcTemplate.update("INSERT INTO notes VALUES (2)"));
+        for (int i = 0; i < 5; i++) {
+            router.pollReplicas();
+            Thread.sleep(50);
+        }
+
+        assertFalse(readOnlyTransaction.execute(status -> isInRecovery()));
+        assertEquals(1, readOnlyTransaction.execute(status -> countNotes(2)));
+        assertEquals(0, replicaJdbcTemplate.queryForObject("SELECT COUNT(*) FROM notes WHERE id = 2", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Rolled back transactions do not count as writes")
+    public void rolledBackTransactionsAreNotWrites() {
+        awaitReplicaCaughtUp();
+
+        readWriteTransaction.executeWithoutResult(status -> {
+            routedJdbcTemplate.update("INSERT INTO notes VALUES (3)");
+            status.setRollbackOnly();
+        });
+
+        assertTrue(readOnlyTransaction.execute(status -> isInRecovery()));
+    }
+
+    private static void awaitReplicaCaughtUp() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            router.pollReplicas();
+            if (readOnlyTransaction.execute(status -> isInRecovery()))
+                return;
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        fail("The replica did not catch up with the primary");
+    }
+
+    private static boolean isInRecovery() {
+        return Boolean.TRUE.equals(routedJdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+    }
+
+    private static Integer countNotes(long id) {
+        return routedJdbcTemplate.queryForObject("SELECT COUNT(*) FROM notes WHERE id = ?", Integer.class, id);
+    }
+}
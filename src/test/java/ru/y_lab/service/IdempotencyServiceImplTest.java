@@ -0,0 +1,198 @@
+package ru.y_lab.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.y_lab.exception.IdempotencyKeyReuseException;
+import ru.y_lab.model.IdempotencyRecord;
+import ru.y_lab.repo.IdempotencyRepo;
+import ru.y_lab.service.impl.IdempotencyServiceImpl;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link IdempotencyServiceImpl} with a mocked repository and a transaction manager without a database,
+ * which still runs the commit callbacks.
+ */
+@DisplayName("Tests for idempotent create requests")
+public class IdempotencyServiceImplTest {
+
+    private static final String TOKEN = "Bearer token";
+    private static final String OPERATION = "addBooking";
+    private static final String KEY = "5d1c7a8e-key";
+    private static final Long USER_ID = 7L;
+
+    private final IdempotencyRepo idempotencyRepo = mock(IdempotencyRepo.class);
+    private final JWTService jwtService = mock(JWTService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    public void setUp() {
+        when(jwtService.extractUserId(TOKEN)).thenReturn(USER_ID);
+        idempotencyService = newService();
+    }
+
+    @Test
+    @DisplayName("A request without a key is executed without touching the idempotency records")
+    public void requestWithoutKey() {
+        IdempotencyService.Result<Created> result = execute(null, new Request(1L));
+
+        assertEquals(new Created(1L), result.body());
+        assertFalse(result.replayed());
+        verifyNoInteractions(idempotencyRepo);
+    }
+
+    @Test
+    @DisplayName("Blank and overlong keys are rejected")
+    public void invalidKeys() {
+        assertThrows(IllegalArgumentException.class, () -> execute(" ", new Request(1L)));
+        assertThrows(IllegalArgumentException.class, () -> execute("k".repeat(256), new Request(1L)));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("The first request claims the key, runs the operation and stores its response")
+    public void firstRequestExecutes() throws Exception {
+        when(idempotencyRepo.claim(eq(USER_ID), eq(OPERATION), eq(KEY), anyString(), any(), any())).thenReturn(1);
+
+        IdempotencyService.Result<Created> result = execute(KEY, new Request(1L));
+
+        assertEquals(new Created(1L), result.body());
+        assertFalse(result.replayed());
+        verify(idempotencyRepo).complete(USER_ID, OPERATION, KEY, objectMapper.writeValueAsString(new Created(1L)));
+    }
+
+    @Test
+    @DisplayName("A retry on the same node is answered from the cache without running the operation again")
+    public void retryIsReplayedFromCache() {
+        when(idempotencyRepo.claim(eq(USER_ID), eq(OPERATION), eq(KEY), anyString(), any(), any())).thenReturn(1);
+        execute(KEY, new Request(1L));
+
+        IdempotencyService.Result<Created> retry = execute(KEY, new Request(1L));
+
+        assertEquals(new Created(1L), retry.body());
+        assertTrue(retry.replayed());
+        assertEquals(1, executions.get());
+        verify(idempotencyRepo, times(1)).claim(eq(USER_ID), eq(OPERATION), eq(KEY), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("A retry on another node is answered from the stored response")
+    public void retryIsReplayedFromDatabase() {
+        when(idempotencyRepo.claim(eq(USER_ID), eq(OPERATION), eq(KEY), anyString(), any(), any())).thenReturn(1);
+        execute(KEY, new Request(1L));
+        ArgumentCaptor<String> requestHash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> responseBody = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyRepo).claim(eq(USER_ID), eq(OPERATION), eq(KEY), requestHash.capture(), any(), any());
+        verify(idempotencyRepo).complete(eq(USER_ID), eq(OPERATION), eq(KEY), responseBody.capture());
+
+        when(idempotencyRepo.claim(eq(USER_ID), eq(OPERATION), eq(KEY), anyString(), any(), any())).thenReturn(0);
+        when(idempotencyRepo.findByKey(USER_ID, OPERATION, KEY)).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .userId(USER_ID)
+                .operation(OPERATION)
+                .idempotencyKey(KEY)
+                .requestHash(requestHash.getValue())
+                .responseBody(responseBody.getValue())
+                .build()));
+        IdempotencyServiceImpl otherNode = newService();
+
+        IdempotencyService.Result<Created> retry = otherNode.execute(TOKEN, OPERATION, KEY, new Request(1L), Created.class, this::create);
+
+        assertEquals(new Created(1L), retry.body());
+        assertTrue(retry.replayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("A key reused for a different request is rejected")
+    public void keyReusedForDifferentRequest() {
+        when(idempotencyRepo.claim(eq(USER_ID), eq(OPERATION), eq(KEY), anyString(), any(), any())).thenReturn(1);
+        execute(KEY, new Request(1L));
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> execute(KEY, new Request(2L)));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("A failed request is not stored, so its key can be used again")
+    public void failedRequestIsNotStored() {
+        when(idempotencyRepo.claim(eq(USER_ID), eq(OPERATION), eq(KEY), anyString(), any(), any())).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(TOKEN, OPERATION, KEY, new Request(1L),
+                Created.class, () -> {
+                    throw new IllegalStateException("The resource is already booked");
+                }));
+        verify(idempotencyRepo, never()).complete(any(), any(), any(), any());
+
+        IdempotencyService.Result<Created> retry = execute(KEY, new Request(1L));
+        assertFalse(retry.replayed());
+        assertEquals(1, executions.get());
+        verify(idempotencyRepo, times(2)).claim(eq(USER_ID), eq(OPERATION), eq(KEY), anyString(), any(), any());
+    }
+
+    private IdempotencyService.Result<Created> execute(String key, Request request) {
+        return idempotencyService.execute(TOKEN, OPERATION, key, request, Created.class, this::create);
+    }
+
+    private Created create() {
+        executions.incrementAndGet();
+        return new Created(1L);
+    }
+
+    private IdempotencyServiceImpl newService() {
+        return new IdempotencyServiceImpl(idempotencyRepo, jwtService, new TransactionTemplate(new NoOpTransactionManager()),
+                objectMapper, new SimpleMeterRegistry(), 24, 10, 100);
+    }
+
+    public record Request(Long resourceId) { }
+
+    public record Created(Long id) { }
+
+    /**
+     * Transaction manager without a resource; it only drives the transaction synchronizations.
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.y_lab.throttle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link SlidingWindowCounter} driven by a synthetic clock with windows of 1000 nanoseconds.
+ */
+@DisplayName("Tests for the sliding window rate limit counter")
+public class SlidingWindowCounterTest {
+
+    private static final long WINDOW = 1000;
+
+    @Test
+    @DisplayName("Requests up to the limit are counted; the next one waits for the end of the window")
+    public void limitWithinFirstWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 0);
+
+        for (int i = 0; i < 3; i++)
+            assertEquals(0, counter.tryAcquire(3, 100, 0));
+        assertEquals(WINDOW - 100, counter.tryAcquire(3, 100, 0));
+    }
+
+    @Test
+    @DisplayName("The previous window counts with the share that still overlaps the sliding window")
+    public void previousWindowIsWeighted() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 0);
+        for (int i = 0; i < 4; i++)
+            counter.tryAcquire(4, 0, 0);
+
+        assertEquals(250, counter.tryAcquire(4, WINDOW, 0));
+        assertTrue(counter.tryAcquire(4, WINDOW + 249, 0) > 0);
+        assertEquals(0, counter.tryAcquire(4, WINDOW + 250, 0));
+        assertTrue(counter.tryAcquire(4, WINDOW + 250, 0) > 0);
+    }
+
+    @Test
+    @DisplayName("A window without requests resets the history")
+    public void historyExpiresAfterTwoWindows() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 0);
+        for (int i = 0; i < 4; i++)
+            counter.tryAcquire(4, 0, 0);
+
+        for (int i = 0; i < 4; i++)
+            assertEquals(0, counter.tryAcquire(4, 2 * WINDOW, 0));
+        assertTrue(counter.tryAcquire(4, 2 * WINDOW, 0) > 0);
+    }
+
+    @Test
+    @DisplayName("Rejections are reported while they are recent, with the time of the last one")
+    public void recentRejections() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 0);
+        counter.tryAcquire(1, 0, 0);
+        assertEquals(0, counter.recentlyRejected(0, 100));
+
+        counter.tryAcquire(1, 10, 1_000L);
+        counter.tryAcquire(1, 20, 2_000L);
+
+        assertEquals(2, counter.recentlyRejected(50, 100));
+        assertEquals(0, counter.recentlyRejected(120, 100));
+        assertEquals(2_000L, counter.lastRejectedAt());
+    }
+
+    @Test
+    @DisplayName("A counter is idle two windows after its last request")
+    public void idleness() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 0);
+        counter.tryAcquire(1, 500, 0);
+
+        assertFalse(counter.isIdle(500 + 2 * WINDOW - 1));
+        assertTrue(counter.isIdle(500 + 2 * WINDOW));
+    }
+}
@@ -0,0 +1,112 @@
+package ru.y_lab.throttle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ThrottleEntry} driven by a synthetic clock. One token is regained every 1024 nanoseconds,
+ * which keeps the floating point refill exact.
+ */
+@DisplayName("Tests for login throttle entries")
+public class ThrottleEntryTest {
+
+    private static final long REFILL_NANOS = 1024;
+    private static final ThrottleLimits LIMITS = new ThrottleLimits(2, 1.0 / REFILL_NANOS, 2, 1000, 8000);
+
+    @Test
+    @DisplayName("A full bucket admits a burst of its capacity and then reports the wait for the next token")
+    public void burstThenWait() {
+        ThrottleEntry entry = new ThrottleEntry(LIMITS, 0);
+
+        assertEquals(0, entry.tryAcquire(0));
+        assertEquals(0, entry.tryAcquire(0));
+        assertEquals(REFILL_NANOS, entry.tryAcquire(0));
+        assertEquals(REFILL_NANOS / 2, entry.tryAcquire(REFILL_NANOS / 2));
+    }
+
+    @Test
+    @DisplayName("Tokens are regained over time up to the capacity")
+    public void tokensRefill() {
+        ThrottleEntry entry = new ThrottleEntry(LIMITS, 0);
+        entry.tryAcquire(0);
+        entry.tryAcquire(0);
+
+        assertEquals(0, entry.tryAcquire(REFILL_NANOS));
+        assertTrue(entry.tryAcquire(REFILL_NANOS) > 0);
+
+        long later = 100 * REFILL_NANOS;
+        assertEquals(0, entry.tryAcquire(later));
+        assertEquals(0, entry.tryAcquire(later));
+        assertTrue(entry.tryAcquire(later) > 0);
+    }
+
+    @Test
+    @DisplayName("Failures lock the key out once the threshold is reached, doubling up to the maximum")
+    public void failuresLockOut() {
+        ThrottleEntry entry = new ThrottleEntry(LIMITS, 0);
+
+        entry.recordFailure(0);
+        assertEquals(0, entry.lockedOutFor(0));
+        entry.recordFailure(0);
+        assertEquals(1000, entry.lockedOutFor(0));
+        assertEquals(600, entry.lockedOutFor(400));
+        assertEquals(0, entry.lockedOutFor(1000));
+
+        entry.recordFailure(0);
+        assertEquals(2000, entry.lockedOutFor(0));
+        for (int i = 0; i < 10; i++)
+            entry.recordFailure(0);
+        assertEquals(8000, entry.lockedOutFor(0));
+    }
+
+    @Test
+    @DisplayName("A success clears the lockout and the failure count")
+    public void successClearsLockout() {
+        ThrottleEntry entry = new ThrottleEntry(LIMITS, 0);
+        entry.recordFailure(0);
+        entry.recordFailure(0);
+
+        entry.recordSuccess(10);
+        assertEquals(0, entry.lockedOutFor(10));
+
+        entry.recordFailure(20);
+        assertEquals(0, entry.lockedOutFor(20));
+    }
+
+    @Test
+    @DisplayName("An entry without lockouts ignores failures but still rate limits")
+    public void entryWithoutLockouts() {
+        ThrottleEntry entry = new ThrottleEntry(LIMITS, 0, false);
+
+        for (int i = 0; i < 10; i++)
+            entry.recordFailure(0);
+        assertEquals(0, entry.lockedOutFor(0));
+
+        assertEquals(0, entry.tryAcquire(0));
+        assertEquals(0, entry.tryAcquire(0));
+        assertEquals(REFILL_NANOS, entry.tryAcquire(0));
+    }
+
+    @Test
+    @DisplayName("An entry is idle only when it is not locked out and its bucket has been full long enough")
+    public void idleness() {
+        ThrottleEntry fresh = new ThrottleEntry(LIMITS, 0);
+        assertFalse(fresh.isIdle(99, 100));
+        assertTrue(fresh.isIdle(100, 100));
+
+        ThrottleEntry used = new ThrottleEntry(LIMITS, 0);
+        used.tryAcquire(0);
+        assertFalse(used.isIdle(100, 100));
+        assertTrue(used.isIdle(REFILL_NANOS, 100));
+
+        ThrottleEntry lockedOut = new ThrottleEntry(LIMITS, 0);
+        lockedOut.recordFailure(0);
+        lockedOut.recordFailure(0);
+        assertFalse(lockedOut.isIdle(500, 100));
+        assertTrue(lockedOut.isIdle(1100, 100));
+    }
+}
@@ -0,0 +1,56 @@
+package ru.y_lab.throttle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the lockout durations of {@link ThrottleLimits}.
+ */
+@DisplayName("Tests for the login throttle limits")
+public class ThrottleLimitsTest {
+
+    private static final ThrottleLimits LIMITS = new ThrottleLimits(10, 1.0, 3, 1000, 8000);
+
+    @Test
+    @DisplayName("There is no lockout below the threshold")
+    public void noLockoutBelowThreshold() {
+        assertEquals(0, LIMITS.lockoutNanos(0));
+        assertEquals(0, LIMITS.lockoutNanos(2));
+    }
+
+    @Test
+    @DisplayName("The lockout starts at the base duration and doubles with every further failure")
+    public void lockoutDoubles() {
+        assertEquals(1000, LIMITS.lockoutNanos(3));
+        assertEquals(2000, LIMITS.lockoutNanos(4));
+        assertEquals(4000, LIMITS.lockoutNanos(5));
+        assertEquals(8000, LIMITS.lockoutNanos(6));
+    }
+
+    @Test
+    @DisplayName("The lockout is capped at the maximum duration")
+    public void lockoutIsCapped() {
+        assertEquals(8000, LIMITS.lockoutNanos(7));
+        assertEquals(8000, LIMITS.lockoutNanos(100));
+        assertEquals(8000, LIMITS.lockoutNanos(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Large base durations do not overflow into negative lockouts")
+    public void largeBaseDoesNotOverflow() {
+        long base = TimeUnit.SECONDS.toNanos(900);
+        long max = TimeUnit.DAYS.toNanos(365);
+        ThrottleLimits limits = new ThrottleLimits(10, 1.0, 1, base, max);
+
+        for (int failures = 1; failures <= 70; failures++) {
+            long lockout = limits.lockoutNanos(failures);
+            assertEquals(Math.min(max, base * (1L << Math.min(failures - 1, 20))), lockout,
+                    "Lockout after " + failures + " failures");
+        }
+        assertEquals(max, limits.lockoutNanos(Integer.MAX_VALUE));
+    }
+}
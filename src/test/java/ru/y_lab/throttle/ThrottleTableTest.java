@@ -0,0 +1,104 @@
+package ru.y_lab.throttle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ThrottleTable} driven by a synthetic clock.
+ */
+@DisplayName("Tests for login throttle tables")
+public class ThrottleTableTest {
+
+    private static final long IDLE_NANOS = 100;
+    private static final ThrottleLimits LIMITS = new ThrottleLimits(2, 1.0 / 1024, 2, 1000, 8000);
+
+    @Test
+    @DisplayName("Each key gets its own entry, which is returned again on later lookups")
+    public void entryPerKey() {
+        ThrottleTable table = new ThrottleTable(LIMITS, 10, IDLE_NANOS);
+
+        ThrottleEntry alice = table.entry("alice", 0);
+        ThrottleEntry bob = table.entry("bob", 0);
+
+        assertNotSame(alice, bob);
+        assertSame(alice, table.entry("alice", 0));
+        assertSame(alice, table.find("alice"));
+        assertNull(table.find("carol"));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    @DisplayName("New keys share the overflow entry while the table is full")
+    public void fullTableSharesOverflow() {
+        ThrottleTable table = new ThrottleTable(LIMITS, 2, IDLE_NANOS);
+        ThrottleEntry alice = table.entry("alice", 0);
+        table.entry("bob", 0);
+
+        ThrottleEntry carol = table.entry("carol", 0);
+        ThrottleEntry dave = table.entry("dave", 0);
+
+        assertSame(carol, dave);
+        assertNotSame(alice, carol);
+        assertNull(table.find("carol"));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    @DisplayName("The overflow entry rate limits but never locks out")
+    public void overflowDoesNotLockOut() {
+        ThrottleTable table = new ThrottleTable(LIMITS, 0, IDLE_NANOS);
+        // The overflow entry is created on the System.nanoTime() timeline
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 100; i++)
+            table.entry("user" + i, now).recordFailure(now);
+
+        ThrottleEntry overflow = table.entry("victim", now);
+        assertEquals(0, overflow.lockedOutFor(now));
+        assertEquals(0, overflow.tryAcquire(now));
+        assertEquals(0, overflow.tryAcquire(now));
+        assertTrue(overflow.tryAcquire(now) > 0);
+    }
+
+    @Test
+    @DisplayName("A table without lockouts rate limits its keys but never locks them out")
+    public void tableWithoutLockouts() {
+        ThrottleTable table = new ThrottleTable(LIMITS, 10, IDLE_NANOS, false);
+
+        ThrottleEntry address = table.entry("10.0.0.1", 0);
+        for (int i = 0; i < 10; i++)
+            address.recordFailure(0);
+
+        assertEquals(0, address.lockedOutFor(0));
+        assertEquals(0, address.tryAcquire(0));
+        assertEquals(0, address.tryAcquire(0));
+        assertTrue(address.tryAcquire(0) > 0);
+    }
+
+    @Test
+    @DisplayName("Lookups do not evict; the sweep drops idle entries only and frees room for new keys")
+    public void sweepEvictsIdleEntries() {
+        ThrottleTable table = new ThrottleTable(LIMITS, 2, IDLE_NANOS);
+        table.entry("alice", 0);
+        table.entry("bob", 0).tryAcquire(50);
+
+        assertNull(table.find("carol"));
+        table.entry("carol", IDLE_NANOS);
+        assertNull(table.find("carol"));
+
+        table.evictIdle(IDLE_NANOS);
+        assertEquals(1, table.size());
+        assertNull(table.find("alice"));
+        assertNotNull(table.find("bob"));
+
+        ThrottleEntry carol = table.entry("carol", IDLE_NANOS);
+        assertSame(carol, table.find("carol"));
+    }
+}
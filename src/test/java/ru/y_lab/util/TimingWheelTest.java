@@ -0,0 +1,164 @@
+package ru.y_lab.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link TimingWheel} driven by a synthetic clock with ticks of 10 ms starting at 0.
+ */
+@DisplayName("Tests for the hierarchical timing wheel")
+public class TimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final long MAX_DELTA = (1L << 24) - 1;
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    @DisplayName("A deadline in the past fires on the next tick")
+    public void pastDeadlineFiresOnNextTick() {
+        wheel.schedule("past", -500);
+
+        assertEquals(0, wheel.advance(TICK - 1, fired::add));
+        assertEquals(1, wheel.advance(TICK, fired::add));
+        assertEquals(List.of("past"), fired);
+    }
+
+    @Test
+    @DisplayName("A timeout fires on the first tick boundary at or after its deadline, never earlier")
+    public void firesOnTickBoundary() {
+        wheel.schedule("a", 25);
+
+        assertEquals(0, wheel.advance(29, fired::add));
+        assertEquals(1, wheel.advance(30, fired::add));
+        assertEquals(List.of("a"), fired);
+    }
+
+    @Test
+    @DisplayName("Timeouts at the level boundaries fire exactly on their tick")
+    public void levelBoundaries() {
+        long[] ticks = {1, 63, 64, 65, 127, 128, 4095, 4096, 4097, 4160, 8191, 8192};
+        for (long tick : ticks)
+            wheel.schedule(String.valueOf(tick), tick * TICK);
+
+        Map<String, Long> firedAt = new HashMap<>();
+        for (long tick = 1; tick <= 8200; tick++) {
+            long now = tick;
+            wheel.advance(tick * TICK, task -> firedAt.put(task, now));
+        }
+
+        for (long tick : ticks)
+            assertEquals(tick, firedAt.get(String.valueOf(tick)), "Timeout due at tick " + tick);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Timeouts scheduled after the wheel has advanced land on the right tick")
+    public void scheduleAfterAdvance() {
+        wheel.advance(1000 * TICK, fired::add);
+        long[] deltas = {1, 64, 4096, 262_144};
+        for (long delta : deltas)
+            wheel.schedule(String.valueOf(delta), (1000 + delta) * TICK);
+
+        for (long delta : deltas) {
+            assertEquals(0, wheel.advance((1000 + delta - 1) * TICK, fired::add), "Early at delta " + delta);
+            assertEquals(1, wheel.advance((1000 + delta) * TICK, fired::add), "Late at delta " + delta);
+        }
+    }
+
+    @Test
+    @DisplayName("Deadlines beyond the range of the top level are parked and still fire on their tick")
+    public void deadlineBeyondMaxDelta() {
+        long nearTick = MAX_DELTA + 100;
+        long farTick = 2 * MAX_DELTA + 7;
+        wheel.schedule("near", nearTick * TICK);
+        wheel.schedule("far", farTick * TICK);
+
+        assertEquals(0, wheel.advance((nearTick - 1) * TICK, fired::add));
+        assertEquals(1, wheel.advance(nearTick * TICK, fired::add));
+        assertEquals(0, wheel.advance((farTick - 1) * TICK, fired::add));
+        assertEquals(1, wheel.advance(farTick * TICK, fired::add));
+        assertEquals(List.of("near", "far"), fired);
+    }
+
+    @Test
+    @DisplayName("A timeout cancelled before it is cascaded does not fire")
+    public void cancelBeforeCascade() {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("cancelled", 100 * TICK);
+        wheel.advance(10 * TICK, fired::add);
+
+        assertTrue(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, wheel.size());
+
+        assertEquals(0, wheel.advance(200 * TICK, fired::add));
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    @DisplayName("A timeout cancelled after it was cascaded to a lower level does not fire")
+    public void cancelAfterCascade() {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("cancelled", 100 * TICK);
+        wheel.advance(70 * TICK, fired::add);
+
+        assertTrue(timeout.cancel());
+        assertEquals(0, wheel.advance(200 * TICK, fired::add));
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    @DisplayName("A timeout that has fired can no longer be cancelled")
+    public void cancelAfterFire() {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("fired", TICK);
+        wheel.advance(TICK, fired::add);
+
+        assertFalse(timeout.cancel());
+        assertFalse(timeout.isCancelled());
+        assertEquals(List.of("fired"), fired);
+    }
+
+    @Test
+    @DisplayName("The size counts the timeouts that have neither fired nor been cancelled")
+    public void size() {
+        TimingWheel.Timeout<String> first = wheel.schedule("first", TICK);
+        TimingWheel.Timeout<String> second = wheel.schedule("second", 5 * TICK);
+        wheel.schedule("third", 5000 * TICK);
+        assertEquals(3, wheel.size());
+
+        assertTrue(second.cancel());
+        assertFalse(second.cancel());
+        assertEquals(2, wheel.size());
+
+        wheel.advance(TICK, fired::add);
+        assertEquals(1, wheel.size());
+        assertFalse(first.cancel());
+        assertEquals(1, wheel.size());
+
+        wheel.advance(5000 * TICK, fired::add);
+        assertEquals(0, wheel.size());
+        assertEquals(List.of("first", "third"), fired);
+    }
+
+    @Test
+    @DisplayName("Timeouts fire in tick order and report their deadline")
+    public void firesInTickOrder() {
+        TimingWheel.Timeout<String> late = wheel.schedule("late", 300 * TICK);
+        wheel.schedule("early", 3 * TICK);
+        wheel.schedule("middle", 70 * TICK);
+
+        assertEquals(3, wheel.advance(300 * TICK, fired::add));
+        assertEquals(List.of("early", "middle", "late"), fired);
+        assertEquals("late", late.task());
+        assertEquals(300 * TICK, late.deadlineMillis());
+    }
+}
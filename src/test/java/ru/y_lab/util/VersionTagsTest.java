@@ -0,0 +1,39 @@
+package ru.y_lab.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link VersionTags}.
+ */
+@DisplayName("Tests for the conversion between versions and entity tags")
+public class VersionTagsTest {
+
+    @Test
+    @DisplayName("A version is sent as a strong quoted tag and parsed back")
+    public void roundTrip() {
+        assertEquals("\"3\"", VersionTags.toETag(3L));
+        assertEquals(3L, VersionTags.parseIfMatch(VersionTags.toETag(3L)));
+        assertEquals(0L, VersionTags.parseIfMatch(" \"0\" "));
+    }
+
+    @Test
+    @DisplayName("An absent header or a wildcard expects no particular version")
+    public void absentOrWildcard() {
+        assertNull(VersionTags.parseIfMatch(null));
+        assertNull(VersionTags.parseIfMatch(""));
+        assertNull(VersionTags.parseIfMatch("  "));
+        assertNull(VersionTags.parseIfMatch("*"));
+    }
+
+    @Test
+    @DisplayName("Anything other than a single version tag is rejected")
+    public void malformedTags() {
+        for (String ifMatch : new String[]{"3", "\"\"", "\"", "W/\"3\"", "\"abc\"", "\"1\", \"2\"", "\"3"})
+            assertThrows(IllegalArgumentException.class, () -> VersionTags.parseIfMatch(ifMatch), ifMatch);
+    }
+}